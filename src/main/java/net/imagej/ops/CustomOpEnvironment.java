@@ -30,10 +30,7 @@
 
 package net.imagej.ops;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 
 import org.scijava.AbstractContextual;
 import org.scijava.Context;
@@ -50,7 +47,7 @@ public class CustomOpEnvironment extends AbstractContextual implements
 	// -- Fields --
 
 	private final OpEnvironment parent;
-	private final OpIndex index;
+	private final OpRegistry registry;
 
 	// -- Constructors --
 
@@ -82,12 +79,11 @@ public class CustomOpEnvironment extends AbstractContextual implements
 	{
 		setContext(context);
 		this.parent = parent;
-		index = new OpIndex();
-		// NB: If this is not performant and/or dynamic enough, we could create/use
-		// a concatenating collection (see e.g. Guava's Iterables.concat method)
-		// that does not copy all the elements.
-		if (parent != null) index.addOps(parent.infos());
-		index.addOps(infos);
+		// NB: Merge the additional ops into the index of the parent, rather than
+		// indexing all of the parent's ops from scratch.
+		if (parent == null) registry = new OpRegistry(infos);
+		else if (infos == null || infos.isEmpty()) registry = parent.registry();
+		else registry = new OpRegistry(parent.registry(), infos);
 	}
 
 	// -- OpEnvironment methods --
@@ -99,12 +95,17 @@ public class CustomOpEnvironment extends AbstractContextual implements
 
 	@Override
 	public OpInfo info(final Class<? extends Op> type) {
-		return index.get(type.getName());
+		return registry.info(type.getName());
 	}
 
 	@Override
 	public Collection<OpInfo> infos() {
-		return index.values();
+		return registry.infos();
+	}
+
+	@Override
+	public OpRegistry registry() {
+		return registry;
 	}
 
 	@Override
@@ -117,26 +118,4 @@ public class CustomOpEnvironment extends AbstractContextual implements
 		return parent().namespace(nsClass);
 	}
 
-	// -- Helper classes --
-
-	/** A table mapping available ops from class name to {@link OpInfo}. */
-	private static class OpIndex extends HashMap<String, OpInfo> {
-
-		public void addOps(final Collection<? extends OpInfo> infos) {
-			if (infos == null) return;
-			for (final OpInfo info : infos) {
-				put(info.cInfo().getDelegateClassName(), info);
-			}
-		}
-		
-		@Override
-		public Collection<OpInfo> values() {
-			final ArrayList<OpInfo> infos = new ArrayList<>();
-			infos.addAll(super.values());
-			Collections.sort(infos);
-			return infos;
-		}
-
-	}
-
 }
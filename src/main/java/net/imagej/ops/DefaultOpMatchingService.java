@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.function.Predicate;
 
@@ -43,6 +44,7 @@ import net.imagej.ops.OpCandidate.StatusCode;
 import org.scijava.Context;
 import org.scijava.InstantiableException;
 import org.scijava.convert.ConvertService;
+import org.scijava.event.EventHandler;
 import org.scijava.log.LogService;
 import org.scijava.module.Module;
 import org.scijava.module.ModuleInfo;
@@ -50,6 +52,8 @@ import org.scijava.module.ModuleItem;
 import org.scijava.module.ModuleService;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
+import org.scijava.plugin.event.PluginsAddedEvent;
+import org.scijava.plugin.event.PluginsRemovedEvent;
 import org.scijava.service.AbstractService;
 import org.scijava.service.Service;
 import org.scijava.util.ConversionUtils;
@@ -77,6 +81,16 @@ public class DefaultOpMatchingService extends AbstractService implements
 	@Parameter
 	private LogService log;
 
+	/** Memo of past matching decisions, to skip candidate enumeration. */
+	private final OpMatchCache matchCache = new OpMatchCache();
+
+	// -- DefaultOpMatchingService methods --
+
+	/** Gets the memo of past matching decisions used by {@link #findMatch}. */
+	public OpMatchCache matchCache() {
+		return matchCache;
+	}
+
 	// -- OpMatchingService methods --
 
 	@Override
@@ -88,6 +102,13 @@ public class DefaultOpMatchingService extends AbstractService implements
 	public OpCandidate findMatch(final OpEnvironment ops,
 		final List<OpRef> refs)
 	{
+		// replay a previous decision for the same signature, if possible
+		final OpMatchCache.Key key = matchCache.key(refs);
+		if (key != null) {
+			final OpCandidate replayed = replay(ops, refs, key);
+			if (replayed != null) return replayed;
+		}
+
 		// find candidates with matching name & type
 		final List<OpCandidate> candidates = findCandidates(ops, refs);
 		assertCandidates(candidates, refs.get(0));
@@ -95,7 +116,9 @@ public class DefaultOpMatchingService extends AbstractService implements
 		// narrow down candidates to the exact matches
 		final List<OpCandidate> matches = filterMatches(candidates);
 
-		return singleMatch(candidates, matches);
+		final OpCandidate match = singleMatch(candidates, matches);
+		if (key != null) memoize(ops, refs, key, candidates, match);
+		return match;
 	}
 
 	@Override
@@ -110,7 +133,7 @@ public class DefaultOpMatchingService extends AbstractService implements
 		final List<OpRef> refs)
 	{
 		final ArrayList<OpCandidate> candidates = new ArrayList<>();
-		for (final OpInfo info : ops.infos()) {
+		for (final OpInfo info : candidateInfos(ops.registry(), refs)) {
 			for (final OpRef ref : refs) {
 				if (isCandidate(info, ref)) {
 					candidates.add(new OpCandidate(ops, ref, info));
@@ -206,13 +229,135 @@ public class DefaultOpMatchingService extends AbstractService implements
 		return paddedArgs;
 	}
 
+	// -- Event handlers --
+
+	@EventHandler
+	protected void onEvent(final PluginsAddedEvent event) {
+		// NB: The pool of available ops may have changed.
+		matchCache.clear();
+	}
+
+	@EventHandler
+	protected void onEvent(final PluginsRemovedEvent event) {
+		// NB: The pool of available ops may have changed.
+		matchCache.clear();
+	}
+
 	// -- Helper methods --
 
+	/**
+	 * Replays the memoized match for the given key, if any.
+	 * <p>
+	 * Helper method of {@link #findMatch}.
+	 * </p>
+	 * 
+	 * @return The initialized matching candidate, or null if there is no
+	 *         memoized match or it does not hold for these argument values.
+	 */
+	private OpCandidate replay(final OpEnvironment ops, final List<OpRef> refs,
+		final OpMatchCache.Key key)
+	{
+		final OpMatchCache.Entry entry = matchCache.get(ops, key);
+		if (entry == null) return null;
+
+		// NB: Conformance may depend on the argument values rather than their
+		// types. If a previously rejected op now conforms, or the chosen op no
+		// longer does, the decision must be made from scratch.
+		for (final OpMatchCache.Rejection rejection : entry.rejections()) {
+			final OpCandidate candidate = replayCandidate(ops, refs.get(rejection
+				.refIndex()), rejection.info());
+			if (candidate == null || moduleConforms(candidate)) {
+				matchCache.remove(ops, key);
+				return null;
+			}
+		}
+		final OpCandidate match = replayCandidate(ops, refs.get(entry.refIndex()),
+			entry.info());
+		if (match == null || !moduleConforms(match)) {
+			matchCache.remove(ops, key);
+			return null;
+		}
+
+		initialize(match);
+		return match;
+	}
+
+	/** Helper method of {@link #replay}. */
+	private OpCandidate replayCandidate(final OpEnvironment ops,
+		final OpRef ref, final OpInfo info)
+	{
+		final OpCandidate candidate = new OpCandidate(ops, ref, info);
+		final Object[] args = padArgs(candidate);
+		if (args == null) return null;
+		candidate.setArgs(args);
+		return candidate;
+	}
+
+	/**
+	 * Memoizes the given match, if its selection depended only on the argument
+	 * types and the conformance of the candidates.
+	 * <p>
+	 * Helper method of {@link #findMatch}.
+	 * </p>
+	 */
+	private void memoize(final OpEnvironment ops, final List<OpRef> refs,
+		final OpMatchCache.Key key, final List<OpCandidate> candidates,
+		final OpCandidate match)
+	{
+		// NB: Loose matches rely on the ConvertService, which may consider the
+		// argument values. Only perfect and cast matches are safe to replay.
+		if (!typesPerfectMatch(match) && findCastLevels(match) < 0) return;
+
+		final List<OpMatchCache.Rejection> rejections = new ArrayList<>();
+		for (final OpCandidate candidate : candidates) {
+			if (candidate.getStatusCode() != StatusCode.DOES_NOT_CONFORM) continue;
+			rejections.add(new OpMatchCache.Rejection(indexOf(refs, candidate
+				.getRef()), candidate.opInfo()));
+		}
+		matchCache.put(ops, key, new OpMatchCache.Entry(indexOf(refs, match
+			.getRef()), match.opInfo(), rejections));
+	}
+
+	/** Helper method of {@link #memoize}. */
+	private int indexOf(final List<OpRef> refs, final OpRef ref) {
+		for (int i = 0; i < refs.size(); i++) {
+			if (refs.get(i) == ref) return i;
+		}
+		throw new IllegalArgumentException("Unknown op reference: " + ref);
+	}
+
+	/**
+	 * Gets the ops which might match any of the given op references, sorted by
+	 * priority.
+	 * <p>
+	 * Helper method of {@link #findCandidates}.
+	 * </p>
+	 */
+	private List<OpInfo> candidateInfos(final OpRegistry registry,
+		final List<OpRef> refs)
+	{
+		if (refs.size() == 1) {
+			final OpRef ref = refs.get(0);
+			return registry.infos(ref.getName(), ref.getTypes());
+		}
+		final LinkedHashSet<OpInfo> union = new LinkedHashSet<>();
+		for (final OpRef ref : refs) {
+			union.addAll(registry.infos(ref.getName(), ref.getTypes()));
+		}
+		final ArrayList<OpInfo> infos = new ArrayList<>(union);
+		Collections.sort(infos);
+		return infos;
+	}
+
 	/** Helper method of {@link #findCandidates}. */
 	private boolean isCandidate(final OpInfo info, final OpRef ref) {
 		if (!info.nameMatches(ref.getName())) return false;
 
-		// the name matches; now check the class
+		// the name matches; check the precomputed supertypes, if available
+		final OpSignature signature = info.signature();
+		if (signature != null) return signature.typesMatch(ref);
+
+		// no signature; check the class
 		final Class<?> opClass;
 		try {
 			opClass = info.cInfo().loadClass();
@@ -251,6 +396,7 @@ public class DefaultOpMatchingService extends AbstractService implements
 	{
 		final ArrayList<OpCandidate> validCandidates = new ArrayList<>();
 		for (final OpCandidate candidate : candidates) {
+			if (!argCountMatches(candidate)) continue;
 			if (!valid(candidate) || !outputsMatch(candidate)) continue;
 			final Object[] args = padArgs(candidate);
 			if (args == null) continue;
@@ -261,6 +407,33 @@ public class DefaultOpMatchingService extends AbstractService implements
 		return validCandidates;
 	}
 
+	/**
+	 * Rules out candidates with the wrong number of arguments by their
+	 * precomputed signature, without discovering their parameters.
+	 * <p>
+	 * Helper method of {@link #filterMatches(List)}.
+	 * </p>
+	 */
+	private boolean argCountMatches(final OpCandidate candidate) {
+		final OpSignature signature = candidate.opInfo().signature();
+		if (signature == null) return true; // checked later by padArgs
+
+		final int argCount = candidate.getRef().getArgs().length;
+		final int inputCount = signature.inputs().size();
+		final int requiredCount = signature.getRequiredInputCount();
+		if (argCount > inputCount) {
+			candidate.setStatus(StatusCode.TOO_MANY_ARGS, argCount + " > " +
+				inputCount);
+			return false;
+		}
+		if (argCount < requiredCount) {
+			candidate.setStatus(StatusCode.TOO_FEW_ARGS, argCount + " < " +
+				requiredCount);
+			return false;
+		}
+		return true;
+	}
+
 	/**
 	 * Determines if the candidate arguments match with lossless conversion. Needs
 	 * support from the conversion in the future.
@@ -415,17 +588,7 @@ public class DefaultOpMatchingService extends AbstractService implements
 	{
 		if (matches.size() == 1) {
 			// a single match: initialize and return it
-			final Module m = matches.get(0).getModule();
-			if (log.isDebug()) {
-				log.debug("Selected '" + matches.get(0).getRef().getLabel() + "' op: " +
-					m.getDelegateObject().getClass().getName());
-			}
-
-			// initialize the op, if appropriate
-			if (m.getDelegateObject() instanceof Initializable) {
-				((Initializable) m.getDelegateObject()).initialize();
-			}
-
+			initialize(matches.get(0));
 			return matches.get(0);
 		}
 
@@ -433,6 +596,26 @@ public class DefaultOpMatchingService extends AbstractService implements
 		throw new IllegalArgumentException(analysis);
 	}
 
+	/**
+	 * Executes the initializer of the given match's {@link Module}, if
+	 * applicable.
+	 * <p>
+	 * Helper method of {@link #singleMatch} and {@link #replay}.
+	 * </p>
+	 */
+	private void initialize(final OpCandidate match) {
+		final Module m = match.getModule();
+		if (log.isDebug()) {
+			log.debug("Selected '" + match.getRef().getLabel() + "' op: " + m
+				.getDelegateObject().getClass().getName());
+		}
+
+		// initialize the op, if appropriate
+		if (m.getDelegateObject() instanceof Initializable) {
+			((Initializable) m.getDelegateObject()).initialize();
+		}
+	}
+
 	/**
 	 * Verifies that the given candidate's module is valid.
 	 * <p>
@@ -35,9 +35,12 @@ import java.util.Collection;
 
 import org.scijava.command.CommandInfo;
 import org.scijava.command.CommandService;
+import org.scijava.event.EventHandler;
 import org.scijava.plugin.AbstractPTService;
 import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
+import org.scijava.plugin.event.PluginsAddedEvent;
+import org.scijava.plugin.event.PluginsRemovedEvent;
 import org.scijava.service.Service;
 
 /**
@@ -59,6 +62,12 @@ public class DefaultOpService extends AbstractPTService<Op> implements
 	@Parameter
 	private NamespaceService namespaceService;
 
+	/** Index of the available ops, built on first use. */
+	private volatile OpRegistry registry;
+
+	/** Signatures of the available ops, generated at build time. */
+	private OpSignatureIndex signatures;
+
 	// -- OpEnvironment methods --
 
 	@Override
@@ -68,21 +77,22 @@ public class DefaultOpService extends AbstractPTService<Op> implements
 
 	@Override
 	public OpInfo info(final Class<? extends Op> type) {
-		// TODO: Consider maintaining a separate and efficient
-		// OpInfo data structure in AbstractOpEnvironment.
+		final OpInfo info = registry().info(type.getName());
+		if (info != null) return info;
 		final CommandInfo cInfo = commandService.getCommand(type);
 		return cInfo == null ? null : new OpInfo(cInfo);
 	}
 
 	@Override
 	public Collection<OpInfo> infos() {
-		// TODO: Consider maintaining a separate and efficient
-		// OpInfo data structure in AbstractOpEnvironment.
-		final ArrayList<OpInfo> infos = new ArrayList<>();
-		for (final CommandInfo cInfo : commandService.getCommandsOfType(Op.class)) {
-			infos.add(new OpInfo(cInfo));
-		}
-		return infos;
+		return registry().infos();
+	}
+
+	@Override
+	public OpRegistry registry() {
+		OpRegistry r = registry;
+		if (r == null) r = initRegistry();
+		return r;
 	}
 
 	@Override
@@ -90,6 +100,21 @@ public class DefaultOpService extends AbstractPTService<Op> implements
 		return namespaceService.create(nsClass, this);
 	}
 
+	// -- Event handlers --
+
+	@EventHandler
+	protected void onEvent(final PluginsAddedEvent event) {
+		// NB: The pool of available ops may have changed.
+		registry = null;
+		signatures = null;
+	}
+
+	@EventHandler
+	protected void onEvent(final PluginsRemovedEvent event) {
+		// NB: The pool of available ops may have changed.
+		registry = null;
+	}
+
 	// -- SingletonService methods --
 
 	@Override
@@ -97,4 +122,22 @@ public class DefaultOpService extends AbstractPTService<Op> implements
 		return Op.class;
 	}
 
+	// -- Helper methods --
+
+	/** Initializes {@link #registry}. */
+	private synchronized OpRegistry initRegistry() {
+		if (registry == null) {
+			if (signatures == null) signatures = OpSignatureIndex.load(null);
+			final ArrayList<OpInfo> infos = new ArrayList<>();
+			for (final CommandInfo cInfo : commandService.getCommandsOfType(
+				Op.class))
+			{
+				infos.add(new OpInfo(cInfo, signatures.get(cInfo
+					.getDelegateClassName())));
+			}
+			registry = new OpRegistry(infos);
+		}
+		return registry;
+	}
+
 }
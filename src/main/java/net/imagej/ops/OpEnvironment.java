@@ -58,10 +58,15 @@ import net.imagej.ops.morphology.MorphologyNamespace;
 import net.imagej.ops.special.SpecialOp;
 import net.imagej.ops.special.UnaryOutputFactory;
 import net.imagej.ops.special.computer.BinaryComputerOp;
+import net.imagej.ops.special.computer.Computers;
 import net.imagej.ops.special.computer.NullaryComputerOp;
 import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.special.function.BinaryFunctionOp;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imagej.ops.special.inplace.BinaryInplace1Op;
 import net.imagej.ops.special.inplace.BinaryInplaceOp;
+import net.imagej.ops.special.inplace.Inplaces;
 import net.imagej.ops.special.inplace.UnaryInplaceOp;
 import net.imagej.ops.stats.StatsNamespace;
 import net.imagej.ops.thread.ThreadNamespace;
@@ -72,6 +77,10 @@ import net.imglib2.IterableInterval;
 import net.imglib2.RandomAccessible;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.algorithm.neighborhood.Shape;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.basictypeaccess.array.ArrayDataAccess;
+import net.imglib2.img.planar.PlanarImg;
+import net.imglib2.type.NativeType;
 import net.imglib2.type.Type;
 
 import org.scijava.Contextual;
@@ -239,6 +248,99 @@ public interface OpEnvironment extends Contextual {
 		return OpUtils.unwrap(match.getModule(), match.getRef());
 	}
 
+	/**
+	 * Gets a bound {@link UnaryComputerOp} handle for the given types and
+	 * arguments.
+	 * <p>
+	 * The op is matched and initialized once; calling
+	 * {@link UnaryComputerOp#compute} on the returned handle afterwards invokes
+	 * the op directly, without going through the {@link Module} machinery and
+	 * without matching again. This makes handles the preferred way to call an
+	 * op repeatedly from a tight loop. Handles are not thread-safe; use
+	 * {@link UnaryComputerOp#getIndependentInstance()} to obtain a copy for
+	 * each thread.
+	 * </p>
+	 *
+	 * @see Computers#unary(OpEnvironment, Class, Class, Class, Object...)
+	 */
+	default <I, O> UnaryComputerOp<I, O> unaryComputer(
+		final Class<? extends Op> type, final Class<O> outType,
+		final Class<I> inType, final Object... otherArgs)
+	{
+		return Computers.unary(this, type, outType, inType, otherArgs);
+	}
+
+	/**
+	 * Gets a bound {@link UnaryFunctionOp} handle for the given types and
+	 * arguments. See {@link #unaryComputer} for the semantics of handles.
+	 *
+	 * @see Functions#unary(OpEnvironment, Class, Class, Class, Object...)
+	 */
+	default <I, O> UnaryFunctionOp<I, O> unaryFunction(
+		final Class<? extends Op> type, final Class<O> outType,
+		final Class<I> inType, final Object... otherArgs)
+	{
+		return Functions.unary(this, type, outType, inType, otherArgs);
+	}
+
+	/**
+	 * Gets a bound {@link UnaryInplaceOp} handle for the given types and
+	 * arguments. See {@link #unaryComputer} for the semantics of handles.
+	 *
+	 * @see Inplaces#unary(OpEnvironment, Class, Class, Object...)
+	 */
+	default <A> UnaryInplaceOp<? super A, A> unaryInplace(
+		final Class<? extends Op> type, final Class<A> argType,
+		final Object... otherArgs)
+	{
+		return Inplaces.unary(this, type, argType, otherArgs);
+	}
+
+	/**
+	 * Gets a bound {@link BinaryComputerOp} handle for the given types and
+	 * arguments. See {@link #unaryComputer} for the semantics of handles.
+	 *
+	 * @see Computers#binary(OpEnvironment, Class, Class, Class, Class,
+	 *      Object...)
+	 */
+	default <I1, I2, O> BinaryComputerOp<I1, I2, O> binaryComputer(
+		final Class<? extends Op> type, final Class<O> outType,
+		final Class<I1> in1Type, final Class<I2> in2Type,
+		final Object... otherArgs)
+	{
+		return Computers.binary(this, type, outType, in1Type, in2Type,
+			otherArgs);
+	}
+
+	/**
+	 * Gets a bound {@link BinaryFunctionOp} handle for the given types and
+	 * arguments. See {@link #unaryComputer} for the semantics of handles.
+	 *
+	 * @see Functions#binary(OpEnvironment, Class, Class, Class, Class,
+	 *      Object...)
+	 */
+	default <I1, I2, O> BinaryFunctionOp<I1, I2, O> binaryFunction(
+		final Class<? extends Op> type, final Class<O> outType,
+		final Class<I1> in1Type, final Class<I2> in2Type,
+		final Object... otherArgs)
+	{
+		return Functions.binary(this, type, outType, in1Type, in2Type,
+			otherArgs);
+	}
+
+	/**
+	 * Gets a bound {@link BinaryInplaceOp} handle for the given types and
+	 * arguments. See {@link #unaryComputer} for the semantics of handles.
+	 *
+	 * @see Inplaces#binary(OpEnvironment, Class, Class, Object...)
+	 */
+	default <A> BinaryInplaceOp<? super A, A> binaryInplace(
+		final Class<? extends Op> type, final Class<A> argType,
+		final Object... otherArgs)
+	{
+		return Inplaces.binary(this, type, argType, otherArgs);
+	}
+
 	/**
 	 * Gets the best {@link Op} to use for the given operation and arguments,
 	 * wrapping it as a {@link Module} with populated inputs.
@@ -296,6 +398,18 @@ public interface OpEnvironment extends Contextual {
 	 */
 	Collection<OpInfo> infos();
 
+	/**
+	 * Gets the available ops for the context, indexed for fast lookup.
+	 * <p>
+	 * The default implementation builds a new {@link OpRegistry} from
+	 * {@link #infos()} on every call; environments are encouraged to override
+	 * this method to return a persistent registry instead.
+	 * </p>
+	 */
+	default OpRegistry registry() {
+		return new OpRegistry(infos());
+	}
+
 	/** Gets the fully qualified names of all available operations. */
 	default Collection<String> ops() {
 		// collect list of unique operation names
@@ -643,6 +757,182 @@ public interface OpEnvironment extends Contextual {
 		return result;
 	}
 
+	/** Executes the "map" operation on the given arguments. */
+	@OpMethod(ops = {
+		net.imagej.ops.map.MapArrayImgs.AddConstantByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantByte.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantShort.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantInt.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantInt.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantInt.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantInt.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantLong.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantLong.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantLong.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantLong.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantFloat.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantFloat.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantFloat.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantFloat.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantDouble.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantDouble.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantDouble.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantDouble.class })
+	default <T extends NativeType<T>, A> ArrayImg<T, A> map(
+		final ArrayImg<T, A> out, final ArrayImg<T, A> in,
+		final UnaryComputerOp<T, T> op)
+	{
+		@SuppressWarnings("unchecked")
+		final ArrayImg<T, A> result =
+			(ArrayImg<T, A>) run(net.imagej.ops.Ops.Map.class, out, in, op);
+		return result;
+	}
+
+	/** Executes the "map" operation on the given arguments. */
+	@OpMethod(ops = {
+		net.imagej.ops.map.MapArrayImgs.AddByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyByte.class,
+		net.imagej.ops.map.MapArrayImgs.DivideByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.DivideUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyShort.class,
+		net.imagej.ops.map.MapArrayImgs.DivideShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.DivideUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddInt.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractInt.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyInt.class,
+		net.imagej.ops.map.MapArrayImgs.DivideInt.class,
+		net.imagej.ops.map.MapArrayImgs.AddLong.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractLong.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyLong.class,
+		net.imagej.ops.map.MapArrayImgs.DivideLong.class,
+		net.imagej.ops.map.MapArrayImgs.AddFloat.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractFloat.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyFloat.class,
+		net.imagej.ops.map.MapArrayImgs.DivideFloat.class,
+		net.imagej.ops.map.MapArrayImgs.AddDouble.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractDouble.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyDouble.class,
+		net.imagej.ops.map.MapArrayImgs.DivideDouble.class })
+	default <T extends NativeType<T>, A> ArrayImg<T, A> map(
+		final ArrayImg<T, A> out, final ArrayImg<T, A> in1,
+		final ArrayImg<T, A> in2, final BinaryComputerOp<T, T, T> op)
+	{
+		@SuppressWarnings("unchecked")
+		final ArrayImg<T, A> result =
+			(ArrayImg<T, A>) run(net.imagej.ops.Ops.Map.class, out, in1, in2, op);
+		return result;
+	}
+
+	/** Executes the "map" operation on the given arguments. */
+	@OpMethod(ops = {
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.AddConstantPlanarDouble.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractConstantPlanarDouble.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyConstantPlanarDouble.class,
+		net.imagej.ops.map.MapArrayImgs.DivideConstantPlanarDouble.class })
+	default <T extends NativeType<T>, A extends ArrayDataAccess<A>> PlanarImg<T, A>
+		map(final PlanarImg<T, A> out, final PlanarImg<T, A> in,
+			final UnaryComputerOp<T, T> op)
+	{
+		@SuppressWarnings("unchecked")
+		final PlanarImg<T, A> result =
+			(PlanarImg<T, A>) run(net.imagej.ops.Ops.Map.class, out, in, op);
+		return result;
+	}
+
+	/** Executes the "map" operation on the given arguments. */
+	@OpMethod(ops = {
+		net.imagej.ops.map.MapArrayImgs.AddPlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddPlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarUnsignedByte.class,
+		net.imagej.ops.map.MapArrayImgs.AddPlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddPlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarUnsignedShort.class,
+		net.imagej.ops.map.MapArrayImgs.AddPlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarInt.class,
+		net.imagej.ops.map.MapArrayImgs.AddPlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarLong.class,
+		net.imagej.ops.map.MapArrayImgs.AddPlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarFloat.class,
+		net.imagej.ops.map.MapArrayImgs.AddPlanarDouble.class,
+		net.imagej.ops.map.MapArrayImgs.SubtractPlanarDouble.class,
+		net.imagej.ops.map.MapArrayImgs.MultiplyPlanarDouble.class,
+		net.imagej.ops.map.MapArrayImgs.DividePlanarDouble.class })
+	default <T extends NativeType<T>, A extends ArrayDataAccess<A>> PlanarImg<T, A>
+		map(final PlanarImg<T, A> out, final PlanarImg<T, A> in1,
+			final PlanarImg<T, A> in2, final BinaryComputerOp<T, T, T> op)
+	{
+		@SuppressWarnings("unchecked")
+		final PlanarImg<T, A> result =
+			(PlanarImg<T, A>) run(net.imagej.ops.Ops.Map.class, out, in1, in2, op);
+		return result;
+	}
+
 	/** Executes the "map" operation on the given arguments. */
 	@OpMethod(op = net.imagej.ops.map.MapViewRAIToRAI.class)
 	default <EI, EO extends Type<EO>> RandomAccessibleInterval<EO> map(
@@ -48,9 +48,19 @@ import org.scijava.util.ClassUtils;
 public class OpInfo implements Comparable<OpInfo> {
 
 	private final CommandInfo cInfo;
+	private final OpSignature signature;
 
 	public OpInfo(final CommandInfo cInfo) {
+		this(cInfo, null);
+	}
+
+	/**
+	 * Creates op metadata backed by the given precomputed signature, which
+	 * spares the reflective discovery of the op's name and aliases.
+	 */
+	public OpInfo(final CommandInfo cInfo, final OpSignature signature) {
 		this.cInfo = cInfo;
+		this.signature = signature;
 	}
 
 	public OpInfo(final Class<? extends Op> opClass) {
@@ -62,6 +72,16 @@ public class OpInfo implements Comparable<OpInfo> {
 		return cInfo;
 	}
 
+	/**
+	 * Gets the precomputed signature of the op, or null if the op has not been
+	 * indexed at build time.
+	 *
+	 * @see OpSignatureIndex
+	 */
+	public OpSignature signature() {
+		return signature;
+	}
+
 	/** Gets the op's input parameters. */
 	public List<ModuleItem<?>> inputs() {
 		return OpUtils.inputs(cInfo());
@@ -84,6 +104,7 @@ public class OpInfo implements Comparable<OpInfo> {
 		if (name != null && !name.isEmpty()) return name;
 
 		// name not explicitly specified; look for NAME constant
+		if (signature() != null) return signature().getName();
 		return getFieldValue(String.class, "NAME");
 	}
 
@@ -122,6 +143,7 @@ public class OpInfo implements Comparable<OpInfo> {
 		if (aliases != null) return aliases.split("\\s*,\\s*");
 
 		// alias not explicitly specified; look for ALIAS constant
+		if (signature() != null) return signature().getAliases();
 		final String aliasField = getFieldValue(String.class, "ALIAS");
 		if (aliasField != null) return new String[] {aliasField};
 
@@ -0,0 +1,350 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * A bounded, thread-safe memo of past {@link OpMatchingService} decisions.
+ * <p>
+ * Entries are keyed on the <em>signature</em> of the requested
+ * {@link OpRef}s&mdash;name, type constraints, output type constraints, and
+ * the raw classes (or placeholder types) of the arguments&mdash;and remember
+ * which {@link OpInfo} won, as well as which candidates were rejected only
+ * because they were {@link Contingent} and did not conform. Since conformance
+ * may depend on argument <em>values</em>, the matcher must re-check those
+ * candidates before replaying a memoized decision.
+ * </p>
+ * <p>
+ * One table is kept per {@link OpEnvironment}, weakly referenced so that
+ * short-lived custom environments do not leak. Each table holds at most
+ * {@link #getMaxEntries()} entries, evicting the least recently used.
+ * </p>
+ *
+ * @see DefaultOpMatchingService
+ */
+public class OpMatchCache {
+
+	/** Default maximum number of memoized matches per op environment. */
+	public static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	private final Map<OpEnvironment, Map<Key, Entry>> tables =
+		new WeakHashMap<>();
+
+	private int maxEntries;
+
+	private long hits, misses;
+
+	public OpMatchCache() {
+		this(DEFAULT_MAX_ENTRIES);
+	}
+
+	public OpMatchCache(final int maxEntries) {
+		setMaxEntries(maxEntries);
+	}
+
+	// -- OpMatchCache methods --
+
+	/** Gets the maximum number of memoized matches per op environment. */
+	public synchronized int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * Sets the maximum number of memoized matches per op environment. A value
+	 * of zero disables memoization altogether.
+	 */
+	public synchronized void setMaxEntries(final int maxEntries) {
+		if (maxEntries < 0) {
+			throw new IllegalArgumentException("Invalid cache size: " + maxEntries);
+		}
+		this.maxEntries = maxEntries;
+		tables.clear();
+	}
+
+	/** Gets the number of lookups which found a memoized match. */
+	public synchronized long hits() {
+		return hits;
+	}
+
+	/** Gets the number of lookups which did not find a memoized match. */
+	public synchronized long misses() {
+		return misses;
+	}
+
+	/** Gets the number of matches memoized for the given environment. */
+	public synchronized int size(final OpEnvironment ops) {
+		final Map<Key, Entry> table = tables.get(ops);
+		return table == null ? 0 : table.size();
+	}
+
+	/** Discards all memoized matches, for all environments. */
+	public synchronized void clear() {
+		tables.clear();
+	}
+
+	/** Discards all memoized matches of the given environment. */
+	public synchronized void clear(final OpEnvironment ops) {
+		tables.remove(ops);
+	}
+
+	/**
+	 * Computes the memoization key of the given op references.
+	 *
+	 * @return The key, or null if the references cannot be memoized.
+	 */
+	public Key key(final List<OpRef> refs) {
+		if (refs == null || refs.isEmpty()) return null;
+		final Object[] signature = new Object[refs.size()];
+		for (int i = 0; i < signature.length; i++) {
+			signature[i] = new RefSignature(refs.get(i));
+		}
+		return new Key(signature);
+	}
+
+	/**
+	 * Gets the memoized match for the given key.
+	 *
+	 * @return The memoized match, or null if none.
+	 */
+	public synchronized Entry get(final OpEnvironment ops, final Key key) {
+		final Map<Key, Entry> table = tables.get(ops);
+		final Entry entry = table == null ? null : table.get(key);
+		if (entry == null) misses++;
+		else hits++;
+		return entry;
+	}
+
+	/** Memoizes the given match. */
+	public synchronized void put(final OpEnvironment ops, final Key key,
+		final Entry entry)
+	{
+		if (maxEntries == 0) return;
+		Map<Key, Entry> table = tables.get(ops);
+		if (table == null) {
+			table = new LRUMap<>(maxEntries);
+			tables.put(ops, table);
+		}
+		table.put(key, entry);
+	}
+
+	/** Forgets the given memoized match, e.g. because it could not be replayed. */
+	public synchronized void remove(final OpEnvironment ops, final Key key) {
+		final Map<Key, Entry> table = tables.get(ops);
+		if (table != null) table.remove(key);
+	}
+
+	// -- Helper classes --
+
+	/** Memoization key identifying a list of {@link OpRef} signatures. */
+	public static final class Key {
+
+		private final Object[] signature;
+		private final int hash;
+
+		private Key(final Object[] signature) {
+			this.signature = signature;
+			hash = Arrays.hashCode(signature);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			final Key that = (Key) o;
+			return hash == that.hash && Arrays.equals(signature, that.signature);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+	}
+
+	/**
+	 * A memoized match: the winning {@link OpInfo}, plus the {@link Contingent}
+	 * candidates which were rejected for not conforming.
+	 * <p>
+	 * NB: Entries must not reference the {@link OpEnvironment} or any argument
+	 * values, lest they prevent garbage collection.
+	 * </p>
+	 */
+	public static final class Entry {
+
+		private final int refIndex;
+		private final OpInfo info;
+		private final List<Rejection> rejections;
+
+		public Entry(final int refIndex, final OpInfo info,
+			final Collection<Rejection> rejections)
+		{
+			this.refIndex = refIndex;
+			this.info = info;
+			this.rejections = rejections == null || rejections.isEmpty() ? //
+				Collections.emptyList() : new ArrayList<>(rejections);
+		}
+
+		/** Gets the index of the winning {@link OpRef}. */
+		public int refIndex() {
+			return refIndex;
+		}
+
+		/** Gets the metadata of the winning op. */
+		public OpInfo info() {
+			return info;
+		}
+
+		/** Gets the candidates rejected because they did not conform. */
+		public List<Rejection> rejections() {
+			return rejections;
+		}
+
+	}
+
+	/** A {@link Contingent} candidate which did not conform. */
+	public static final class Rejection {
+
+		private final int refIndex;
+		private final OpInfo info;
+
+		public Rejection(final int refIndex, final OpInfo info) {
+			this.refIndex = refIndex;
+			this.info = info;
+		}
+
+		/** Gets the index of the {@link OpRef} the candidate was matched against. */
+		public int refIndex() {
+			return refIndex;
+		}
+
+		/** Gets the metadata of the rejected op. */
+		public OpInfo info() {
+			return info;
+		}
+
+	}
+
+	/** The parts of an {@link OpRef} which influence its type matching. */
+	private static final class RefSignature {
+
+		private final String name;
+		private final Collection<Type> types;
+		private final List<Type> outTypes;
+		private final Object[] argTypes;
+		private final int hash;
+
+		private RefSignature(final OpRef ref) {
+			name = ref.getName();
+			types = ref.getTypes();
+			outTypes = ref.getOutTypes();
+			final Object[] args = ref.getArgs();
+			argTypes = new Object[args.length];
+			for (int i = 0; i < args.length; i++) {
+				argTypes[i] = argType(args[i]);
+			}
+			hash = Objects.hash(name, types, outTypes, Arrays.hashCode(argTypes));
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (!(o instanceof RefSignature)) return false;
+			final RefSignature that = (RefSignature) o;
+			return hash == that.hash && Objects.equals(name, that.name) && //
+				Objects.equals(types, that.types) && //
+				Objects.equals(outTypes, that.outTypes) && //
+				Arrays.equals(argTypes, that.argTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		private static Object argType(final Object arg) {
+			if (arg == null) return null;
+			// NB: Type arguments are placeholders for typed nulls; they must be
+			// distinguished from actual values of class Class.
+			if (arg instanceof Type) return new Placeholder((Type) arg);
+			return arg.getClass();
+		}
+
+	}
+
+	/** Wrapper marking a {@link Type} passed as an argument placeholder. */
+	private static final class Placeholder {
+
+		private final Type type;
+
+		private Placeholder(final Type type) {
+			this.type = type;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			return o instanceof Placeholder && type.equals(((Placeholder) o).type);
+		}
+
+		@Override
+		public int hashCode() {
+			return type.hashCode();
+		}
+
+	}
+
+	/** A {@link LinkedHashMap} which evicts its least recently used entry. */
+	private static final class LRUMap<K, V> extends LinkedHashMap<K, V> {
+
+		private final int maxEntries;
+
+		private LRUMap(final int maxEntries) {
+			super(16, 0.75f, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+			return size() > maxEntries;
+		}
+
+	}
+
+}
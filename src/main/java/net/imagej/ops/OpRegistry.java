@@ -0,0 +1,250 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.imagej.ops.special.SpecialOp;
+
+import org.scijava.InstantiableException;
+import org.scijava.util.GenericUtils;
+
+/**
+ * An immutable pool of {@link OpInfo}s, indexed for fast candidate lookup.
+ * <p>
+ * The registry is built once per {@link OpEnvironment}, and indexes its ops by
+ * class name, by op name (including aliases, with and without namespace) and
+ * lazily by {@link Op} type and arity. This way, the {@link OpMatchingService}
+ * only needs to consider a handful of candidates for each {@link OpRef},
+ * rather than scanning every available op.
+ * </p>
+ * <p>
+ * All lists handed out by the registry are sorted by priority, the same order
+ * as {@link #infos()}.
+ * </p>
+ *
+ * @see OpEnvironment#registry()
+ */
+public class OpRegistry {
+
+	/** All ops, sorted by priority. */
+	private final List<OpInfo> infos;
+
+	/** Table mapping ops from class name to {@link OpInfo}. */
+	private final Map<String, OpInfo> byClassName;
+
+	/** Table mapping op class names to the names under which they match. */
+	private final Map<String, String[]> nameKeys;
+
+	/** Table mapping op names (qualified and simple) to matching ops. */
+	private final Map<String, List<OpInfo>> byName;
+
+	/** Lazily populated table mapping op types to matching ops. */
+	private final Map<Class<?>, List<OpInfo>> byType =
+		new ConcurrentHashMap<>();
+
+	/** Lazily populated table mapping op class names to their arity. */
+	private final Map<String, Integer> arities = new ConcurrentHashMap<>();
+
+	/** Creates a registry of the given ops. */
+	public OpRegistry(final Collection<? extends OpInfo> infos) {
+		this(null, infos);
+	}
+
+	/**
+	 * Creates a registry with the ops of the given parent registry, plus the
+	 * specified additional ops. An additional op replaces any op of the parent
+	 * with the same class name.
+	 */
+	public OpRegistry(final OpRegistry parent,
+		final Collection<? extends OpInfo> infos)
+	{
+		byClassName = new HashMap<>();
+		nameKeys = new HashMap<>();
+		if (parent != null) {
+			byClassName.putAll(parent.byClassName);
+			nameKeys.putAll(parent.nameKeys);
+		}
+		if (infos != null) {
+			for (final OpInfo info : infos) {
+				final String className = info.cInfo().getDelegateClassName();
+				byClassName.put(className, info);
+				nameKeys.put(className, nameKeys(info));
+			}
+		}
+
+		final ArrayList<OpInfo> sorted = new ArrayList<>(byClassName.values());
+		Collections.sort(sorted);
+		this.infos = Collections.unmodifiableList(sorted);
+
+		// NB: Lists are populated in priority order, so they remain sorted.
+		byName = new HashMap<>();
+		for (final OpInfo info : sorted) {
+			final String[] keys = nameKeys.get(info.cInfo().getDelegateClassName());
+			for (final String key : keys) {
+				List<OpInfo> list = byName.get(key);
+				if (list == null) byName.put(key, list = new ArrayList<>());
+				if (!list.contains(info)) list.add(info);
+			}
+		}
+	}
+
+	// -- OpRegistry methods --
+
+	/** Gets all available ops, sorted by priority. */
+	public List<OpInfo> infos() {
+		return infos;
+	}
+
+	/** Gets the op with the given class name, or null if there is none. */
+	public OpInfo info(final String className) {
+		return byClassName.get(className);
+	}
+
+	/**
+	 * Gets the ops which might match the given name and type constraints, sorted
+	 * by priority.
+	 * <p>
+	 * The returned list is a superset of the matching ops: the name is matched
+	 * as per {@link OpInfo#nameMatches(String)}, but the type constraints only
+	 * narrow the list down when no name is given. Callers are expected to check
+	 * the type constraints of each op themselves.
+	 * </p>
+	 *
+	 * @param name name of the op, or null for any name.
+	 * @param types types which the op must match, or null for any type.
+	 */
+	public List<OpInfo> infos(final String name,
+		final Collection<? extends Type> types)
+	{
+		if (name != null) {
+			final List<OpInfo> named = byName.get(name);
+			return named == null ? Collections.emptyList() : named;
+		}
+		if (types == null || types.isEmpty()) return infos;
+
+		// use the most selective type constraint
+		List<OpInfo> best = infos;
+		for (final Type type : types) {
+			final List<OpInfo> typed = infos(GenericUtils.getClass(type));
+			if (typed.size() < best.size()) best = typed;
+		}
+		return best;
+	}
+
+	/**
+	 * Gets the ops whose class is compatible with the given type, sorted by
+	 * priority. Ops whose class cannot be loaded are included as well, so that
+	 * the caller can report the problem.
+	 */
+	public List<OpInfo> infos(final Class<?> type) {
+		if (type == null || type == Object.class) return infos;
+		return byType.computeIfAbsent(type, t -> {
+			final ArrayList<OpInfo> typed = new ArrayList<>();
+			for (final OpInfo info : infos) {
+				final OpSignature signature = info.signature();
+				if (signature != null) {
+					if (signature.getSupertypes().contains(t.getName())) typed.add(info);
+					continue;
+				}
+				try {
+					if (t.isAssignableFrom(info.cInfo().loadClass())) typed.add(info);
+				}
+				catch (final InstantiableException exc) {
+					typed.add(info);
+				}
+			}
+			return Collections.unmodifiableList(typed);
+		});
+	}
+
+	/**
+	 * Gets the arity of the given op, as reported by
+	 * {@link SpecialOp#getArity()}.
+	 *
+	 * @return The op's arity, or -1 if it is not a {@link SpecialOp} or cannot
+	 *         be instantiated.
+	 */
+	public int arity(final OpInfo info) {
+		return arities.computeIfAbsent(info.cInfo().getDelegateClassName(),
+			className -> {
+				try {
+					final Class<?> opClass = info.cInfo().loadClass();
+					if (!SpecialOp.class.isAssignableFrom(opClass)) return -1;
+					return ((SpecialOp) opClass.newInstance()).getArity();
+				}
+				catch (final InstantiableException | InstantiationException
+						| IllegalAccessException exc)
+				{
+					// NB: Ignore this problematic op.
+					return -1;
+				}
+			});
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Gets the names under which the given op can be requested: its fully
+	 * qualified name and aliases, each with and without namespace.
+	 */
+	private static String[] nameKeys(final OpInfo info) {
+		final ArrayList<String> keys = new ArrayList<>();
+		try {
+			addNameKeys(keys, info.getName());
+			final String[] aliases = info.getAliases();
+			if (aliases != null) {
+				for (final String alias : aliases) {
+					addNameKeys(keys, alias);
+				}
+			}
+		}
+		catch (final RuntimeException exc) {
+			// NB: Op without usable name metadata; it can only be matched by type.
+		}
+		return keys.toArray(new String[keys.size()]);
+	}
+
+	private static void addNameKeys(final List<String> keys, final String name) {
+		if (name == null) return;
+		keys.add(name);
+		final int dot = name.lastIndexOf(".");
+		if (dot >= 0) keys.add(name.substring(dot + 1));
+	}
+
+}
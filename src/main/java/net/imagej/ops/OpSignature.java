@@ -0,0 +1,277 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.scijava.InstantiableException;
+import org.scijava.module.ModuleItem;
+import org.scijava.util.GenericUtils;
+
+/**
+ * Precomputed matching metadata of an {@link Op} implementation: its name,
+ * aliases, supertypes and parameter signature.
+ * <p>
+ * Signatures are computed at build time and stored in an
+ * {@link OpSignatureIndex}, so that the {@link OpMatchingService} can rule out
+ * candidates by name, type and number of arguments without loading their
+ * classes or reflectively discovering their parameters.
+ * </p>
+ *
+ * @see OpSignatureIndex
+ * @see OpInfo#signature()
+ */
+public class OpSignature {
+
+	private static final String NONE = "-";
+
+	private final String className;
+	private final String name;
+	private final String[] aliases;
+	private final Set<String> supertypes;
+	private final List<Param> inputs;
+	private final List<Param> outputs;
+	private final int requiredInputCount;
+
+	public OpSignature(final String className, final String name,
+		final String[] aliases, final Set<String> supertypes,
+		final List<Param> inputs, final List<Param> outputs)
+	{
+		this.className = className;
+		this.name = name;
+		this.aliases = aliases;
+		this.supertypes = Collections.unmodifiableSet(supertypes);
+		this.inputs = Collections.unmodifiableList(inputs);
+		this.outputs = Collections.unmodifiableList(outputs);
+		int required = 0;
+		for (final Param input : inputs) {
+			if (input.isRequired()) required++;
+		}
+		requiredInputCount = required;
+	}
+
+	// -- Static construction methods --
+
+	/**
+	 * Computes the signature of the given op, loading its class and discovering
+	 * its parameters reflectively.
+	 *
+	 * @throws InstantiableException if the op class cannot be loaded.
+	 */
+	public static OpSignature of(final OpInfo info)
+		throws InstantiableException
+	{
+		final Class<?> opClass = info.cInfo().loadClass();
+		final LinkedHashSet<String> supertypes = new LinkedHashSet<>();
+		addSupertypes(supertypes, opClass);
+		return new OpSignature(info.cInfo().getDelegateClassName(), info
+			.getName(), info.getAliases(), supertypes, params(info.inputs()), params(
+				info.outputs()));
+	}
+
+	/** Parses a signature from the output of {@link #toString()}. */
+	public static OpSignature parse(final String line) {
+		final String[] tokens = line.split("\t", -1);
+		if (tokens.length != 6) {
+			throw new IllegalArgumentException("Invalid op signature: " + line);
+		}
+		final String name = none(tokens[1]) ? null : tokens[1];
+		final String[] aliases = none(tokens[2]) ? null : tokens[2].split(",");
+		final HashSet<String> supertypes = new HashSet<>();
+		for (final String supertype : tokens[3].split(",")) {
+			supertypes.add(supertype);
+		}
+		return new OpSignature(tokens[0], name, aliases, supertypes, parseParams(
+			tokens[4]), parseParams(tokens[5]));
+	}
+
+	// -- OpSignature methods --
+
+	/** Gets the fully qualified class name of the op. */
+	public String getClassName() {
+		return className;
+	}
+
+	/** Gets the fully qualified name of the op, or null if it has none. */
+	public String getName() {
+		return name;
+	}
+
+	/** Gets the fully qualified aliases of the op, or null if it has none. */
+	public String[] getAliases() {
+		return aliases == null ? null : aliases.clone();
+	}
+
+	/** Gets the names of all classes and interfaces the op is assignable to. */
+	public Set<String> getSupertypes() {
+		return supertypes;
+	}
+
+	/** Gets the op's input parameters. */
+	public List<Param> inputs() {
+		return inputs;
+	}
+
+	/** Gets the op's output parameters. */
+	public List<Param> outputs() {
+		return outputs;
+	}
+
+	/** Gets the number of required input parameters. */
+	public int getRequiredInputCount() {
+		return requiredInputCount;
+	}
+
+	/**
+	 * Determines whether the op matches the type constraints of the given
+	 * reference, as per {@link OpRef#typesMatch(Class)}.
+	 */
+	public boolean typesMatch(final OpRef ref) {
+		if (ref.getTypes() == null) return true;
+		for (final Type t : ref.getTypes()) {
+			// FIXME: Use generic assignability test, once it exists.
+			final Class<?> raw = GenericUtils.getClass(t);
+			if (!supertypes.contains(raw.getName())) return false;
+		}
+		return true;
+	}
+
+	// -- Object methods --
+
+	/** Gets the signature as a single line of text, as read by {@link #parse}. */
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(className).append("\t");
+		sb.append(name == null ? NONE : name).append("\t");
+		sb.append(aliases == null ? NONE : String.join(",", aliases)).append("\t");
+		sb.append(String.join(",", supertypes)).append("\t");
+		appendParams(sb, inputs);
+		sb.append("\t");
+		appendParams(sb, outputs);
+		return sb.toString();
+	}
+
+	// -- Helper methods --
+
+	private static void addSupertypes(final Set<String> supertypes,
+		final Class<?> c)
+	{
+		if (c == null || !supertypes.add(c.getName())) return;
+		addSupertypes(supertypes, c.getSuperclass());
+		for (final Class<?> iface : c.getInterfaces()) {
+			addSupertypes(supertypes, iface);
+		}
+	}
+
+	private static List<Param> params(final List<ModuleItem<?>> items) {
+		final ArrayList<Param> params = new ArrayList<>();
+		for (final ModuleItem<?> item : items) {
+			params.add(new Param(item.getName(), item.getType().getName(), item
+				.isRequired()));
+		}
+		return params;
+	}
+
+	private static List<Param> parseParams(final String token) {
+		final ArrayList<Param> params = new ArrayList<>();
+		if (none(token)) return params;
+		for (final String param : token.split(",")) {
+			final String[] parts = param.split(":");
+			if (parts.length != 3) {
+				throw new IllegalArgumentException("Invalid parameter: " + param);
+			}
+			params.add(new Param(parts[0], parts[1], "1".equals(parts[2])));
+		}
+		return params;
+	}
+
+	private static void appendParams(final StringBuilder sb,
+		final List<Param> params)
+	{
+		if (params.isEmpty()) {
+			sb.append(NONE);
+			return;
+		}
+		boolean first = true;
+		for (final Param param : params) {
+			if (first) first = false;
+			else sb.append(",");
+			sb.append(param.getName()).append(":").append(param.getType());
+			sb.append(":").append(param.isRequired() ? "1" : "0");
+		}
+	}
+
+	private static boolean none(final String token) {
+		return token.isEmpty() || NONE.equals(token);
+	}
+
+	// -- Helper classes --
+
+	/** Precomputed metadata of an op parameter. */
+	public static class Param {
+
+		private final String name;
+		private final String type;
+		private final boolean required;
+
+		public Param(final String name, final String type,
+			final boolean required)
+		{
+			this.name = name;
+			this.type = type;
+			this.required = required;
+		}
+
+		/** Gets the name of the parameter. */
+		public String getName() {
+			return name;
+		}
+
+		/** Gets the fully qualified name of the parameter's raw type. */
+		public String getType() {
+			return type;
+		}
+
+		/** Gets whether the parameter is required. */
+		public boolean isRequired() {
+			return required;
+		}
+
+	}
+
+}
@@ -0,0 +1,249 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.scijava.Context;
+import org.scijava.InstantiableException;
+
+/**
+ * Index of {@link OpSignature}s generated at build time.
+ * <p>
+ * The index is stored as a {@link #RESOURCE} in each artifact that provides
+ * ops, with one {@link OpSignature} per line. It is written by the
+ * {@link #main} method of this class, which the build runs after compiling the
+ * ops, and read when the {@link OpService} indexes its ops. Ops without a
+ * precomputed signature (e.g., because their artifact was built without an
+ * index) are still matched as usual, just without the shortcuts. So are the
+ * ops of an index in a class folder if any of their class files is newer than
+ * the index, e.g. after an IDE build which did not rerun {@link #main}. An
+ * index in a JAR file is built together with its classes and always used.
+ * </p>
+ * <p>
+ * Reading the index can be disabled by setting the
+ * {@code imagej.ops.signatures} system property to {@code disabled}.
+ * </p>
+ */
+public class OpSignatureIndex {
+
+	/** Path of the index resource, relative to the class path root. */
+	public static final String RESOURCE = "META-INF/imagej-ops/signatures.txt";
+
+	private final Map<String, OpSignature> signatures = new HashMap<>();
+
+	/** Creates an index of the given signatures. */
+	public OpSignatureIndex(final Collection<OpSignature> signatures) {
+		for (final OpSignature signature : signatures) {
+			this.signatures.put(signature.getClassName(), signature);
+		}
+	}
+
+	// -- Static construction methods --
+
+	/**
+	 * Reads all signature index resources available from the given class
+	 * loader. Unreadable and stale resources are skipped.
+	 *
+	 * @param classLoader The class loader from which to read the index, or null
+	 *          for the context class loader.
+	 * @return The index; empty if there are no resources or reading the index
+	 *         has been disabled.
+	 */
+	public static OpSignatureIndex load(final ClassLoader classLoader) {
+		final ArrayList<OpSignature> signatures = new ArrayList<>();
+		if (isEnabled()) {
+			final ClassLoader loader = classLoader == null ? Thread.currentThread()
+				.getContextClassLoader() : classLoader;
+			try {
+				final Enumeration<URL> urls = loader.getResources(RESOURCE);
+				while (urls.hasMoreElements()) {
+					final URL url = urls.nextElement();
+					final List<OpSignature> resource = read(url);
+					if (isCurrent(url, resource)) signatures.addAll(resource);
+				}
+			}
+			catch (final IOException | IllegalArgumentException exc) {
+				// NB: The index is only an optimization; fall back to reflection.
+			}
+		}
+		return new OpSignatureIndex(signatures);
+	}
+
+	// -- OpSignatureIndex methods --
+
+	/** Gets the signature of the op with the given class name, if any. */
+	public OpSignature get(final String className) {
+		return signatures.get(className);
+	}
+
+	/** Gets the number of indexed signatures. */
+	public int size() {
+		return signatures.size();
+	}
+
+	/** Writes the index to the given file, creating parent folders as needed. */
+	public void write(final File file) throws IOException {
+		final File dir = file.getParentFile();
+		if (dir != null && !dir.exists() && !dir.mkdirs()) {
+			throw new IOException("Cannot create directory: " + dir);
+		}
+		try (final PrintWriter out = new PrintWriter(Files.newBufferedWriter(file
+			.toPath(), StandardCharsets.UTF_8)))
+		{
+			out.println("# Generated by " + OpSignatureIndex.class.getName() +
+				" - do not edit");
+			for (final OpSignature signature : signatures.values()) {
+				out.println(signature);
+			}
+		}
+	}
+
+	// -- Main method --
+
+	/**
+	 * Generates the signature index for the ops compiled into the given class
+	 * folder, writing it to the {@link #RESOURCE} of that folder.
+	 *
+	 * @param args The class folder (e.g., {@code target/classes}).
+	 */
+	public static void main(final String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: " + OpSignatureIndex.class.getName() +
+				" <classes-directory>");
+			System.exit(1);
+		}
+		final File classes = new File(args[0]).getCanonicalFile();
+
+		// NB: Do not read a stale index from a previous build.
+		System.setProperty("imagej.ops.signatures", "disabled");
+
+		final Context context = new Context(OpService.class);
+		try {
+			final OpService ops = context.getService(OpService.class);
+			final List<OpSignature> signatures = new ArrayList<>();
+			for (final OpInfo info : ops.infos()) {
+				try {
+					final Class<?> opClass = info.cInfo().loadClass();
+					if (!isIn(opClass, classes)) continue;
+					signatures.add(OpSignature.of(info));
+				}
+				catch (final InstantiableException | RuntimeException exc) {
+					System.err.println("[WARNING] Skipping op " + info.cInfo()
+						.getDelegateClassName() + ": " + exc.getMessage());
+				}
+			}
+			new OpSignatureIndex(signatures).write(new File(classes, RESOURCE));
+			System.out.println("Indexed " + signatures.size() + " op signatures");
+		}
+		finally {
+			context.dispose();
+		}
+	}
+
+	// -- Helper methods --
+
+	private static boolean isEnabled() {
+		return !"disabled".equals(System.getProperty("imagej.ops.signatures"));
+	}
+
+	private static List<OpSignature> read(final URL url) throws IOException {
+		final List<OpSignature> signatures = new ArrayList<>();
+		try (final BufferedReader in = new BufferedReader(new InputStreamReader(
+			url.openStream(), StandardCharsets.UTF_8)))
+		{
+			String line;
+			while ((line = in.readLine()) != null) {
+				if (line.isEmpty() || line.startsWith("#")) continue;
+				signatures.add(OpSignature.parse(line));
+			}
+		}
+		return signatures;
+	}
+
+	/**
+	 * Determines whether the given index resource is still current. An index
+	 * in a class folder is stale if the class file of any of its ops is missing
+	 * or newer than the index; this only compares file times, once per op of
+	 * the folder. Other indices, e.g. in JAR files, are current.
+	 */
+	private static boolean isCurrent(final URL url,
+		final List<OpSignature> signatures)
+	{
+		if (!"file".equals(url.getProtocol())) return true;
+		final File index;
+		try {
+			index = new File(url.toURI());
+		}
+		catch (final Exception exc) {
+			return false;
+		}
+		// NB: The index is at META-INF/imagej-ops/signatures.txt.
+		final File classes = index.getParentFile().getParentFile()
+			.getParentFile();
+		final long indexed = index.lastModified();
+		for (final OpSignature signature : signatures) {
+			final File classFile = new File(classes, signature.getClassName()
+				.replace('.', '/') + ".class");
+			final long modified = classFile.lastModified();
+			if (modified == 0 || modified > indexed) return false;
+		}
+		return true;
+	}
+
+	/** Determines whether the given class was loaded from the given folder. */
+	private static boolean isIn(final Class<?> c, final File classes) {
+		final CodeSource source = c.getProtectionDomain().getCodeSource();
+		if (source == null || source.getLocation() == null) return false;
+		try {
+			final File location = new File(source.getLocation().toURI());
+			return location.getCanonicalFile().equals(classes);
+		}
+		catch (final Exception exc) {
+			return false;
+		}
+	}
+
+}
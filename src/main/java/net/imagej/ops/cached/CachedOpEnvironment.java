@@ -30,6 +30,7 @@
 
 package net.imagej.ops.cached;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,27 +43,40 @@ import net.imagej.ops.Op;
 import net.imagej.ops.OpEnvironment;
 import net.imagej.ops.OpInfo;
 import net.imagej.ops.OpRef;
+import net.imagej.ops.special.function.BinaryFunctionOp;
 import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imagej.ops.special.hybrid.BinaryHybridCF;
 import net.imagej.ops.special.hybrid.UnaryHybridCF;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.type.numeric.ComplexType;
+import net.imglib2.type.numeric.RealType;
 
 import org.scijava.Priority;
-import org.scijava.cache.CacheService;
 import org.scijava.command.CommandInfo;
 import org.scijava.module.Module;
 import org.scijava.module.ModuleItem;
-import org.scijava.plugin.Parameter;
 import org.scijava.util.GenericUtils;
 
 /**
  * Creates {@link CachedFunctionOp}s which know how to cache their outputs.
+ * <p>
+ * Results of unary and binary functions are kept in a memory-bounded
+ * {@link ResultCache}, which can be tuned via {@link #getResultCache()}. By
+ * default, images are identified by instance, so that a new image instance
+ * results in re-computation, and other inputs by {@link Object#equals}. With
+ * {@link #setContentAware(boolean) content awareness} enabled, images are
+ * identified by a fingerprint of their dimensions and pixel values instead, so
+ * that a re-loaded identical image hits the cache.
+ * </p>
  * 
  * @author Christian Dietz (University of Konstanz)
  */
 public class CachedOpEnvironment extends CustomOpEnvironment {
 
-	@Parameter
-	private CacheService cs;
+	private final ResultCache cache = new ResultCache();
 	private Collection<Class<?>> ignoredOps;
+	private boolean contentAware;
 
 	public CachedOpEnvironment(final OpEnvironment parent) {
 		this(parent, null, new ArrayList<>());
@@ -78,15 +92,37 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		final Collection<? extends OpInfo> prioritizedInfos,
 		final Collection<Class<?>> ignoredOps)
 	{
-		super(parent, prioritizedInfos);
+		// NB: The priorities must be set before the ops are indexed.
+		super(parent, prioritize(prioritizedInfos));
+		this.ignoredOps = ignoredOps;
+	}
 
-		if (prioritizedInfos != null) for (final OpInfo info : prioritizedInfos) {
-			info.cInfo().setPriority(Priority.FIRST_PRIORITY);
-		}
+	// -- CachedOpEnvironment methods --
 
-		this.ignoredOps = ignoredOps;
+	/**
+	 * Gets the cache holding the computed results, to configure its budget and
+	 * eviction policy or to query its statistics.
+	 */
+	public ResultCache getResultCache() {
+		return cache;
+	}
+
+	/** Gets whether images are identified by their content. */
+	public boolean isContentAware() {
+		return contentAware;
+	}
+
+	/**
+	 * Sets whether images are identified by a fingerprint of their content,
+	 * rather than by instance. Fingerprinting costs one pass over each input
+	 * image per lookup.
+	 */
+	public void setContentAware(final boolean contentAware) {
+		this.contentAware = contentAware;
 	}
 
+	// -- OpEnvironment methods --
+
 	@Override
 	public Op op(final OpRef ref) {
 		final Op op = super.op(ref);
@@ -101,8 +137,15 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 			}
 		}
 
+		// NB: Binary ops are also unary ops; check them first.
 		final Op cachedOp;
-		if (op instanceof UnaryHybridCF) {
+		if (op instanceof BinaryHybridCF) {
+			cachedOp = wrapBinaryHybrid((BinaryHybridCF<?, ?, ?>) op);
+		}
+		else if (op instanceof BinaryFunctionOp) {
+			cachedOp = wrapBinaryFunction((BinaryFunctionOp<?, ?, ?>) op);
+		}
+		else if (op instanceof UnaryHybridCF) {
 			cachedOp = wrapUnaryHybrid((UnaryHybridCF<?, ?>) op);
 		}
 		else if (op instanceof UnaryFunctionOp) {
@@ -116,6 +159,15 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 
 	// -- Helper methods --
 
+	private static Collection<? extends OpInfo> prioritize(
+		final Collection<? extends OpInfo> infos)
+	{
+		if (infos != null) for (final OpInfo info : infos) {
+			info.cInfo().setPriority(Priority.FIRST_PRIORITY);
+		}
+		return infos;
+	}
+
 	private <I, O> CachedFunctionOp<I, O> wrapUnaryFunction(
 		final UnaryFunctionOp<I, O> op)
 	{
@@ -128,6 +180,18 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		return new CachedHybridOp<>(op, otherArgs(op, 2));
 	}
 
+	private <I1, I2, O> CachedBinaryFunctionOp<I1, I2, O> wrapBinaryFunction(
+		final BinaryFunctionOp<I1, I2, O> op)
+	{
+		return new CachedBinaryFunctionOp<>(op, otherArgs(op, 2));
+	}
+
+	private <I1, I2, O> CachedBinaryHybridOp<I1, I2, O> wrapBinaryHybrid(
+		final BinaryHybridCF<I1, I2, O> op)
+	{
+		return new CachedBinaryHybridOp<>(op, otherArgs(op, 3));
+	}
+
 	/**
 	 * Gets the given {@link Op} instance's argument value, starting at the
 	 * specified offset.
@@ -143,6 +207,21 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		return args.toArray();
 	}
 
+	/** Gets the cache key identifying the given input. */
+	private Object key(final Object input) {
+		if (contentAware && input instanceof IterableInterval) {
+			final Fingerprint fingerprint = Fingerprint.of(
+				(IterableInterval<?>) input);
+			if (fingerprint != null) return fingerprint;
+		}
+		if (input instanceof IterableInterval ||
+			input instanceof RandomAccessibleInterval)
+		{
+			return new Identity(input);
+		}
+		return input;
+	}
+
 	// -- Helper classes --
 
 	/**
@@ -157,9 +236,6 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		UnaryFunctionOp<I, O>
 	{
 
-		@Parameter
-		private CacheService cache;
-
 		private final UnaryFunctionOp<I, O> delegate;
 
 		private final Object[] args;
@@ -174,7 +250,7 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		@Override
 		public O calculate(final I input) {
 
-			final Hash hash = new Hash(input, delegate, args);
+			final Hash hash = new Hash(key(input), delegate, args);
 
 			@SuppressWarnings("unchecked")
 			O output = (O) cache.get(hash);
@@ -231,9 +307,6 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		UnaryHybridCF<I, O>
 	{
 
-		@Parameter
-		private CacheService cache;
-
 		private final UnaryHybridCF<I, O> delegate;
 
 		private final Object[] args;
@@ -248,7 +321,7 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 
 		@Override
 		public O calculate(final I input) {
-			final Hash hash = new Hash(input, delegate, args);
+			final Hash hash = new Hash(key(input), delegate, args);
 
 			@SuppressWarnings("unchecked")
 			O output = (O) cache.get(hash);
@@ -283,15 +356,209 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 	}
 
 	/**
-	 * Simple utility class to wrap two objects and an array of objects in a
-	 * single object which combines their hashes.
+	 * Wraps a {@link BinaryFunctionOp} and caches the results. New inputs will
+	 * result in re-computation of the result.
+	 * 
+	 * @param <I1>
+	 * @param <I2>
+	 * @param <O>
+	 */
+	class CachedBinaryFunctionOp<I1, I2, O> extends AbstractOp implements
+		BinaryFunctionOp<I1, I2, O>
+	{
+
+		private final BinaryFunctionOp<I1, I2, O> delegate;
+
+		private final Object[] args;
+
+		public CachedBinaryFunctionOp(final BinaryFunctionOp<I1, I2, O> delegate,
+			final Object[] args)
+		{
+			this.delegate = delegate;
+			this.args = args;
+		}
+
+		@Override
+		public O calculate(final I1 input1, final I2 input2) {
+			final Hash hash = new Hash(key(input1), key(input2), delegate, args);
+
+			@SuppressWarnings("unchecked")
+			O output = (O) cache.get(hash);
+
+			if (output == null) {
+				output = delegate.calculate(input1, input2);
+				cache.put(hash, output);
+			}
+			return output;
+		}
+
+		@Override
+		public void run() {
+			delegate.run();
+		}
+
+		@Override
+		public I1 in1() {
+			return delegate.in1();
+		}
+
+		@Override
+		public I2 in2() {
+			return delegate.in2();
+		}
+
+		@Override
+		public void setInput1(final I1 input1) {
+			delegate.setInput1(input1);
+		}
+
+		@Override
+		public void setInput2(final I2 input2) {
+			delegate.setInput2(input2);
+		}
+
+		@Override
+		public O out() {
+			return delegate.out();
+		}
+
+		@Override
+		public void initialize() {
+			delegate.initialize();
+		}
+
+		@Override
+		public CachedBinaryFunctionOp<I1, I2, O> getIndependentInstance() {
+			return this;
+		}
+
+	}
+
+	/**
+	 * Wraps a {@link BinaryHybridCF} and caches the results. New inputs will
+	 * result in re-computation if {@link BinaryHybridCF} is used as
+	 * {@link BinaryFunctionOp}.
+	 * 
+	 * @param <I1>
+	 * @param <I2>
+	 * @param <O>
+	 */
+	class CachedBinaryHybridOp<I1, I2, O> extends
+		CachedBinaryFunctionOp<I1, I2, O> implements BinaryHybridCF<I1, I2, O>
+	{
+
+		private final BinaryHybridCF<I1, I2, O> delegate;
+
+		private final Object[] args;
+
+		public CachedBinaryHybridOp(final BinaryHybridCF<I1, I2, O> delegate,
+			final Object[] args)
+		{
+			super(delegate, args);
+			this.delegate = delegate;
+			this.args = args;
+		}
+
+		@Override
+		public O calculate(final I1 input1, final I2 input2) {
+			final Hash hash = new Hash(key(input1), key(input2), delegate, args);
+
+			@SuppressWarnings("unchecked")
+			O output = (O) cache.get(hash);
+
+			if (output == null) {
+				output = createOutput(input1, input2);
+				compute(input1, input2, output);
+				cache.put(hash, output);
+			}
+			return output;
+		}
+
+		@Override
+		public O createOutput(final I1 input1, final I2 input2) {
+			return delegate.createOutput(input1, input2);
+		}
+
+		@Override
+		public void compute(final I1 input1, final I2 input2, final O output) {
+			delegate.compute(input1, input2, output);
+		}
+
+		@Override
+		public void setOutput(final O output) {
+			delegate.setOutput(output);
+		}
+
+		@Override
+		public void run() {
+			delegate.run();
+		}
+
+		@Override
+		public CachedBinaryHybridOp<I1, I2, O> getIndependentInstance() {
+			return this;
+		}
+	}
+
+	/**
+	 * Cache key combining the keys of the inputs, the class of the op and its
+	 * other arguments. All parts are compared by {@link #equals}; their combined
+	 * hash is only used to find the bucket.
 	 */
-	private class Hash {
+	private static class Hash {
 
+		private final Object[] inputs;
+		private final Class<?> opClass;
+		private final Object[] args;
 		private final int hash;
 
 		public Hash(final Object o1, final Object o2, final Object[] args) {
-			hash = Objects.hash(o1, o2.getClass(), Arrays.hashCode(args));
+			this(new Object[] { o1 }, o2, args);
+		}
+
+		public Hash(final Object o1, final Object o2, final Object o3,
+			final Object[] args)
+		{
+			this(new Object[] { o1, o2 }, o3, args);
+		}
+
+		private Hash(final Object[] inputs, final Object op,
+			final Object[] args)
+		{
+			this.inputs = inputs;
+			this.opClass = op.getClass();
+			this.args = args;
+			hash = Objects.hash(Arrays.hashCode(inputs), opClass, Arrays.hashCode(
+				args));
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) return true;
+			if (!(obj instanceof Hash)) return false;
+			final Hash that = (Hash) obj;
+			return hash == that.hash && opClass == that.opClass && Arrays.equals(
+				inputs, that.inputs) && Arrays.equals(args, that.args);
+		}
+	}
+
+	/**
+	 * Identifies an image by instance, without keeping it from being garbage
+	 * collected. Once the image is gone, the key matches nothing but itself.
+	 */
+	private static class Identity {
+
+		private final WeakReference<Object> ref;
+		private final int hash;
+
+		private Identity(final Object o) {
+			ref = new WeakReference<>(o);
+			hash = System.identityHashCode(o);
 		}
 
 		@Override
@@ -302,8 +569,70 @@ public class CachedOpEnvironment extends CustomOpEnvironment {
 		@Override
 		public boolean equals(final Object obj) {
 			if (obj == this) return true;
-			if (obj instanceof Hash) return hash == ((Hash) obj).hash;
-			return false;
+			if (!(obj instanceof Identity)) return false;
+			final Object o = ref.get();
+			return o != null && o == ((Identity) obj).ref.get();
+		}
+	}
+
+	/**
+	 * Identifies an image by its dimensions, element type and a 64-bit hash of
+	 * its values in iteration order.
+	 */
+	private static class Fingerprint {
+
+		private final long[] dims;
+		private final Class<?> typeClass;
+		private final long hash;
+
+		private Fingerprint(final long[] dims, final Class<?> typeClass,
+			final long hash)
+		{
+			this.dims = dims;
+			this.typeClass = typeClass;
+			this.hash = hash;
+		}
+
+		/** Computes the fingerprint of the given image, or null if unsupported. */
+		public static Fingerprint of(final IterableInterval<?> image) {
+			if (image.size() == 0) return null;
+			final Object first = image.firstElement();
+			if (!(first instanceof ComplexType)) return null;
+			final long[] dims = new long[image.numDimensions() * 2];
+			for (int d = 0; d < image.numDimensions(); d++) {
+				dims[2 * d] = image.min(d);
+				dims[2 * d + 1] = image.max(d);
+			}
+			long hash = 1125899906842597L;
+			if (first instanceof RealType) {
+				for (final Object t : image) {
+					hash = 31 * hash + Double.doubleToLongBits(((RealType<?>) t)
+						.getRealDouble());
+				}
+			}
+			else {
+				for (final Object t : image) {
+					final ComplexType<?> c = (ComplexType<?>) t;
+					hash = 31 * hash + Double.doubleToLongBits(c.getRealDouble());
+					hash = 31 * hash + Double.doubleToLongBits(c.getImaginaryDouble());
+				}
+			}
+			return new Fingerprint(dims, first.getClass(), hash);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * Long.hashCode(hash) + typeClass.hashCode()) + Arrays
+				.hashCode(dims);
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (obj == this) return true;
+			if (!(obj instanceof Fingerprint)) return false;
+			final Fingerprint that = (Fingerprint) obj;
+			return hash == that.hash && typeClass == that.typeClass && Arrays
+				.equals(dims, that.dims);
 		}
 	}
 }
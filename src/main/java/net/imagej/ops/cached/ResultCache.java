@@ -0,0 +1,269 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.cached;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.type.numeric.ComplexType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+import net.imglib2.util.Util;
+
+/**
+ * A memory-bounded cache of op results, as used by the
+ * {@link CachedOpEnvironment}.
+ * <p>
+ * Each cached result is weighed by its estimated size in bytes (see
+ * {@link #weigh(Object)}). Whenever the total weight exceeds the configured
+ * budget, entries are evicted according to the {@link Policy} until it fits
+ * again. Results heavier than the whole budget are not cached at all.
+ * </p>
+ *
+ * @see CachedOpEnvironment#getResultCache()
+ */
+public class ResultCache {
+
+	/** Strategies for choosing which entry to evict. */
+	public enum Policy {
+			/** Evict the least recently used entry. */
+			LRU,
+			/** Evict the least frequently used entry; the older one on ties. */
+			LFU
+	}
+
+	/** Estimated weight of an object whose size is not known otherwise. */
+	private static final long DEFAULT_WEIGHT = 64;
+
+	/** Cached entries, in access order (least recently used first). */
+	private final LinkedHashMap<Object, Entry> entries = new LinkedHashMap<>(16,
+		0.75f, true);
+
+	private long budget;
+	private Policy policy;
+	private long weight;
+	private long hits, misses, evictions;
+
+	/**
+	 * Creates a cache with a budget of a quarter of the maximum heap size, and
+	 * the {@link Policy#LRU} policy.
+	 */
+	public ResultCache() {
+		this(Runtime.getRuntime().maxMemory() / 4, Policy.LRU);
+	}
+
+	public ResultCache(final long budget, final Policy policy) {
+		this.budget = budget;
+		this.policy = policy;
+	}
+
+	// -- ResultCache methods --
+
+	/** Gets the maximum total weight of the cached results, in bytes. */
+	public synchronized long getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Sets the maximum total weight of the cached results, in bytes, evicting
+	 * entries as needed.
+	 */
+	public synchronized void setBudget(final long budget) {
+		this.budget = budget;
+		evict();
+	}
+
+	/** Gets the eviction policy. */
+	public synchronized Policy getPolicy() {
+		return policy;
+	}
+
+	/** Sets the eviction policy. */
+	public synchronized void setPolicy(final Policy policy) {
+		this.policy = policy;
+	}
+
+	/** Gets the result cached for the given key, or null if there is none. */
+	public synchronized Object get(final Object key) {
+		final Entry entry = entries.get(key);
+		if (entry == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		entry.uses++;
+		return entry.value;
+	}
+
+	/**
+	 * Caches the given result, evicting other entries as needed.
+	 *
+	 * @return true if the result was cached; false if it is too heavy.
+	 */
+	public synchronized boolean put(final Object key, final Object value) {
+		final long w = weigh(value);
+		final Entry old = entries.remove(key);
+		if (old != null) weight -= old.weight;
+		if (w > budget) return false;
+
+		entries.put(key, new Entry(value, w));
+		weight += w;
+		evict();
+		return true;
+	}
+
+	/** Removes all cached results. The statistics are kept. */
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	/** Resets the hit, miss and eviction counters. */
+	public synchronized void resetStatistics() {
+		hits = misses = evictions = 0;
+	}
+
+	/** Gets the number of cached results. */
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/** Gets the estimated total weight of the cached results, in bytes. */
+	public synchronized long getWeight() {
+		return weight;
+	}
+
+	/** Gets the number of lookups which found a cached result. */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/** Gets the number of lookups which did not find a cached result. */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/** Gets the number of results evicted to stay within the budget. */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	// -- Utility methods --
+
+	/**
+	 * Estimates the size in bytes of the given op result. Images are weighed by
+	 * their number of elements times the bits per element of their type; arrays
+	 * by their length times their component size.
+	 */
+	public static long weigh(final Object value) {
+		if (value instanceof IterableInterval) {
+			final IterableInterval<?> ii = (IterableInterval<?>) value;
+			if (ii.size() == 0) return DEFAULT_WEIGHT;
+			return DEFAULT_WEIGHT + bytes(ii.size(), ii.firstElement());
+		}
+		if (value instanceof RandomAccessibleInterval) {
+			final RandomAccessibleInterval<?> rai =
+				(RandomAccessibleInterval<?>) value;
+			final long size = Intervals.numElements(rai);
+			if (size == 0) return DEFAULT_WEIGHT;
+			return DEFAULT_WEIGHT + bytes(size, Util.getTypeFromInterval(rai));
+		}
+		if (value != null && value.getClass().isArray()) {
+			final Class<?> component = value.getClass().getComponentType();
+			final long length = Array.getLength(value);
+			if (component == byte.class || component == boolean.class) {
+				return DEFAULT_WEIGHT + length;
+			}
+			if (component == short.class || component == char.class) {
+				return DEFAULT_WEIGHT + 2 * length;
+			}
+			if (component == int.class || component == float.class) {
+				return DEFAULT_WEIGHT + 4 * length;
+			}
+			if (component == long.class || component == double.class) {
+				return DEFAULT_WEIGHT + 8 * length;
+			}
+			return DEFAULT_WEIGHT * (1 + length);
+		}
+		if (value instanceof Collection) {
+			return DEFAULT_WEIGHT * (1 + ((Collection<?>) value).size());
+		}
+		return DEFAULT_WEIGHT;
+	}
+
+	// -- Helper methods --
+
+	private static long bytes(final long size, final Object type) {
+		final long bits;
+		if (type instanceof RealType) bits = ((RealType<?>) type).getBitsPerPixel();
+		else if (type instanceof ComplexType) bits = 128;
+		else return DEFAULT_WEIGHT * size;
+		return (size * bits + 7) / 8;
+	}
+
+	/** Evicts entries until the total weight fits into the budget. */
+	private void evict() {
+		while (weight > budget && !entries.isEmpty()) {
+			final Iterator<Map.Entry<Object, Entry>> iter = entries.entrySet()
+				.iterator();
+			Map.Entry<Object, Entry> victim = iter.next();
+			if (policy == Policy.LFU) {
+				while (iter.hasNext()) {
+					final Map.Entry<Object, Entry> e = iter.next();
+					if (e.getValue().uses < victim.getValue().uses) victim = e;
+				}
+			}
+			weight -= victim.getValue().weight;
+			entries.remove(victim.getKey());
+			evictions++;
+		}
+	}
+
+	// -- Helper classes --
+
+	private static class Entry {
+
+		private final Object value;
+		private final long weight;
+		private long uses;
+
+		private Entry(final Object value, final long weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+}
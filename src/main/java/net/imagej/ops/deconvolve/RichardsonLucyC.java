@@ -168,8 +168,10 @@ public class RichardsonLucyC<I extends RealType<I>, O extends RealType<O>, K ext
 		// create image for the reblurred
 		raiExtendedReblurred = create.calculate(getImgConvolutionInterval());
 
-		// perform fft of psf
-		fftKernel.compute(kernel, getFFTKernel());
+		// perform fft of psf if needed
+		if (getPerformKernelFFT()) {
+			fftKernel.compute(kernel, getFFTKernel());
+		}
 
 		// -- perform iterations --
 
@@ -132,7 +132,8 @@ public class RichardsonLucyF<I extends RealType<I> & NativeType<I>, O extends Re
 		createFilterComputer(RandomAccessibleInterval<I> raiExtendedInput,
 			RandomAccessibleInterval<K> raiExtendedKernel,
 			RandomAccessibleInterval<C> fftImg, RandomAccessibleInterval<C> fftKernel,
-			RandomAccessibleInterval<O> output, Interval imgConvolutionInterval)
+			boolean performKernelFFT, RandomAccessibleInterval<O> output,
+			Interval imgConvolutionInterval)
 	{
 		UnaryInplaceOp<RandomAccessibleInterval<O>, RandomAccessibleInterval<O>> accelerator =
 			null;
@@ -164,15 +165,16 @@ public class RichardsonLucyF<I extends RealType<I> & NativeType<I>, O extends Re
 					imgConvolutionInterval, Util.getTypeFromInterval(output), in());
 
 			return Computers.binary(ops(), RichardsonLucyC.class, output,
-				raiExtendedInput, raiExtendedKernel, fftImg, fftKernel, true, true,
-				maxIterations, imgConvolutionInterval, accelerator, computeEstimateOp,
-				fg.calculate(raiExtendedInput), list);
+				raiExtendedInput, raiExtendedKernel, fftImg, fftKernel, true,
+				performKernelFFT, maxIterations, imgConvolutionInterval, accelerator,
+				computeEstimateOp, fg.calculate(raiExtendedInput), list);
 		}
 
 		// return a richardson lucy computer
 		return Computers.binary(ops(), RichardsonLucyC.class, output,
-			raiExtendedInput, raiExtendedKernel, fftImg, fftKernel, true, true,
-			maxIterations, imgConvolutionInterval, accelerator, computeEstimateOp);
+			raiExtendedInput, raiExtendedKernel, fftImg, fftKernel, true,
+			performKernelFFT, maxIterations, imgConvolutionInterval, accelerator,
+			computeEstimateOp);
 	}
 
 	/**
@@ -101,6 +101,9 @@ public abstract class AbstractFFTFilterF<I extends RealType<I>, O extends RealTy
 	@Parameter(required = false)
 	private ComplexType<C> fftType;
 
+	@Parameter(required = false)
+	private KernelFFTCacheService kernelFFTCacheService;
+
 	/**
 	 * Op used to pad the input
 	 */
@@ -223,23 +226,37 @@ public abstract class AbstractFFTFilterF<I extends RealType<I>, O extends RealTy
 		RandomAccessibleInterval<I> paddedInput = padOp.calculate(input,
 			new FinalDimensions(paddedSize));
 
-		RandomAccessibleInterval<K> paddedKernel = padKernelOp.calculate(kernel,
-			new FinalDimensions(paddedSize));
-
 		RandomAccessibleInterval<C> fftImage = createOp.calculate(
 			new FinalDimensions(paddedSize));
 
-		RandomAccessibleInterval<C> fftKernel = createOp.calculate(
-			new FinalDimensions(paddedSize));
+		// reuse the spectrum of the kernel if it has been computed before
+		final KernelFFTCache cache = getKernelFFTCache();
+		final Object key = cache == null ? null : cache.key(kernel,
+			new FinalDimensions(paddedSize), fftType);
+		RandomAccessibleInterval<C> fftKernel = key == null ? null : cache.get(
+			key);
+		final boolean performKernelFFT = fftKernel == null;
+
+		final RandomAccessibleInterval<K> paddedKernel;
+		if (performKernelFFT) {
+			paddedKernel = padKernelOp.calculate(kernel, new FinalDimensions(
+				paddedSize));
+			fftKernel = createOp.calculate(new FinalDimensions(paddedSize));
+		}
+		else {
+			paddedKernel = kernel;
+		}
 
 		// TODO: in this case it is difficult to match the filter op in the
 		// 'initialize' as we don't know the size yet, thus we can't create memory
 		// for the FFTs
 		filter = createFilterComputer(paddedInput, paddedKernel, fftImage,
-			fftKernel, output, paddedInput);
+			fftKernel, performKernelFFT, output, paddedInput);
 
 		filter.compute(paddedInput, paddedKernel, output);
 
+		if (key != null && performKernelFFT) cache.put(key, fftKernel);
+
 		return output;
 
 	}
@@ -252,6 +269,8 @@ public abstract class AbstractFFTFilterF<I extends RealType<I>, O extends RealTy
 	 * @param raiExtendedKernel
 	 * @param fftImg
 	 * @param fftKernel
+	 * @param performKernelFFT false if fftKernel already holds the spectrum of
+	 *          the kernel, in which case raiExtendedKernel is not padded
 	 * @param output
 	 * @param imgConvolutionInterval
 	 */
@@ -260,7 +279,17 @@ public abstract class AbstractFFTFilterF<I extends RealType<I>, O extends RealTy
 		createFilterComputer(RandomAccessibleInterval<I> raiExtendedInput,
 			RandomAccessibleInterval<K> raiExtendedKernel,
 			RandomAccessibleInterval<C> fftImg, RandomAccessibleInterval<C> fftKernel,
-			RandomAccessibleInterval<O> output, Interval imgConvolutionInterval);
+			boolean performKernelFFT, RandomAccessibleInterval<O> output,
+			Interval imgConvolutionInterval);
+
+	/**
+	 * Gets the cache of kernel spectra to use, or null to always transform the
+	 * kernel. The filter computer must not modify the spectrum of the kernel.
+	 */
+	protected KernelFFTCache getKernelFFTCache() {
+		return kernelFFTCacheService == null ? null : kernelFFTCacheService
+			.getCache();
+	}
 
 	protected long[] getBorderSize() {
 		return borderSize;
@@ -0,0 +1,169 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.algorithm.neighborhood.Shape;
+import net.imglib2.outofbounds.OutOfBoundsBorderFactory;
+import net.imglib2.outofbounds.OutOfBoundsFactory;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+
+import org.scijava.plugin.Parameter;
+
+/**
+ * Abstract superclass of filters which exploit the structure of a full
+ * {@link RectangleShape} instead of visiting every neighborhood in full.
+ * <p>
+ * Such filters take the same arguments as
+ * {@link AbstractNeighborhoodBasedFilter}s, but only match real-valued input
+ * and output, and outputs which are {@link RandomAccessibleInterval}s of the
+ * input's dimensions. Only full rectangles match, unless the filter
+ * {@link #supports supports} others, e.g. rectangles which skip their center.
+ * </p>
+ */
+public abstract class AbstractRectangleFilter<I extends RealType<I>, O extends RealType<O>>
+	extends
+	AbstractUnaryComputerOp<RandomAccessibleInterval<I>, IterableInterval<O>>
+	implements Contingent, Parallel
+{
+
+	@Parameter
+	private Shape shape;
+
+	@Parameter(required = false)
+	private OutOfBoundsFactory<I, RandomAccessibleInterval<I>> outOfBoundsFactory =
+		new OutOfBoundsBorderFactory<>();
+
+	@Override
+	public boolean conforms() {
+		if (!(shape instanceof RectangleShape)) return false;
+		if (!(out() instanceof RandomAccessibleInterval)) return false;
+		final int n = in().numDimensions();
+		if (out().numDimensions() != n) return false;
+		for (int d = 0; d < n; d++) {
+			if (in().dimension(d) != out().dimension(d)) return false;
+		}
+		if (Intervals.numElements(in()) == 0) return true;
+		if (!(in().randomAccess().get() instanceof RealType)) return false;
+		if (!(out().firstElement() instanceof RealType)) return false;
+
+		return supports(shape, in());
+	}
+
+	/**
+	 * Get the shape (structuring element) used by this filter.
+	 * 
+	 * @return the shape
+	 */
+	public RectangleShape getShape() {
+		return (RectangleShape) shape;
+	}
+
+	/**
+	 * @return the span of the rectangle, i.e. its radius in every dimension
+	 */
+	public int getSpan() {
+		return getShape().getSpan();
+	}
+
+	/**
+	 * @return the factory extending the input beyond its bounds
+	 */
+	public OutOfBoundsFactory<I, RandomAccessibleInterval<I>>
+		getOutOfBoundsFactory()
+	{
+		return outOfBoundsFactory;
+	}
+
+	/**
+	 * Gets whether this filter supports the given {@link RectangleShape} on the
+	 * given input. Defaults to {@link #isFullRectangle full rectangles} only.
+	 */
+	protected boolean supports(final Shape rectangle,
+		final RandomAccessibleInterval<I> input)
+	{
+		return isFullRectangle(rectangle, input);
+	}
+
+	/**
+	 * Gets whether the given shape is a {@link RectangleShape} which includes
+	 * its center, on images of the given dimensionality.
+	 */
+	public static boolean isFullRectangle(final Shape shape,
+		final RandomAccessibleInterval<?> image)
+	{
+		if (!(shape instanceof RectangleShape)) return false;
+		final int span = ((RectangleShape) shape).getSpan();
+		return neighborhoodSize(shape, image) == windowSize(span, image
+			.numDimensions());
+	}
+
+	/**
+	 * Gets whether the given shape is a {@link RectangleShape} which skips its
+	 * center, on images of the given dimensionality.
+	 */
+	public static boolean isCenterSkippingRectangle(final Shape shape,
+		final RandomAccessibleInterval<?> image)
+	{
+		if (!(shape instanceof RectangleShape)) return false;
+		final int span = ((RectangleShape) shape).getSpan();
+		return neighborhoodSize(shape, image) == windowSize(span, image
+			.numDimensions()) - 1;
+	}
+
+	private static long neighborhoodSize(final Shape shape,
+		final RandomAccessibleInterval<?> image)
+	{
+		return shape.neighborhoodsRandomAccessible(image).randomAccess().get()
+			.size();
+	}
+
+	/**
+	 * Gets the number of samples of a full rectangle of the given span.
+	 *
+	 * @return the number of samples, or -1 if it exceeds the range of int
+	 */
+	protected static int windowSize(final int span, final int n) {
+		long size = 1;
+		for (int d = 0; d < n; d++) {
+			size *= 2 * span + 1;
+			if (size > Integer.MAX_VALUE) return -1;
+		}
+		return (int) size;
+	}
+
+}
@@ -0,0 +1,268 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter;
+
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imglib2.Interval;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+/**
+ * Abstract superclass of {@link RectangleShape} filters which are separable,
+ * i.e. filtering with the rectangle equals filtering with a line of the same
+ * span along each dimension in turn.
+ * <p>
+ * The filter runs one pass per dimension. The first pass reads the input,
+ * extended by its {@link #getOutOfBoundsFactory() out-of-bounds factory}, the
+ * last one writes the output, and the passes in between filter into
+ * {@code double} buffers which keep the margins still needed by the later
+ * passes. The lines of each pass are filtered in parallel by
+ * {@link #filterLine}. The last pass completes each filtered value by
+ * {@link #finish}.
+ * </p>
+ */
+public abstract class AbstractSeparableRectangleFilter<I extends RealType<I>, O extends RealType<O>>
+	extends AbstractRectangleFilter<I, O>
+{
+
+	@Override
+	public boolean conforms() {
+		return super.conforms() && fitsBuffers(in(), getSpan());
+	}
+
+	@Override
+	public void compute(final RandomAccessibleInterval<I> input,
+		final IterableInterval<O> output)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> out =
+			(RandomAccessibleInterval<O>) output;
+		filter(Views.extend(input, getOutOfBoundsFactory()), input, out,
+			getSpan());
+	}
+
+	/**
+	 * Filters the rectangles around the given centers of the source into the
+	 * output: the output pixel at {@code output.min + x} is the filter of the
+	 * rectangle around {@code centers.min + x}.
+	 * <p>
+	 * This is the whole filter without the op's parameters, e.g. for ops which
+	 * need the filter with other arguments, such as a shifted source. It
+	 * requires the {@link #setEnvironment environment} to be set.
+	 * </p>
+	 *
+	 * @param source the samples to filter, defined around the centers
+	 * @param centers the centers of the rectangles; must
+	 *          {@link #fitsBuffers fit the buffers}
+	 * @param output the output, with the dimensions of the centers
+	 * @param span the span of the rectangle
+	 */
+	public <R extends RealType<R>> void filter(final RandomAccessible<I> source,
+		final Interval centers, final RandomAccessibleInterval<R> output,
+		final int span)
+	{
+		if (Intervals.numElements(centers) == 0) return;
+
+		final int n = centers.numDimensions();
+		final int windowSize = windowSize(span, n);
+		final long[] dims = Intervals.dimensionsAsLongArray(centers);
+
+		double[] buffer = null;
+		for (int d = 0; d < n; d++) {
+			final long[] passDims = passDims(dims, d, span);
+			final double[] target = d == n - 1 ? null : new double[(int) size(
+				passDims)];
+			pass(d, passDims, span, windowSize, source, centers, buffer, target,
+				output);
+			buffer = target;
+		}
+	}
+
+	/**
+	 * Gets whether the buffers between the passes of a separable filter of the
+	 * given span over the given interval fit into arrays.
+	 */
+	public static boolean fitsBuffers(final Interval centers, final int span) {
+		if (centers.numDimensions() == 1) return true;
+
+		// NB: The buffer of the first pass is the largest one.
+		final long[] dims = Intervals.dimensionsAsLongArray(centers);
+		return size(passDims(dims, 0, span)) <= Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Filters one line of samples with a line of the given span.
+	 *
+	 * @param in the {@code out.length + 2 * span} input samples of the line,
+	 *          including the margins needed by the first and last window
+	 * @param out the filtered samples; {@code out[i]} is the filter of
+	 *          {@code in[i]} to {@code in[i + 2 * span]}
+	 * @param work scratch space with the length of {@code in}
+	 * @param span the span of the line
+	 */
+	protected abstract void filterLine(double[] in, double[] out, double[] work,
+		int span);
+
+	/**
+	 * Completes the value filtered over the full rectangle, e.g. to normalize
+	 * it. Defaults to the value itself.
+	 *
+	 * @param value the value filtered over the full rectangle
+	 * @param windowSize the number of samples of the full rectangle
+	 * @return the output value
+	 */
+	protected double finish(final double value, final int windowSize) {
+		return value;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Filters all lines along dimension {@code d}, reading from the source for
+	 * the first pass and writing to the output for the last pass.
+	 */
+	private <R extends RealType<R>> void pass(final int d,
+		final long[] passDims, final int span, final int windowSize,
+		final RandomAccessible<I> source, final Interval centers,
+		final double[] buffer, final double[] target,
+		final RandomAccessibleInterval<R> output)
+	{
+		final int n = passDims.length;
+		final int length = (int) passDims[d];
+		long stride = 1;
+		for (int k = 0; k < d; k++) {
+			stride *= passDims[k];
+		}
+		final long lineStride = stride;
+
+		ops().run(ChunkerOp.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final double[] lineIn = new double[length + 2 * span];
+				final double[] lineOut = new double[length];
+				final double[] work = new double[length + 2 * span];
+				final long[] pos = new long[n];
+				final RandomAccess<I> inRA = d == 0 ? source.randomAccess() : null;
+				final RandomAccess<R> outRA = target == null ? output.randomAccess()
+					: null;
+
+				for (int i = 0; i < numSteps; i++) {
+					final long line = startIndex + (long) i * stepSize;
+					final long inner = line % lineStride;
+					final long outer = line / lineStride;
+
+					// read the line, including its margins
+					if (inRA == null) {
+						final long base = inner + outer * lineStride * lineIn.length;
+						for (int j = 0; j < lineIn.length; j++) {
+							lineIn[j] = buffer[(int) (base + j * lineStride)];
+						}
+					}
+					else {
+						position(outer * length, passDims, pos);
+						for (int k = 0; k < n; k++) {
+							inRA.setPosition(centers.min(k) - span + pos[k], k);
+						}
+						for (int j = 0; j < lineIn.length; j++) {
+							lineIn[j] = inRA.get().getRealDouble();
+							inRA.fwd(0);
+						}
+					}
+
+					filterLine(lineIn, lineOut, work, span);
+
+					// write the line
+					final long base = inner + outer * lineStride * length;
+					if (outRA == null) {
+						for (int j = 0; j < length; j++) {
+							target[(int) (base + j * lineStride)] = lineOut[j];
+						}
+					}
+					else {
+						position(base, passDims, pos);
+						for (int k = 0; k < n; k++) {
+							outRA.setPosition(output.min(k) + pos[k], k);
+						}
+						for (int j = 0; j < length; j++) {
+							outRA.get().setReal(finish(lineOut[j], windowSize));
+							outRA.fwd(d);
+						}
+					}
+				}
+			}
+		}, size(passDims) / length);
+	}
+
+	/**
+	 * Gets the dimensions of the result of the pass along dimension {@code d}:
+	 * the dimensions up to {@code d} are filtered, the later ones still have
+	 * margins of the span on both sides.
+	 */
+	private static long[] passDims(final long[] dims, final int d,
+		final int span)
+	{
+		final long[] passDims = dims.clone();
+		for (int k = d + 1; k < dims.length; k++) {
+			passDims[k] += 2 * span;
+		}
+		return passDims;
+	}
+
+	private static long size(final long[] dims) {
+		long size = 1;
+		for (final long dim : dims) {
+			size *= dim;
+		}
+		return size;
+	}
+
+	/** Computes the position of the given flat index in the given dimensions. */
+	private static void position(final long index, final long[] dims,
+		final long[] pos)
+	{
+		long rest = index;
+		for (int k = 0; k < dims.length; k++) {
+			pos[k] = rest % dims[k];
+			rest /= dims[k];
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter;
+
+import net.imagej.ops.cached.ResultCache;
+
+import org.scijava.log.LogService;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+import org.scijava.service.AbstractService;
+import org.scijava.service.Service;
+
+/**
+ * Default implementation of {@link KernelFFTCacheService}. The budget of the
+ * cache is read from the {@link #BUDGET_PROPERTY} system property, and can be
+ * changed later through {@link KernelFFTCache#getResultCache()}.
+ */
+@Plugin(type = Service.class)
+public class DefaultKernelFFTCacheService extends AbstractService implements
+	KernelFFTCacheService
+{
+
+	@Parameter
+	private LogService log;
+
+	private KernelFFTCache cache;
+
+	// -- KernelFFTCacheService methods --
+
+	@Override
+	public KernelFFTCache getCache() {
+		return cache;
+	}
+
+	// -- Service methods --
+
+	@Override
+	public void initialize() {
+		cache = new KernelFFTCache(new ResultCache(budget(),
+			ResultCache.Policy.LRU));
+	}
+
+	// -- Disposable methods --
+
+	@Override
+	public void dispose() {
+		cache.getResultCache().clear();
+	}
+
+	// -- Helper methods --
+
+	private long budget() {
+		final String budget = System.getProperty(BUDGET_PROPERTY);
+		if (budget != null) {
+			try {
+				return Long.parseLong(budget.trim());
+			}
+			catch (final NumberFormatException exc) {
+				log.warn("Invalid " + BUDGET_PROPERTY + ": " + budget);
+			}
+		}
+		return Runtime.getRuntime().maxMemory() / 8;
+	}
+
+}
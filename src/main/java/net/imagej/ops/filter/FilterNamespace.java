@@ -265,6 +265,35 @@ public class FilterNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	/** Executes the "convolve" operation on the given arguments. */
+	@OpMethod(op = net.imagej.ops.filter.convolve.ConvolveFFTTiled.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> convolve(final RandomAccessibleInterval<O> out,
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final long memoryBudget)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(Ops.Filter.Convolve.class, out,
+				in, kernel, memoryBudget);
+		return result;
+	}
+
+	/** Executes the "convolve" operation on the given arguments. */
+	@OpMethod(op = net.imagej.ops.filter.convolve.ConvolveFFTTiled.class)
+	public <I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+		RandomAccessibleInterval<O> convolve(final RandomAccessibleInterval<O> out,
+			final RandomAccessibleInterval<I> in,
+			final RandomAccessibleInterval<K> kernel, final long memoryBudget,
+			final OutOfBoundsFactory<I, RandomAccessibleInterval<I>> obfInput)
+	{
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<O> result =
+			(RandomAccessibleInterval<O>) ops().run(Ops.Filter.Convolve.class, out,
+				in, kernel, memoryBudget, obfInput);
+		return result;
+	}
+
 	/** Executes the "convolve" operation on the given arguments. */
 
 	@OpMethod(op = net.imagej.ops.filter.convolve.ConvolveFFTC.class)
@@ -907,7 +936,8 @@ public class FilterNamespace extends AbstractNamespace {
 	// -- mean filter --
 
 	/** Executes the "mean" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.mean.DefaultMeanFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.mean.DefaultMeanFilter.class,
+		net.imagej.ops.filter.mean.BoxMeanFilter.class })
 	public <I extends ComplexType<I>, O extends ComplexType<O>>
 		IterableInterval<O> mean(final IterableInterval<O> out,
 			final RandomAccessibleInterval<I> in, final Shape shape)
@@ -919,7 +949,8 @@ public class FilterNamespace extends AbstractNamespace {
 	}
 
 	/** Executes the "mean" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.mean.DefaultMeanFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.mean.DefaultMeanFilter.class,
+		net.imagej.ops.filter.mean.BoxMeanFilter.class })
 	public <I extends ComplexType<I>, O extends ComplexType<O>>
 		IterableInterval<O> mean(final IterableInterval<O> out,
 			final RandomAccessibleInterval<I> in, final Shape shape,
@@ -934,7 +965,8 @@ public class FilterNamespace extends AbstractNamespace {
 	// -- non-linear filters --
 
 	/** Executes the "max" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.max.DefaultMaxFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.max.DefaultMaxFilter.class,
+		net.imagej.ops.filter.max.VanHerkMaxFilter.class })
 	public <T extends RealType<T>, V extends RealType<V>> IterableInterval<T> max(
 		final IterableInterval<T> out, final RandomAccessibleInterval<T> in,
 		final Shape shape)
@@ -946,7 +978,8 @@ public class FilterNamespace extends AbstractNamespace {
 	}
 
 	/** Executes the "max" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.max.DefaultMaxFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.max.DefaultMaxFilter.class,
+		net.imagej.ops.filter.max.VanHerkMaxFilter.class })
 	public <T extends RealType<T>> IterableInterval<T> max(
 		final IterableInterval<T> out, final RandomAccessibleInterval<T> in,
 		final Shape shape, final OutOfBoundsFactory<T, T> outOfBoundsFactory)
@@ -958,7 +991,8 @@ public class FilterNamespace extends AbstractNamespace {
 	}
 
 	/** Executes the "median" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.median.DefaultMedianFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.median.DefaultMedianFilter.class,
+		net.imagej.ops.filter.median.SlidingMedianFilter.class })
 	public <T extends RealType<T>> IterableInterval<T> median(
 		final IterableInterval<T> out, final RandomAccessibleInterval<T> in,
 		final Shape shape)
@@ -970,7 +1004,8 @@ public class FilterNamespace extends AbstractNamespace {
 	}
 
 	/** Executes the "median" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.median.DefaultMedianFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.median.DefaultMedianFilter.class,
+		net.imagej.ops.filter.median.SlidingMedianFilter.class })
 	public <T extends RealType<T>> IterableInterval<T> median(
 		final IterableInterval<T> out, final RandomAccessibleInterval<T> in,
 		final Shape shape, final OutOfBoundsFactory<T, T> outOfBoundsFactory)
@@ -982,7 +1017,8 @@ public class FilterNamespace extends AbstractNamespace {
 	}
 
 	/** Executes the "min" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.min.DefaultMinFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.min.DefaultMinFilter.class,
+		net.imagej.ops.filter.min.VanHerkMinFilter.class })
 	public <T extends RealType<T>> IterableInterval<T> min(
 		final IterableInterval<T> out, final RandomAccessibleInterval<T> in,
 		final Shape shape)
@@ -994,7 +1030,8 @@ public class FilterNamespace extends AbstractNamespace {
 	}
 
 	/** Executes the "min" filter operation on the given arguments. */
-	@OpMethod(op = net.imagej.ops.filter.min.DefaultMinFilter.class)
+	@OpMethod(ops = { net.imagej.ops.filter.min.DefaultMinFilter.class,
+		net.imagej.ops.filter.min.VanHerkMinFilter.class })
 	public <T extends RealType<T>> IterableInterval<T> min(
 		final IterableInterval<T> out, final RandomAccessibleInterval<T> in,
 		final Shape shape, final OutOfBoundsFactory<T, T> outOfBoundsFactory)
@@ -0,0 +1,190 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.imagej.ops.cached.ResultCache;
+import net.imglib2.Dimensions;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+import net.imglib2.util.Util;
+import net.imglib2.view.Views;
+
+/**
+ * A memory-bounded cache of padded kernel spectra, shared by the
+ * {@link AbstractFFTFilterF} ops of a context so that filtering many images
+ * with the same kernel transforms the kernel only once.
+ * <p>
+ * Spectra are keyed on the interval, element type and a fingerprint of the
+ * values of the kernel, together with the padded size and the type of the
+ * FFT. A kernel modified in place is therefore transformed again, and no
+ * reference to the kernel itself is retained. Entries are weighed and evicted
+ * by a {@link ResultCache}; a budget of zero disables the cache.
+ * </p>
+ *
+ * @see KernelFFTCacheService
+ */
+public class KernelFFTCache {
+
+	private final ResultCache cache;
+
+	/**
+	 * Creates a cache with a budget of an eighth of the maximum heap size, and
+	 * the {@link ResultCache.Policy#LRU} policy.
+	 */
+	public KernelFFTCache() {
+		this(new ResultCache(Runtime.getRuntime().maxMemory() / 8,
+			ResultCache.Policy.LRU));
+	}
+
+	public KernelFFTCache(final ResultCache cache) {
+		this.cache = cache;
+	}
+
+	// -- KernelFFTCache methods --
+
+	/**
+	 * Gets the underlying {@link ResultCache}, e.g. to adjust its budget or to
+	 * read its hit and miss counters.
+	 */
+	public ResultCache getResultCache() {
+		return cache;
+	}
+
+	/**
+	 * Computes the key of the spectrum of the given kernel. This reads every
+	 * value of the kernel once.
+	 *
+	 * @param kernel the kernel, before padding
+	 * @param paddedSize the size the kernel is padded to
+	 * @param fftType the element type of the spectrum
+	 */
+	public Object key(final RandomAccessibleInterval<? extends RealType<?>> kernel,
+		final Dimensions paddedSize, final Object fftType)
+	{
+		return key(kernel, paddedSize, fftType, null);
+	}
+
+	/**
+	 * Computes the key of the spectrum of the given kernel, for a caller which
+	 * places the kernel in the padded image differently than
+	 * {@link net.imagej.ops.filter.pad.PadShiftKernelFFTMethods}.
+	 *
+	 * @param layout identifies the placement of the kernel, e.g. the class of
+	 *          the caller; null for the default placement
+	 */
+	public Object key(final RandomAccessibleInterval<? extends RealType<?>> kernel,
+		final Dimensions paddedSize, final Object fftType, final Object layout)
+	{
+		return new Key(kernel, paddedSize, fftType, layout);
+	}
+
+	/** Gets the cached spectrum for the given key, or null if there is none. */
+	@SuppressWarnings("unchecked")
+	public <C> RandomAccessibleInterval<C> get(final Object key) {
+		return (RandomAccessibleInterval<C>) cache.get(key);
+	}
+
+	/**
+	 * Caches the given spectrum. The spectrum must not be modified afterwards,
+	 * since it is shared with all subsequent users of the key.
+	 *
+	 * @return true if the spectrum was cached; false if it is too heavy.
+	 */
+	public boolean put(final Object key,
+		final RandomAccessibleInterval<?> spectrum)
+	{
+		return cache.put(key, spectrum);
+	}
+
+	// -- Helper classes --
+
+	private static final class Key {
+
+		private final long[] min, max, paddedSize;
+		private final Class<?> kernelType, fftType;
+		private final Object layout;
+		private final long fingerprint;
+		private final int hash;
+
+		private Key(final RandomAccessibleInterval<? extends RealType<?>> kernel,
+			final Dimensions paddedSize, final Object fftType, final Object layout)
+		{
+			min = Intervals.minAsLongArray(kernel);
+			max = Intervals.maxAsLongArray(kernel);
+			this.paddedSize = Intervals.dimensionsAsLongArray(paddedSize);
+			kernelType = Util.getTypeFromInterval(kernel).getClass();
+			this.fftType = fftType.getClass();
+			this.layout = layout;
+			fingerprint = fingerprint(kernel);
+			hash = 31 * (31 * (31 * Arrays.hashCode(min) + Arrays.hashCode(max)) +
+				Arrays.hashCode(this.paddedSize)) + Long.hashCode(fingerprint);
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) return true;
+			if (!(o instanceof Key)) return false;
+			final Key that = (Key) o;
+			return hash == that.hash && fingerprint == that.fingerprint && //
+				kernelType == that.kernelType && fftType == that.fftType && //
+				Objects.equals(layout, that.layout) && //
+				Arrays.equals(min, that.min) && Arrays.equals(max, that.max) && //
+				Arrays.equals(paddedSize, that.paddedSize);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		/**
+		 * 64-bit FNV-style hash of the values, in flat iteration order, with an
+		 * extra shift so that differences in the high bits are mixed down.
+		 */
+		private static long fingerprint(
+			final RandomAccessibleInterval<? extends RealType<?>> kernel)
+		{
+			long h = 0xcbf29ce484222325L;
+			for (final RealType<?> t : Views.flatIterable(kernel)) {
+				h ^= Double.doubleToLongBits(t.getRealDouble());
+				h *= 0x100000001b3L;
+				h ^= h >>> 29;
+			}
+			return h;
+		}
+
+	}
+
+}
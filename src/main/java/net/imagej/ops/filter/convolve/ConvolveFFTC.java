@@ -34,9 +34,10 @@ import net.imagej.ops.Ops;
 import net.imagej.ops.filter.AbstractFFTFilterC;
 import net.imagej.ops.filter.FFTMethodsLinearFFTFilterC;
 import net.imagej.ops.math.IIToIIOutputII;
+import net.imagej.ops.math.StorageArrays;
+import net.imagej.ops.math.multiply.ComplexMultiplyArrays;
 import net.imagej.ops.special.computer.BinaryComputerOp;
 import net.imagej.ops.special.computer.Computers;
-import net.imagej.ops.special.hybrid.BinaryHybridCF;
 import net.imagej.ops.special.hybrid.Hybrids;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.type.numeric.ComplexType;
@@ -61,7 +62,7 @@ public class ConvolveFFTC<I extends RealType<I>, O extends RealType<O>, K extend
 	implements Ops.Filter.Convolve
 {
 
-	private BinaryHybridCF<RandomAccessibleInterval<C>, RandomAccessibleInterval<C>, RandomAccessibleInterval<C>> mul;
+	private BinaryComputerOp<RandomAccessibleInterval<C>, RandomAccessibleInterval<C>, RandomAccessibleInterval<C>> mul;
 
 	private BinaryComputerOp<RandomAccessibleInterval<I>, RandomAccessibleInterval<K>, RandomAccessibleInterval<O>> linearFilter;
 
@@ -70,8 +71,16 @@ public class ConvolveFFTC<I extends RealType<I>, O extends RealType<O>, K extend
 	public void initialize() {
 		super.initialize();
 
-		mul = Hybrids.binaryCF(ops(), IIToIIOutputII.Multiply.class, getFFTInput(),
-			getFFTKernel(), getFFTInput());
+		// multiply directly on the storage arrays of the FFTs if possible
+		if (StorageArrays.complexAligned(getFFTInput(), getFFTKernel())) {
+			mul = (BinaryComputerOp) Computers.binary(ops(),
+				ComplexMultiplyArrays.class, getFFTInput(), getFFTKernel(),
+				getFFTInput());
+		}
+		else {
+			mul = Hybrids.binaryCF(ops(), IIToIIOutputII.Multiply.class,
+				getFFTInput(), getFFTKernel(), getFFTInput());
+		}
 
 		// create a convolver by creating a linear filter and passing the multiplier as
 		// the frequency operation
@@ -82,10 +82,11 @@ public class ConvolveFFTF<I extends RealType<I> & NativeType<I>, O extends RealT
 		createFilterComputer(RandomAccessibleInterval<I> raiExtendedInput,
 			RandomAccessibleInterval<K> raiExtendedKernel,
 			RandomAccessibleInterval<C> fftImg, RandomAccessibleInterval<C> fftKernel,
-			RandomAccessibleInterval<O> output, Interval imgConvolutionInterval)
+			boolean performKernelFFT, RandomAccessibleInterval<O> output,
+			Interval imgConvolutionInterval)
 	{
 		return Computers.binary(ops(), ConvolveFFTC.class, output, raiExtendedInput,
-			raiExtendedKernel, fftImg, fftKernel);
+			raiExtendedKernel, fftImg, fftKernel, true, performKernelFFT);
 	}
 
 }
@@ -0,0 +1,307 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter.convolve;
+
+import java.util.Arrays;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.filter.KernelFFTCache;
+import net.imagej.ops.filter.KernelFFTCacheService;
+import net.imagej.ops.filter.fft.CreateOutputFFTMethods;
+import net.imagej.ops.filter.fft.FFTMethodsOpC;
+import net.imagej.ops.filter.fft.FFTMethodsUtility;
+import net.imagej.ops.filter.ifft.IFFTMethodsOpC;
+import net.imagej.ops.math.IIToIIOutputII;
+import net.imagej.ops.math.StorageArrays;
+import net.imagej.ops.math.multiply.ComplexMultiplyArrays;
+import net.imagej.ops.special.computer.AbstractBinaryComputerOp;
+import net.imagej.ops.special.computer.BinaryComputerOp;
+import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imagej.ops.special.hybrid.Hybrids;
+import net.imglib2.Cursor;
+import net.imglib2.Dimensions;
+import net.imglib2.FinalDimensions;
+import net.imglib2.FinalInterval;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
+import net.imglib2.outofbounds.OutOfBoundsFactory;
+import net.imglib2.outofbounds.OutOfBoundsMirrorFactory;
+import net.imglib2.outofbounds.OutOfBoundsMirrorFactory.Boundary;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.complex.ComplexFloatType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.util.IntervalIndexer;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Convolve op for {@link RandomAccessibleInterval} which works tile by tile
+ * using the overlap-save method, so that images larger than the heap, such as
+ * a {@link net.imglib2.img.cell.CellImg}, can be convolved with a working set
+ * of bounded size.
+ * <p>
+ * For each tile of the output, the input is read including a border the size
+ * of the kernel, transformed, multiplied with the spectrum of the kernel and
+ * transformed back, and the part of the result which is not affected by the
+ * circular wrap-around is written to the output. The FFT buffers are
+ * allocated once and reused for all tiles, and the spectrum of the kernel is
+ * shared with later calls through the {@link KernelFFTCache}. The tiles are
+ * chosen as large as the memory budget allows.
+ * </p>
+ * <p>
+ * The center of the kernel is at index {@code dimension / 2}, as for
+ * {@link ConvolveNaiveC}. Pixel {@code output.min + x} of the output is
+ * computed around pixel {@code input.min + x} of the input.
+ * </p>
+ *
+ * @param <I>
+ * @param <O>
+ * @param <K>
+ */
+@Plugin(type = Ops.Filter.Convolve.class)
+public class ConvolveFFTTiled<I extends RealType<I>, O extends RealType<O>, K extends RealType<K>>
+	extends
+	AbstractBinaryComputerOp<RandomAccessibleInterval<I>, RandomAccessibleInterval<K>, RandomAccessibleInterval<O>>
+	implements Ops.Filter.Convolve, Contingent
+{
+
+	/**
+	 * Estimated size in bytes of the buffers per pixel of the padded tile: the
+	 * real tile, its spectrum, the spectrum of the kernel, and some slack for
+	 * the line buffers of the FFT.
+	 */
+	private static final long BYTES_PER_PIXEL = 16;
+
+	/**
+	 * Maximum size in bytes of the buffers used to transform one tile.
+	 */
+	@Parameter
+	private long memoryBudget;
+
+	/**
+	 * Defines the out of bounds strategy for the extended area of the input.
+	 */
+	@Parameter(required = false)
+	private OutOfBoundsFactory<I, RandomAccessibleInterval<I>> obfInput;
+
+	@Parameter(required = false)
+	private KernelFFTCacheService kernelFFTCacheService;
+
+	private UnaryComputerOp<RandomAccessibleInterval<?>, RandomAccessibleInterval<ComplexFloatType>> fftOp;
+
+	private UnaryFunctionOp<Dimensions, Img<ComplexFloatType>> createOp;
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void initialize() {
+		super.initialize();
+
+		if (obfInput == null) {
+			obfInput = new OutOfBoundsMirrorFactory<>(Boundary.SINGLE);
+		}
+
+		fftOp = (UnaryComputerOp) Computers.unary(ops(), FFTMethodsOpC.class,
+			RandomAccessibleInterval.class, RandomAccessibleInterval.class);
+
+		createOp = (UnaryFunctionOp) Functions.unary(ops(),
+			CreateOutputFFTMethods.class, Img.class, Dimensions.class,
+			new ComplexFloatType(), true);
+	}
+
+	@Override
+	public boolean conforms() {
+		if (memoryBudget <= 0) return false;
+		if (in2().numDimensions() != in1().numDimensions()) return false;
+		return out() == null || Arrays.equals(Intervals.dimensionsAsLongArray(
+			in1()), Intervals.dimensionsAsLongArray(out()));
+	}
+
+	@Override
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void compute(final RandomAccessibleInterval<I> input,
+		final RandomAccessibleInterval<K> kernel,
+		final RandomAccessibleInterval<O> output)
+	{
+		final int n = input.numDimensions();
+		final long[] size = paddedTileSize(input, kernel, memoryBudget);
+		final Dimensions paddedSize = new FinalDimensions(size);
+
+		// offset of the valid part of a padded tile, and the tile grid
+		final long[] border = new long[n];
+		final long[] tileSize = new long[n];
+		final long[] numTiles = new long[n];
+		for (int d = 0; d < n; d++) {
+			border[d] = kernel.dimension(d) - 1 - kernel.dimension(d) / 2;
+			tileSize[d] = size[d] - kernel.dimension(d) + 1;
+			numTiles[d] = (output.dimension(d) + tileSize[d] - 1) / tileSize[d];
+		}
+
+		// buffers, reused for all tiles
+		final Img<ComplexFloatType> spectrum = createOp.calculate(paddedSize);
+		final Img<FloatType> tile = ops().create().img(paddedSize,
+			new FloatType());
+		final Img<ComplexFloatType> kernelSpectrum = kernelSpectrum(kernel,
+			paddedSize);
+
+		final UnaryComputerOp<RandomAccessibleInterval<ComplexFloatType>, RandomAccessibleInterval<FloatType>> ifftOp =
+			(UnaryComputerOp) Computers.unary(ops(), IFFTMethodsOpC.class, tile,
+				spectrum);
+		final BinaryComputerOp<RandomAccessibleInterval<ComplexFloatType>, RandomAccessibleInterval<ComplexFloatType>, RandomAccessibleInterval<ComplexFloatType>> mul;
+		if (StorageArrays.complexAligned(spectrum, kernelSpectrum)) {
+			mul = (BinaryComputerOp) Computers.binary(ops(),
+				ComplexMultiplyArrays.class, spectrum, spectrum, kernelSpectrum);
+		}
+		else {
+			mul = (BinaryComputerOp) Hybrids.binaryCF(ops(),
+				IIToIIOutputII.Multiply.class, spectrum, spectrum, kernelSpectrum);
+		}
+
+		final RandomAccessible<I> extended = Views.extend(input, obfInput);
+		final long[] gridPos = new long[n];
+		final long[] outMin = new long[n];
+		final long[] outMax = new long[n];
+		final long[] inMin = new long[n];
+		final long[] inMax = new long[n];
+		final long[] validMax = new long[n];
+		final long total = Intervals.numElements(numTiles);
+		for (long t = 0; t < total; t++) {
+			IntervalIndexer.indexToPosition(t, numTiles, gridPos);
+			for (int d = 0; d < n; d++) {
+				final long offset = gridPos[d] * tileSize[d];
+				outMin[d] = output.min(d) + offset;
+				outMax[d] = Math.min(outMin[d] + tileSize[d], output.max(d) + 1) - 1;
+				inMin[d] = input.min(d) + offset - border[d];
+				inMax[d] = inMin[d] + size[d] - 1;
+				validMax[d] = border[d] + outMax[d] - outMin[d];
+			}
+
+			fftOp.compute(Views.zeroMin(Views.interval(extended, inMin, inMax)),
+				spectrum);
+			mul.compute(spectrum, kernelSpectrum, spectrum);
+			ifftOp.compute(spectrum, tile);
+
+			final Cursor<FloatType> src = Views.flatIterable(Views.interval(tile,
+				border, validMax)).cursor();
+			final Cursor<O> dst = Views.flatIterable(Views.interval(output, outMin,
+				outMax)).cursor();
+			while (src.hasNext()) {
+				dst.next().setReal(src.next().get());
+			}
+		}
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Gets the spectrum of the kernel padded to the given size, with its center
+	 * shifted to the origin, from the {@link KernelFFTCache} if possible.
+	 */
+	@SuppressWarnings("unchecked")
+	private Img<ComplexFloatType> kernelSpectrum(
+		final RandomAccessibleInterval<K> kernel, final Dimensions paddedSize)
+	{
+		final KernelFFTCache cache = kernelFFTCacheService == null ? null
+			: kernelFFTCacheService.getCache();
+		final Object key = cache == null ? null : cache.key(kernel, paddedSize,
+			new ComplexFloatType(), ConvolveFFTTiled.class);
+		final RandomAccessibleInterval<ComplexFloatType> cached = key == null
+			? null : cache.get(key);
+		if (cached != null) return (Img<ComplexFloatType>) cached;
+
+		final int n = kernel.numDimensions();
+		final long[] center = new long[n];
+		for (int d = 0; d < n; d++) {
+			center[d] = kernel.dimension(d) / 2;
+		}
+		final FinalInterval padded = new FinalInterval(Intervals
+			.dimensionsAsLongArray(paddedSize));
+		final RandomAccessibleInterval<K> shifted = Views.interval(Views.offset(
+			Views.extendPeriodic(Views.interval(Views.extendZero(Views.zeroMin(
+				kernel)), padded)), center), padded);
+
+		final Img<ComplexFloatType> spectrum = createOp.calculate(paddedSize);
+		fftOp.compute(shifted, spectrum);
+		if (key != null) cache.put(key, spectrum);
+		return spectrum;
+	}
+
+	/**
+	 * Computes the padded size of the tiles: as large as needed to convolve the
+	 * whole input at once, or smaller so that the buffers fit into the budget.
+	 * Each dimension is a supported FFT size of at least twice the kernel size,
+	 * and the dimension with the largest tile is halved first.
+	 */
+	private static long[] paddedTileSize(final Dimensions input,
+		final Dimensions kernel, final long memoryBudget)
+	{
+		final int n = input.numDimensions();
+		final long[] wanted = new long[n];
+		for (int d = 0; d < n; d++) {
+			wanted[d] = input.dimension(d) + kernel.dimension(d) - 1;
+		}
+		final long[] size = fftSize(wanted);
+
+		final boolean[] fixed = new boolean[n];
+		while (BYTES_PER_PIXEL * Intervals.numElements(size) > memoryBudget) {
+			int largest = -1;
+			for (int d = 0; d < n; d++) {
+				if (fixed[d]) continue;
+				if (largest < 0 || size[d] - kernel.dimension(d) > size[largest] -
+					kernel.dimension(largest)) largest = d;
+			}
+			// NB: The tiles cannot get any smaller; exceed the budget.
+			if (largest < 0) break;
+
+			wanted[largest] = Math.max(size[largest] / 2, 2 * kernel.dimension(
+				largest));
+			final long smaller = fftSize(wanted)[largest];
+			if (smaller < size[largest]) size[largest] = smaller;
+			else fixed[largest] = true;
+			wanted[largest] = size[largest];
+		}
+		return size;
+	}
+
+	private static long[] fftSize(final long[] size) {
+		return Intervals.dimensionsAsLongArray(FFTMethodsUtility
+			.getPaddedInputDimensionsRealToComplex(true, new FinalDimensions(
+				size)));
+	}
+
+}
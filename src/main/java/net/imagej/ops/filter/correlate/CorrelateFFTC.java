@@ -33,6 +33,8 @@ package net.imagej.ops.filter.correlate;
 import net.imagej.ops.Ops;
 import net.imagej.ops.filter.AbstractFFTFilterC;
 import net.imagej.ops.filter.FFTMethodsLinearFFTFilterC;
+import net.imagej.ops.math.StorageArrays;
+import net.imagej.ops.math.multiply.ComplexConjugateMultiplyArrays;
 import net.imagej.ops.math.multiply.ComplexConjugateMultiplyMap;
 import net.imagej.ops.special.computer.BinaryComputerOp;
 import net.imagej.ops.special.computer.Computers;
@@ -67,9 +69,17 @@ public class CorrelateFFTC<I extends RealType<I>, O extends RealType<O>, K exten
 	public void initialize() {
 		super.initialize();
 
-		complexConjugateMul = Computers.binary(ops(),
-			ComplexConjugateMultiplyMap.class, getFFTInput(), getFFTKernel(),
-			getFFTInput());
+		// multiply directly on the storage arrays of the FFTs if possible
+		if (StorageArrays.complexAligned(getFFTInput(), getFFTKernel())) {
+			complexConjugateMul = (BinaryComputerOp) Computers.binary(ops(),
+				ComplexConjugateMultiplyArrays.class, getFFTInput(), getFFTKernel(),
+				getFFTInput());
+		}
+		else {
+			complexConjugateMul = Computers.binary(ops(),
+				ComplexConjugateMultiplyMap.class, getFFTInput(), getFFTKernel(),
+				getFFTInput());
+		}
 
 		// create a correlater by creating a linear filter and passing the complex conjugate multiplier
 		// as the frequency operation
@@ -71,6 +71,9 @@ public class FFTMethodsOpC<T extends RealType<T>, C extends ComplexType<C>>
 		final RandomAccessibleInterval<C> output)
 	{
 
+		// transform float spectra directly on their storage if possible
+		if (FloatFFTMethods.realToComplex(ops(), input, output)) return;
+
 		// perform a real to complex FFT in the first dimension
 		FFTMethods.realToComplex(input, output, 0, false, ts.getExecutorService());
 
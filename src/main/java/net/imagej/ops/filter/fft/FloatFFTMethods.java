@@ -0,0 +1,381 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter.fft;
+
+import edu.mines.jtk.dsp.FftComplex;
+import edu.mines.jtk.dsp.FftReal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.math.StorageArrays;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imglib2.Interval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.fft2.FFTMethods;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+
+/**
+ * Float precision FFTs which work directly on the storage array of a
+ * {@link net.imglib2.type.numeric.complex.ComplexFloatType} spectrum, as
+ * computed by {@link FFTMethods}: a real to complex transform of dimension 0,
+ * which keeps only the non-redundant half of the spectrum, followed by complex
+ * to complex transforms of the remaining dimensions.
+ * <p>
+ * Unlike {@link FFTMethods}, which creates the transform and its line buffers
+ * anew for every dimension and call, the transforms and line buffers are kept
+ * in a small workspace per thread and transform size. The real data are read
+ * from the input line by line and the inverse transform writes each line
+ * straight into the output, so no complex copy of the real image is made.
+ * </p>
+ * <p>
+ * The methods return false, without touching the data, if the images are not
+ * supported: the spectrum must be an {@link net.imglib2.img.array.ArrayImg}
+ * of complex floats, and its size a supported FFT size.
+ * </p>
+ */
+public final class FloatFFTMethods {
+
+	/** Maximum number of workspaces kept per thread. */
+	private static final int MAX_WORKSPACES = 8;
+
+	private static final ThreadLocal<Map<Long, Workspace>> WORKSPACES =
+		new ThreadLocal<Map<Long, Workspace>>()
+		{
+
+			@Override
+			protected Map<Long, Workspace> initialValue() {
+				return new LinkedHashMap<Long, Workspace>(16, 0.75f, true) {
+
+					@Override
+					protected boolean removeEldestEntry(
+						final Map.Entry<Long, Workspace> eldest)
+					{
+						return size() > MAX_WORKSPACES;
+					}
+				};
+			}
+		};
+
+	private static final AtomicLong HITS = new AtomicLong();
+
+	private static final AtomicLong MISSES = new AtomicLong();
+
+	private FloatFFTMethods() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Computes the forward FFT of the given real input into the given spectrum.
+	 * The input must have the padded size of the spectrum, i.e.
+	 * {@code 2 * (output.dimension(0) - 1)} in dimension 0 and the size of the
+	 * spectrum in the other dimensions.
+	 *
+	 * @return whether the transform was computed
+	 */
+	public static boolean realToComplex(final OpEnvironment ops,
+		final RandomAccessibleInterval<? extends RealType<?>> input,
+		final RandomAccessibleInterval<?> output)
+	{
+		final float[] spectrum = spectrum(output);
+		if (spectrum == null) return false;
+
+		final long[] dims = Intervals.dimensionsAsLongArray(output);
+		final int realSize = 2 * ((int) dims[0] - 1);
+		if (input.numDimensions() != dims.length || input.dimension(
+			0) != realSize) return false;
+		for (int d = 1; d < dims.length; d++) {
+			if (input.dimension(d) != dims[d]) return false;
+		}
+		if (!supported(dims)) return false;
+
+		final float[] realInput = realStorage(input);
+		final int complexSize = 2 * (int) dims[0];
+		ops.run(ChunkerOp.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final Workspace ws = workspace(realSize, true);
+				final RandomAccess<? extends RealType<?>> ra = realInput == null
+					? input.randomAccess() : null;
+				final long[] position = new long[dims.length];
+				for (int l = startIndex, j = 0; j < numSteps; l += stepSize, j++) {
+					if (realInput != null) {
+						System.arraycopy(realInput, l * realSize, ws.real, 0, realSize);
+					}
+					else {
+						linePosition(l, dims, input, position);
+						ra.setPosition(position);
+						for (int x = 0; x < realSize; x++) {
+							ws.real[x] = ra.get().getRealFloat();
+							ra.fwd(0);
+						}
+					}
+					ws.fftReal.realToComplex(-1, ws.real, ws.complex);
+					System.arraycopy(ws.complex, 0, spectrum, l * complexSize,
+						complexSize);
+				}
+			}
+		}, numLines(dims, 0));
+
+		for (int d = 1; d < dims.length; d++) {
+			complexToComplex(ops, spectrum, dims, d, true);
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the inverse FFT of the given spectrum into the given real output.
+	 * The spectrum is transformed in place, and the output receives the part of
+	 * the padded real image given by
+	 * {@link FFTMethods#unpaddingIntervalCentered}.
+	 *
+	 * @return whether the transform was computed
+	 */
+	public static boolean complexToReal(final OpEnvironment ops,
+		final RandomAccessibleInterval<?> input,
+		final RandomAccessibleInterval<? extends RealType<?>> output)
+	{
+		final float[] spectrum = spectrum(input);
+		if (spectrum == null) return false;
+
+		final long[] dims = Intervals.dimensionsAsLongArray(input);
+		if (output.numDimensions() != dims.length || !supported(dims)) {
+			return false;
+		}
+		final int realSize = 2 * ((int) dims[0] - 1);
+		final Interval interval = FFTMethods.unpaddingIntervalCentered(input,
+			output);
+
+		for (int d = dims.length - 1; d > 0; d--) {
+			complexToComplex(ops, spectrum, dims, d, false);
+		}
+
+		final long[] outDims = Intervals.dimensionsAsLongArray(output);
+		final float[] realOutput = realStorage(output);
+		final int offset = (int) interval.min(0);
+		final int width = (int) outDims[0];
+		final int complexSize = 2 * (int) dims[0];
+		ops.run(ChunkerOp.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final Workspace ws = workspace(realSize, true);
+				final RandomAccess<? extends RealType<?>> ra = realOutput == null
+					? output.randomAccess() : null;
+				final long[] position = new long[dims.length];
+				for (int l = startIndex, j = 0; j < numSteps; l += stepSize, j++) {
+					// the line of the spectrum which holds output line l
+					linePosition(l, outDims, output, position);
+					int line = 0;
+					for (int d = dims.length - 1; d > 0; d--) {
+						line = line * (int) dims[d] + (int) (position[d] - output.min(
+							d) + interval.min(d));
+					}
+
+					System.arraycopy(spectrum, line * complexSize, ws.complex, 0,
+						complexSize);
+					ws.fftReal.complexToReal(1, ws.complex, ws.real);
+					ws.fftReal.scale(realSize, ws.real);
+
+					if (realOutput != null) {
+						System.arraycopy(ws.real, offset, realOutput, l * width, width);
+					}
+					else {
+						ra.setPosition(position);
+						for (int x = 0; x < width; x++) {
+							ra.get().setReal(ws.real[offset + x]);
+							ra.fwd(0);
+						}
+					}
+				}
+			}
+		}, numLines(outDims, 0));
+		return true;
+	}
+
+	/**
+	 * Gets the number of times a transform found the workspace for its size
+	 * already set up on the current thread.
+	 */
+	public static long getWorkspaceHits() {
+		return HITS.get();
+	}
+
+	/**
+	 * Gets the number of times a workspace had to be created, because its
+	 * thread had not used the size before or had evicted it.
+	 */
+	public static long getWorkspaceMisses() {
+		return MISSES.get();
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Transforms all lines of the given dimension of the spectrum in place.
+	 */
+	private static void complexToComplex(final OpEnvironment ops,
+		final float[] spectrum, final long[] dims, final int d,
+		final boolean forward)
+	{
+		final int size = (int) dims[d];
+		int stride = 1;
+		for (int i = 0; i < d; i++) {
+			stride *= (int) dims[i];
+		}
+		final int lineStride = stride;
+		ops.run(ChunkerOp.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final Workspace ws = workspace(size, false);
+				final float[] line = ws.complex;
+				for (int l = startIndex, j = 0; j < numSteps; l += stepSize, j++) {
+					final int start = 2 * (l % lineStride + l / lineStride * lineStride *
+						size);
+					for (int k = 0, i = start; k < size; k++, i += 2 * lineStride) {
+						line[2 * k] = spectrum[i];
+						line[2 * k + 1] = spectrum[i + 1];
+					}
+					ws.fftComplex.complexToComplex(forward ? -1 : 1, line, line);
+					if (!forward) ws.fftComplex.scale(size, line);
+					for (int k = 0, i = start; k < size; k++, i += 2 * lineStride) {
+						spectrum[i] = line[2 * k];
+						spectrum[i + 1] = line[2 * k + 1];
+					}
+				}
+			}
+		}, numLines(dims, d));
+	}
+
+	/** Gets the workspace of the current thread for the given transform. */
+	private static Workspace workspace(final int size, final boolean real) {
+		final Map<Long, Workspace> workspaces = WORKSPACES.get();
+		final Long key = 2L * size + (real ? 1 : 0);
+		Workspace ws = workspaces.get(key);
+		if (ws == null) {
+			MISSES.incrementAndGet();
+			ws = new Workspace(size, real);
+			workspaces.put(key, ws);
+		}
+		else HITS.incrementAndGet();
+		return ws;
+	}
+
+	/** Gets the storage array of a complex float spectrum, or null. */
+	private static float[] spectrum(final Object image) {
+		final StorageArrays storage = StorageArrays.of(image);
+		if (storage == null || storage.isDouble() || !storage.isComplex() ||
+			storage.numArrays() != 1) return null;
+		return storage.floats(0);
+	}
+
+	/** Gets the storage array of a real float image, or null. */
+	private static float[] realStorage(final Object image) {
+		final StorageArrays storage = StorageArrays.of(image);
+		if (storage == null || storage.isDouble() || storage.isComplex() ||
+			storage.numArrays() != 1) return null;
+		return storage.floats(0);
+	}
+
+	/**
+	 * Checks that the spectrum fits into one array and that its size is
+	 * supported by the transforms.
+	 */
+	private static boolean supported(final long[] dims) {
+		if (dims[0] < 2 || 2 * Intervals.numElements(dims) > Integer.MAX_VALUE) {
+			return false;
+		}
+		final int realSize = 2 * ((int) dims[0] - 1);
+		if (FftReal.nfftSmall(realSize) != realSize) return false;
+		for (int d = 1; d < dims.length; d++) {
+			if (FftComplex.nfftSmall((int) dims[d]) != dims[d]) return false;
+		}
+		return true;
+	}
+
+	/** Gets the number of lines along the given dimension. */
+	private static long numLines(final long[] dims, final int d) {
+		return Intervals.numElements(dims) / dims[d];
+	}
+
+	/**
+	 * Gets the position of the start of line {@code l} along dimension 0 of the
+	 * given interval.
+	 */
+	private static void linePosition(final long l, final long[] dims,
+		final Interval interval, final long[] position)
+	{
+		long index = l;
+		position[0] = interval.min(0);
+		for (int d = 1; d < dims.length; d++) {
+			position[d] = interval.min(d) + index % dims[d];
+			index /= dims[d];
+		}
+	}
+
+	/** Transform and line buffers for one size. */
+	private static final class Workspace {
+
+		private final FftReal fftReal;
+		private final FftComplex fftComplex;
+		private final float[] real;
+		private final float[] complex;
+
+		private Workspace(final int size, final boolean isReal) {
+			if (isReal) {
+				fftReal = new FftReal(size);
+				fftComplex = null;
+				real = new float[size];
+				complex = new float[size + 2];
+			}
+			else {
+				fftReal = null;
+				fftComplex = new FftComplex(size);
+				real = null;
+				complex = new float[2 * size];
+			}
+		}
+	}
+
+}
@@ -32,6 +32,7 @@ package net.imagej.ops.filter.ifft;
 
 import net.imagej.ops.Contingent;
 import net.imagej.ops.Ops;
+import net.imagej.ops.filter.fft.FloatFFTMethods;
 import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.algorithm.fft2.FFTMethods;
@@ -69,6 +70,9 @@ public class IFFTMethodsOpC<C extends ComplexType<C>, T extends RealType<T>>
 	public void compute(final RandomAccessibleInterval<C> input,
 		final RandomAccessibleInterval<T> output)
 	{
+		// transform float spectra directly on their storage if possible
+		if (FloatFFTMethods.complexToReal(ops(), input, output)) return;
+
 		for (int d = input.numDimensions() - 1; d > 0; d--)
 			FFTMethods.complexToComplex(input, d, false, true, ts
 				.getExecutorService());
@@ -0,0 +1,147 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter.mean;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.filter.AbstractSeparableRectangleFilter;
+import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.algorithm.neighborhood.Shape;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
+
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link MeanFilterOp} over a {@link RectangleShape} as separable box filter:
+ * each pass sums a line of samples with a running sum, so the cost per pixel
+ * does not depend on the span. The sum is divided by the number of samples
+ * only at the end, so means of integer images are exact as with
+ * {@link DefaultMeanFilter}. Rectangles which skip their center are supported
+ * by keeping the sums of the full rectangles and subtracting the center from
+ * each sum in a final step.
+ */
+@Plugin(type = Ops.Filter.Mean.class)
+public class BoxMeanFilter<T extends RealType<T>, V extends RealType<V>>
+	extends AbstractSeparableRectangleFilter<T, V> implements MeanFilterOp<T, V>
+{
+
+	/** Whether {@link #finish} keeps the sums instead of dividing them. */
+	private boolean keepSums;
+
+	@Override
+	public void compute(final RandomAccessibleInterval<T> input,
+		final IterableInterval<V> output)
+	{
+		if (!isCenterSkippingRectangle(getShape(), input)) {
+			super.compute(input, output);
+			return;
+		}
+
+		final Img<DoubleType> sums = ArrayImgs.doubles(Intervals
+			.dimensionsAsLongArray(input));
+		keepSums = true;
+		try {
+			filter(Views.extend(input, getOutOfBoundsFactory()), input, sums,
+				getSpan());
+		}
+		finally {
+			keepSums = false;
+		}
+
+		final int windowSize = windowSize(getSpan(), input.numDimensions());
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<V> out =
+			(RandomAccessibleInterval<V>) output;
+		final IterableInterval<T> centers = Views.flatIterable(input);
+		final IterableInterval<V> means = Views.flatIterable(out);
+		ops().run(ChunkerOp.class, new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final Cursor<DoubleType> sum = sums.cursor();
+				final Cursor<T> center = centers.cursor();
+				final Cursor<V> mean = means.cursor();
+				setToStart(sum, startIndex);
+				setToStart(center, startIndex);
+				setToStart(mean, startIndex);
+				for (int i = 0; i < numSteps; i++) {
+					if (i > 0) {
+						sum.jumpFwd(stepSize);
+						center.jumpFwd(stepSize);
+						mean.jumpFwd(stepSize);
+					}
+					mean.get().setReal((sum.get().get() - center.get()
+						.getRealDouble()) / (windowSize - 1));
+				}
+			}
+		}, sums.size());
+	}
+
+	@Override
+	protected void filterLine(final double[] in, final double[] out,
+		final double[] work, final int span)
+	{
+		double sum = 0;
+		for (int i = 0; i <= 2 * span; i++) {
+			sum += in[i];
+		}
+		out[0] = sum;
+		for (int i = 1; i < out.length; i++) {
+			sum += in[i + 2 * span] - in[i - 1];
+			out[i] = sum;
+		}
+	}
+
+	@Override
+	protected double finish(final double value, final int windowSize) {
+		return keepSums ? value : value / windowSize;
+	}
+
+	@Override
+	protected boolean supports(final Shape rectangle,
+		final RandomAccessibleInterval<T> input)
+	{
+		return isFullRectangle(rectangle, input) || isCenterSkippingRectangle(
+			rectangle, input);
+	}
+
+}
@@ -0,0 +1,330 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter.median;
+
+import java.util.Arrays;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.filter.AbstractRectangleFilter;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccess;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+import net.imglib2.util.Util;
+import net.imglib2.view.Views;
+
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link MedianFilterOp} over a {@link RectangleShape} which slides the window
+ * along the first dimension, updating it with the leaving and entering slabs
+ * of samples instead of re-collecting the whole neighborhood at every pixel.
+ * <p>
+ * For integer types of at most 16 bits, the window is a histogram of the
+ * sample values, with a coarse histogram on top of it, and the median bin is
+ * tracked as the window slides (Huang, Yang and Tang; Perreault and Hébert).
+ * Other types keep the window as a sorted array, which costs O(window) per
+ * entering or leaving sample; they only match windows whose slabs are small
+ * enough for this to beat re-collecting the neighborhood. The median is the
+ * sample of rank {@code n / 2}, as computed by {@link Ops.Stats.Median}.
+ * </p>
+ */
+@Plugin(type = Ops.Filter.Median.class)
+public class SlidingMedianFilter<T extends RealType<T>, V extends RealType<V>>
+	extends AbstractRectangleFilter<T, V> implements MedianFilterOp<T, V>
+{
+
+	/** Maximum number of histogram bins of the integer window. */
+	private static final int MAX_BINS = 1 << 16;
+
+	/** Maximum number of samples per slab of the sorted window. */
+	private static final int MAX_SORTED_SLAB = 5;
+
+	@Override
+	public boolean conforms() {
+		if (!super.conforms()) return false;
+		if (Intervals.numElements(in()) == 0) return true;
+		if (isHistogrammable(Util.getTypeFromInterval(in()))) return true;
+		final int slab = windowSize(getSpan(), in().numDimensions() - 1);
+		return slab >= 0 && slab <= MAX_SORTED_SLAB;
+	}
+
+	@Override
+	public void compute(final RandomAccessibleInterval<T> input,
+		final IterableInterval<V> output)
+	{
+		final long size = Intervals.numElements(input);
+		if (size == 0) return;
+
+		final int span = getSpan();
+		final RandomAccessible<T> extended = Views.extend(input,
+			getOutOfBoundsFactory());
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<V> out =
+			(RandomAccessibleInterval<V>) output;
+		final T type = Util.getTypeFromInterval(input);
+		final int windowSize = windowSize(span, input.numDimensions());
+
+		ops().run(ChunkerOp.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final Window<T> window = window(type, windowSize);
+				final RandomAccess<T> inRA = extended.randomAccess();
+				final RandomAccess<V> outRA = out.randomAccess();
+				for (int i = 0; i < numSteps; i++) {
+					filterLine(startIndex + (long) i * stepSize, input, out, inRA,
+						outRA, span, window);
+				}
+			}
+		}, size / input.dimension(0));
+	}
+
+	// -- Helper methods --
+
+	private static <T extends RealType<T>> Window<T> window(final T type,
+		final int windowSize)
+	{
+		if (isHistogrammable(type)) {
+			final double range = type.getMaxValue() - type.getMinValue() + 1;
+			return new HistogramWindow<>((long) type.getMinValue(), (int) range);
+		}
+		return new SortedWindow<>(windowSize);
+	}
+
+	/** Gets whether samples of the given type fit a {@link HistogramWindow}. */
+	private static boolean isHistogrammable(final RealType<?> type) {
+		return type instanceof IntegerType && type.getMaxValue() - type
+			.getMinValue() + 1 <= MAX_BINS;
+	}
+
+	/**
+	 * Filters one line of the output along the first dimension, sliding the
+	 * window from the first pixel of the line to the last one.
+	 */
+	private static <T extends RealType<T>, V extends RealType<V>> void
+		filterLine(final long line, final RandomAccessibleInterval<T> input,
+			final RandomAccessibleInterval<V> output, final RandomAccess<T> inRA,
+			final RandomAccess<V> outRA, final int span, final Window<T> window)
+	{
+		final int n = input.numDimensions();
+		final long[] center = new long[n];
+		long rest = line;
+		for (int d = 1; d < n; d++) {
+			center[d] = input.min(d) + rest % input.dimension(d);
+			rest /= input.dimension(d);
+		}
+		final long min = input.min(0);
+		final long max = input.max(0);
+		center[0] = min;
+
+		outRA.setPosition(output.min(0), 0);
+		for (int d = 1; d < n; d++) {
+			outRA.setPosition(center[d] - input.min(d) + output.min(d), d);
+		}
+
+		for (long x = min - span; x <= min + span; x++) {
+			slab(inRA, center, x, span, window, true);
+		}
+		outRA.get().setReal(window.median());
+		for (long x = min + 1; x <= max; x++) {
+			slab(inRA, center, x - span - 1, span, window, false);
+			slab(inRA, center, x + span, span, window, true);
+			outRA.fwd(0);
+			outRA.get().setReal(window.median());
+		}
+
+		// NB: Empty the window for the next line.
+		for (long x = max - span; x <= max + span; x++) {
+			slab(inRA, center, x, span, window, false);
+		}
+	}
+
+	/**
+	 * Adds the samples of the window at the given position of the first
+	 * dimension to, or removes them from, the window.
+	 */
+	private static <T extends RealType<T>> void slab(final RandomAccess<T> ra,
+		final long[] center, final long x, final int span, final Window<T> window,
+		final boolean add)
+	{
+		final int n = center.length;
+		ra.setPosition(x, 0);
+		for (int d = 1; d < n; d++) {
+			ra.setPosition(center[d] - span, d);
+		}
+		final int[] offset = new int[n];
+		while (true) {
+			if (add) window.add(ra.get());
+			else window.remove(ra.get());
+
+			int d = 1;
+			for (; d < n; d++) {
+				if (offset[d] < 2 * span) {
+					offset[d]++;
+					ra.fwd(d);
+					break;
+				}
+				offset[d] = 0;
+				ra.move(-2 * span, d);
+			}
+			if (d == n) break;
+		}
+	}
+
+	// -- Helper classes --
+
+	/** The samples of the window, as a multiset supporting median queries. */
+	private interface Window<T> {
+
+		void add(T t);
+
+		void remove(T t);
+
+		double median();
+	}
+
+	/** Window of integer samples, kept as histogram of their values. */
+	private static class HistogramWindow<T extends RealType<T>> implements
+		Window<T>
+	{
+
+		private final long offset;
+
+		private final int[] bins;
+
+		/** Sums of 256 consecutive bins each, to skip empty stretches. */
+		private final int[] coarse;
+
+		private int count;
+
+		/** Bin of the median of the last query. */
+		private int med;
+
+		/** Number of samples in the bins below {@link #med}. */
+		private int below;
+
+		public HistogramWindow(final long offset, final int numBins) {
+			this.offset = offset;
+			bins = new int[numBins];
+			coarse = new int[(numBins + 255) >> 8];
+		}
+
+		@Override
+		public void add(final T t) {
+			final int bin = (int) ((long) t.getRealDouble() - offset);
+			bins[bin]++;
+			coarse[bin >> 8]++;
+			count++;
+			if (bin < med) below++;
+		}
+
+		@Override
+		public void remove(final T t) {
+			final int bin = (int) ((long) t.getRealDouble() - offset);
+			bins[bin]--;
+			coarse[bin >> 8]--;
+			count--;
+			if (bin < med) below--;
+		}
+
+		@Override
+		public double median() {
+			final int rank = count / 2;
+			while (below > rank) {
+				if ((med & 0xff) == 0 && below - coarse[(med >> 8) - 1] > rank) {
+					med -= 256;
+					below -= coarse[med >> 8];
+				}
+				else {
+					med--;
+					below -= bins[med];
+				}
+			}
+			while (below + bins[med] <= rank) {
+				if ((med & 0xff) == 0 && below + coarse[med >> 8] <= rank) {
+					below += coarse[med >> 8];
+					med += 256;
+				}
+				else {
+					below += bins[med];
+					med++;
+				}
+			}
+			return med + offset;
+		}
+	}
+
+	/** Window of arbitrary real samples, kept as sorted array. */
+	private static class SortedWindow<T extends RealType<T>> implements
+		Window<T>
+	{
+
+		private final double[] values;
+
+		private int size;
+
+		public SortedWindow(final int capacity) {
+			values = new double[capacity];
+		}
+
+		@Override
+		public void add(final T t) {
+			final double value = t.getRealDouble();
+			int i = Arrays.binarySearch(values, 0, size, value);
+			if (i < 0) i = -i - 1;
+			System.arraycopy(values, i, values, i + 1, size - i);
+			values[i] = value;
+			size++;
+		}
+
+		@Override
+		public void remove(final T t) {
+			final int i = Arrays.binarySearch(values, 0, size, t.getRealDouble());
+			System.arraycopy(values, i + 1, values, i, size - i - 1);
+			size--;
+		}
+
+		@Override
+		public double median() {
+			return values[size / 2];
+		}
+	}
+
+}
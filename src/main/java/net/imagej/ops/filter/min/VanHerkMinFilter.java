@@ -0,0 +1,71 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.filter.min;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.filter.AbstractSeparableRectangleFilter;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link MinFilterOp} over a {@link RectangleShape} as separable van
+ * Herk/Gil-Werman filter: each pass splits a line into blocks of the window
+ * length and combines the running minimums within the blocks from the left
+ * and from the right, so the cost per pixel does not depend on the span.
+ */
+@Plugin(type = Ops.Filter.Min.class)
+public class VanHerkMinFilter<T extends RealType<T>, V extends RealType<V>>
+	extends AbstractSeparableRectangleFilter<T, V> implements MinFilterOp<T, V>
+{
+
+	@Override
+	protected void filterLine(final double[] in, final double[] out,
+		final double[] work, final int span)
+	{
+		final int window = 2 * span + 1;
+
+		// minimums from the start of each block
+		for (int i = 0; i < in.length; i++) {
+			work[i] = i % window == 0 ? in[i] : Math.min(work[i - 1], in[i]);
+		}
+
+		// minimums to the end of each block, combined with the above
+		double min = 0;
+		for (int i = in.length - 1; i >= 0; i--) {
+			min = i == in.length - 1 || (i + 1) % window == 0 ? in[i] : Math.min(min,
+				in[i]);
+			if (i < out.length) out[i] = Math.min(min, work[i + 2 * span]);
+		}
+	}
+
+}
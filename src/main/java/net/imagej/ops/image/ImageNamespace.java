@@ -202,6 +202,18 @@ public class ImageNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	/** Executes the "histogram" operation on the given arguments. */
+	@OpMethod(
+		op = net.imagej.ops.image.histogram.BoundedHistogramCreate.class)
+	public <T extends RealType<T>> Histogram1d<T> histogram(
+			final Iterable<T> in, final int numBins, final double min,
+			final double max) {
+		@SuppressWarnings("unchecked")
+		final Histogram1d<T> result = (Histogram1d<T>) ops().run(
+				net.imagej.ops.Ops.Image.Histogram.class, in, numBins, min, max);
+		return result;
+	}
+
 	//-- integral --
 
 	@SuppressWarnings({ "unchecked", "rawtypes" })
@@ -34,6 +34,7 @@ import net.imagej.ops.Ops;
 import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
 import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imglib2.IterableInterval;
 import net.imglib2.histogram.Histogram1d;
 import net.imglib2.histogram.Real1dBinMapper;
 import net.imglib2.type.numeric.RealType;
@@ -43,6 +44,13 @@ import org.scijava.plugin.Parameter;
 import org.scijava.plugin.Plugin;
 
 /**
+ * Creates a {@link Histogram1d} spanning the range of the input values.
+ * <p>
+ * Integer images are counted by value in a single pass, from which the range
+ * follows; other inputs are counted after a {@code stats.minMax} pass. Large
+ * images are counted in parallel.
+ * </p>
+ * 
  * @author Martin Horn (University of Konstanz)
  * @author Christian Dietz (University of Konstanz)
  */
@@ -65,14 +73,22 @@ public class HistogramCreate<T extends RealType<T>> extends
 
 	@Override
 	public Histogram1d<T> calculate(final Iterable<T> input) {
-		final Pair<T, T> res = minMaxFunc.calculate(input);
+		final long[] values = Histograms.countValues(ops(), input);
+		if (values != null) {
+			final IterableInterval<T> ii = (IterableInterval<T>) input;
+			final long typeMin = (long) ii.firstElement().getMinValue();
+			int lo = 0;
+			while (values[lo] == 0) lo++;
+			int hi = values.length - 1;
+			while (values[hi] == 0) hi--;
 
-		final Histogram1d<T> histogram1d = new Histogram1d<>(
-				new Real1dBinMapper<T>(res.getA().getRealDouble(), res.getB()
-						.getRealDouble(), numBins, false));
+			return Histograms.fromValues(ii, new Real1dBinMapper<T>(typeMin + lo,
+				typeMin + hi, numBins, false), values);
+		}
 
-		histogram1d.countData(input);
+		final Pair<T, T> res = minMaxFunc.calculate(input);
 
-		return histogram1d;
+		return Histograms.count(ops(), input, new Real1dBinMapper<T>(res.getA()
+			.getRealDouble(), res.getB().getRealDouble(), numBins, false));
 	}
 }
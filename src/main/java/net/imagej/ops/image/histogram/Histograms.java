@@ -0,0 +1,267 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.image.histogram;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.stats.ParallelStats;
+import net.imagej.ops.thread.chunker.CellAlignedChunk;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.histogram.BinMapper1d;
+import net.imglib2.histogram.DiscreteFrequencyDistribution;
+import net.imglib2.histogram.Histogram1d;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.type.numeric.RealType;
+
+/**
+ * Utility class to count {@link Histogram1d}s into primitive bins.
+ * <p>
+ * Images of at least {@link ParallelStats#MIN_SIZE} pixels are counted in
+ * parallel, one array of bins per chunk, and the arrays are summed. Images of
+ * integers of at most 16 bits are counted by value, without mapping each
+ * pixel to its bin; only the distinct values are mapped afterwards.
+ * </p>
+ */
+final class Histograms {
+
+	private Histograms() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Counts the pixels of an integer image by value, if it has at most 16 bits
+	 * and its value range is not larger than its number of pixels.
+	 *
+	 * @return the number of pixels of each value, indexed from the minimum
+	 *         value of the type, or null if the input cannot be counted by
+	 *         value.
+	 */
+	static <T extends RealType<T>> long[] countValues(final OpEnvironment ops,
+		final Iterable<T> input)
+	{
+		if (!(input instanceof IterableInterval)) return null;
+		final IterableInterval<T> ii = (IterableInterval<T>) input;
+		if (ii.size() == 0) return null;
+		final T type = ii.firstElement();
+		if (!(type instanceof IntegerType) || type.getBitsPerPixel() > 16) {
+			return null;
+		}
+		final long min = (long) type.getMinValue();
+		final long range = (long) type.getMaxValue() - min + 1;
+		if (range > ii.size()) return null;
+
+		return countBins(ops, ii, (int) range, value -> (long) value
+			.getRealDouble() - min);
+	}
+
+	/**
+	 * Creates a histogram from the number of pixels of each value, as computed
+	 * by {@link #countValues}.
+	 */
+	static <T extends RealType<T>> Histogram1d<T> fromValues(
+		final IterableInterval<T> input, final BinMapper1d<T> mapper,
+		final long[] values)
+	{
+		final T type = input.firstElement();
+		final long min = (long) type.getMinValue();
+		final long[] bins = new long[(int) mapper.getBinCount()];
+		final T value = type.createVariable();
+		long ignoredCount = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == 0) continue;
+			value.setReal(min + i);
+			final long bin = mapper.map(value);
+			if (bin >= 0 && bin < bins.length) bins[(int) bin] += values[i];
+			else ignoredCount += values[i];
+		}
+		return fromBins(input, mapper, bins, ignoredCount);
+	}
+
+	/** Counts the pixels of the given input into the bins of the mapper. */
+	static <T extends RealType<T>> Histogram1d<T> count(final OpEnvironment ops,
+		final Iterable<T> input, final BinMapper1d<T> mapper)
+	{
+		final long[] values = countValues(ops, input);
+		if (values != null) {
+			return fromValues((IterableInterval<T>) input, mapper, values);
+		}
+		if (!(input instanceof IterableInterval)) {
+			return new Histogram1d<>(input, mapper);
+		}
+
+		// NB: The last bin counts the pixels mapped outside of the histogram.
+		final int numBins = (int) mapper.getBinCount();
+		final long[] bins = countBins(ops, (IterableInterval<T>) input, numBins +
+			1, value -> {
+				final long bin = mapper.map(value);
+				return bin >= 0 && bin < numBins ? bin : numBins;
+			});
+		return fromBins(input, mapper, Arrays.copyOf(bins, numBins),
+			bins[numBins]);
+	}
+
+	// -- Helper methods --
+
+	/** Maps a pixel to the index of its bin. */
+	private interface Binning<T> {
+
+		long bin(T value);
+	}
+
+	/**
+	 * Counts the pixels into the given number of bins, in parallel for large
+	 * images. Pixels mapped outside of the bins are ignored.
+	 */
+	private static <T> long[] countBins(final OpEnvironment ops,
+		final IterableInterval<T> input, final int numBins,
+		final Binning<T> binning)
+	{
+		final long[] bins = new long[numBins];
+
+		if (ops == null || input.size() < ParallelStats.MIN_SIZE) {
+			for (final T value : input) {
+				final long bin = binning.bin(value);
+				if (bin >= 0 && bin < numBins) bins[(int) bin]++;
+			}
+			return bins;
+		}
+
+		CellAlignedChunk.run(ops, input, new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final long[] part = new long[numBins];
+				final Cursor<T> cursor = input.cursor();
+				setToStart(cursor, startIndex);
+				for (int i = 0; i < numSteps; i++) {
+					if (i > 0) cursor.jumpFwd(stepSize);
+					final long bin = binning.bin(cursor.get());
+					if (bin >= 0 && bin < numBins) part[(int) bin]++;
+				}
+				synchronized (bins) {
+					for (int i = 0; i < numBins; i++) {
+						bins[i] += part[i];
+					}
+				}
+			}
+		});
+		return bins;
+	}
+
+	/**
+	 * Creates a histogram with the given bin counts, and the given number of
+	 * pixels mapped outside of its bins.
+	 */
+	private static <T extends RealType<T>> Histogram1d<T> fromBins(
+		final Iterable<T> input, final BinMapper1d<T> mapper, final long[] bins,
+		final long ignoredCount)
+	{
+		final CountedHistogram1d<T> histogram = new CountedHistogram1d<>(mapper);
+
+		// NB: Counting the first value records it as the first data value.
+		final Iterator<T> it = input.iterator();
+		if (it.hasNext()) histogram.countData(Collections.singletonList(it
+			.next()));
+
+		histogram.setCounts(bins, ignoredCount);
+		return histogram;
+	}
+
+	// -- Helper classes --
+
+	/**
+	 * {@link Histogram1d} whose counts are set at once, including the number of
+	 * ignored values, which {@link Histogram1d} only counts one at a time.
+	 */
+	private static final class CountedHistogram1d<T> extends Histogram1d<T> {
+
+		private final BinMapper1d<T> mapper;
+
+		/** Ignored values in addition to those counted by the superclass. */
+		private long extraIgnored;
+
+		private CountedHistogram1d(final BinMapper1d<T> mapper) {
+			super(mapper);
+			this.mapper = mapper;
+		}
+
+		/** Sets the frequency of each bin and the number of ignored values. */
+		private void setCounts(final long[] bins, final long ignoredCount) {
+			final DiscreteFrequencyDistribution dfd = dfd();
+			final long[] pos = new long[1];
+			for (int i = 0; i < bins.length; i++) {
+				pos[0] = i;
+				dfd.setFrequency(pos, bins[i]);
+			}
+			extraIgnored = ignoredCount - super.ignoredCount();
+		}
+
+		@Override
+		public long ignoredCount() {
+			return super.ignoredCount() + extraIgnored;
+		}
+
+		@Override
+		public long totalCount() {
+			return distributionCount() + ignoredCount();
+		}
+
+		@Override
+		public void resetCounters() {
+			super.resetCounters();
+			extraIgnored = 0;
+		}
+
+		@Override
+		public void countData(final Iterable<T> data) {
+			extraIgnored = 0;
+			super.countData(data);
+		}
+
+		@Override
+		public Histogram1d<T> copy() {
+			final CountedHistogram1d<T> copy = new CountedHistogram1d<>(mapper
+				.copy());
+			final T first = firstDataValue();
+			if (first != null) copy.countData(Collections.singletonList(first));
+			copy.setCounts(toLongArray(), ignoredCount());
+			return copy;
+		}
+	}
+
+}
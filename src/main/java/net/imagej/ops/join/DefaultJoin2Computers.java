@@ -30,6 +30,8 @@
 
 package net.imagej.ops.join;
 
+import java.util.Arrays;
+
 import net.imagej.ops.Ops;
 import net.imagej.ops.special.UnaryOutputFactory;
 import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
@@ -40,6 +42,11 @@ import org.scijava.plugin.Plugin;
 
 /**
  * Joins two {@link UnaryComputerOp}s.
+ * <p>
+ * If both ops are element-wise maps over {@link net.imglib2.IterableInterval}s
+ * and the first element op can create its own output, the element ops are
+ * chained per pixel in a single pass, without a buffer.
+ * </p>
  *
  * @author Christian Dietz (University of Konstanz)
  */
@@ -59,6 +66,15 @@ public class DefaultJoin2Computers<A, B, C> extends
 
 	private B buffer;
 
+	// -- UnaryComputerOp methods --
+
+	@Override
+	public void compute(final A input, final C output) {
+		if (FusedMaps.compute(ops(), Arrays.asList(getFirst(), getSecond()), input,
+			output, false)) return;
+		Join2Computers.super.compute(input, output);
+	}
+
 	// -- Join2Ops methods --
 
 	@Override
@@ -43,6 +43,10 @@ import org.scijava.plugin.Plugin;
 
 /**
  * Joins a list of {@link UnaryComputerOp}s.
+ * <p>
+ * If all ops are element-wise maps over {@link net.imglib2.IterableInterval}s,
+ * their element ops are chained per pixel in a single pass, without a buffer.
+ * </p>
  * 
  * @author Christian Dietz (University of Konstanz)
  * @author Curtis Rueden
@@ -60,6 +64,14 @@ public class DefaultJoinNComputers<A> extends AbstractUnaryComputerOp<A, A>
 
 	private A buffer;
 
+	// -- UnaryComputerOp methods --
+
+	@Override
+	public void compute(final A input, final A output) {
+		if (FusedMaps.compute(ops(), getOps(), input, output, true)) return;
+		JoinNComputers.super.compute(input, output);
+	}
+
 	// -- JoinNOps methods --
 
 	@Override
@@ -0,0 +1,197 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.join;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.map.AbstractMapComputer;
+import net.imagej.ops.map.Maps;
+import net.imagej.ops.special.UnaryOutputFactory;
+import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.thread.chunker.CellAlignedChunk;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.IterableInterval;
+import net.imglib2.type.Type;
+
+/**
+ * Utility class to fuse a chain of element-wise map computers into a single
+ * pass over the pixels.
+ * <p>
+ * Joining {@code n} maps over images normally computes {@code n} full images,
+ * ping-ponging between the output and a buffer image. If all joined ops map a
+ * {@link UnaryComputerOp} over the pixels of an {@link IterableInterval}, the
+ * element ops can instead be chained per pixel, keeping the intermediate
+ * values in a few reused pixel variables. This avoids the buffer image and
+ * reads and writes each pixel only once.
+ * </p>
+ */
+final class FusedMaps {
+
+	private FusedMaps() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Computes the given chain of ops in a single pass, if possible.
+	 *
+	 * @param ops The {@link OpEnvironment} used to parallelize the pass.
+	 * @param maps The chain of ops to apply, first to last.
+	 * @param input The input of the first op.
+	 * @param output The output of the last op.
+	 * @param sameType Whether all intermediate pixels have the type of the
+	 *          output pixels, such that they can be created as variables of
+	 *          the output pixel type.
+	 * @return true if the chain was computed, false if it cannot be fused and
+	 *         nothing was done.
+	 */
+	static boolean compute(final OpEnvironment ops,
+		final List<? extends UnaryComputerOp<?, ?>> maps, final Object input,
+		final Object output, final boolean sameType)
+	{
+		if (maps.size() < 2) return false;
+		if (!(input instanceof IterableInterval) ||
+			!(output instanceof IterableInterval)) return false;
+
+		@SuppressWarnings("unchecked")
+		final IterableInterval<Object> in = (IterableInterval<Object>) input;
+		@SuppressWarnings("unchecked")
+		final IterableInterval<Object> out = (IterableInterval<Object>) output;
+		if (in.size() == 0 || !Maps.compatible(in, out)) return false;
+
+		final List<UnaryComputerOp<Object, Object>> elementOps =
+			elementOps(maps);
+		if (elementOps == null) return false;
+
+		final Object inSample = in.firstElement();
+		final Object outSample = out.firstElement();
+		if (createTemps(elementOps, inSample, outSample, sameType) == null) {
+			return false;
+		}
+
+		CellAlignedChunk.run(ops, in, new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final List<UnaryComputerOp<Object, Object>> chunkOps =
+					new ArrayList<>(elementOps.size());
+				for (final UnaryComputerOp<Object, Object> op : elementOps) {
+					chunkOps.add(op.getIndependentInstance());
+				}
+				final UnaryComputerOp<Object, Object> fused = new ChainedOp(chunkOps,
+					createTemps(chunkOps, inSample, outSample, sameType));
+				Maps.map(in, out, fused, startIndex, stepSize, numSteps);
+			}
+		});
+		return true;
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Gets the element ops of the given maps, or null if any of them is not an
+	 * element-wise map computer.
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<UnaryComputerOp<Object, Object>> elementOps(
+		final List<? extends UnaryComputerOp<?, ?>> maps)
+	{
+		final List<UnaryComputerOp<Object, Object>> elementOps =
+			new ArrayList<>(maps.size());
+		for (final UnaryComputerOp<?, ?> map : maps) {
+			if (!(map instanceof AbstractMapComputer)) return null;
+			final UnaryComputerOp<?, ?> op = ((AbstractMapComputer<?, ?, ?, ?>) map)
+				.getOp();
+			if (op == null) return null;
+			elementOps.add((UnaryComputerOp<Object, Object>) op);
+		}
+		return elementOps;
+	}
+
+	/**
+	 * Creates the variables holding the intermediate pixel values, one per op
+	 * but the last, or null if their type cannot be determined.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Object[] createTemps(
+		final List<UnaryComputerOp<Object, Object>> elementOps,
+		final Object inSample, final Object outSample, final boolean sameType)
+	{
+		final Object[] temps = new Object[elementOps.size() - 1];
+		Object previous = inSample;
+		for (int i = 0; i < temps.length; i++) {
+			final UnaryComputerOp<Object, Object> op = elementOps.get(i);
+			if (op instanceof UnaryOutputFactory) {
+				temps[i] = ((UnaryOutputFactory<Object, Object>) op).createOutput(
+					previous);
+			}
+			else if (sameType && outSample instanceof Type) {
+				temps[i] = ((Type<?>) outSample).createVariable();
+			}
+			else return null;
+			previous = temps[i];
+		}
+		return temps;
+	}
+
+	// -- Helper classes --
+
+	/** Applies a chain of element ops to a single pixel. */
+	private static class ChainedOp extends
+		AbstractUnaryComputerOp<Object, Object>
+	{
+
+		private final List<UnaryComputerOp<Object, Object>> ops;
+		private final Object[] temps;
+
+		public ChainedOp(final List<UnaryComputerOp<Object, Object>> ops,
+			final Object[] temps)
+		{
+			this.ops = ops;
+			this.temps = temps;
+		}
+
+		@Override
+		public void compute(final Object input, final Object output) {
+			Object previous = input;
+			for (int i = 0; i < temps.length; i++) {
+				ops.get(i).compute(previous, temps[i]);
+				previous = temps[i];
+			}
+			ops.get(temps.length).compute(previous, output);
+		}
+	}
+
+}
@@ -34,7 +34,7 @@ import net.imagej.ops.Contingent;
 import net.imagej.ops.Ops;
 import net.imagej.ops.Parallel;
 import net.imagej.ops.special.inplace.BinaryInplace1Op;
-import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imagej.ops.thread.chunker.CellAlignedChunk;
 import net.imagej.ops.thread.chunker.CursorBasedChunk;
 import net.imglib2.IterableInterval;
 
@@ -62,7 +62,7 @@ public class MapIIAndIIInplaceParallel<EA> extends
 	public void mutate1(final IterableInterval<EA> arg,
 		final IterableInterval<EA> in)
 	{
-		ops().run(ChunkerOp.class, new CursorBasedChunk() {
+		CellAlignedChunk.run(ops(), arg, new CursorBasedChunk() {
 
 			@Override
 			public void execute(final int startIndex, final int stepSize,
@@ -71,14 +71,14 @@ public class MapIIAndIIInplaceParallel<EA> extends
 				Maps.inplace(arg, in, (BinaryInplace1Op<EA, EA, EA>) getOp(),
 					startIndex, stepSize, numSteps);
 			}
-		}, arg.size());
+		});
 	}
 
 	@Override
 	public void mutate2(final IterableInterval<EA> in,
 		final IterableInterval<EA> arg)
 	{
-		ops().run(ChunkerOp.class, new CursorBasedChunk() {
+		CellAlignedChunk.run(ops(), in, new CursorBasedChunk() {
 
 			@Override
 			public void execute(final int startIndex, final int stepSize,
@@ -86,6 +86,6 @@ public class MapIIAndIIInplaceParallel<EA> extends
 			{
 				Maps.inplace(in, arg, getOp(), startIndex, stepSize, numSteps);
 			}
-		}, in.size());
+		});
 	}
 }
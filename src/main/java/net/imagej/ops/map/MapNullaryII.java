@@ -31,7 +31,7 @@
 package net.imagej.ops.map;
 
 import net.imagej.ops.Ops;
-import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imagej.ops.thread.chunker.CellAlignedChunk;
 import net.imagej.ops.thread.chunker.CursorBasedChunk;
 import net.imglib2.IterableInterval;
 
@@ -52,7 +52,7 @@ public class MapNullaryII<O> extends
 
 	@Override
 	public void compute(IterableInterval<O> output) {
-		ops().run(ChunkerOp.class, new CursorBasedChunk() {
+		CellAlignedChunk.run(ops(), output, new CursorBasedChunk() {
 
 			@Override
 			public void execute(final int startIndex, final int stepSize,
@@ -60,7 +60,7 @@ public class MapNullaryII<O> extends
 			{
 				Maps.map(output, getOp(), startIndex, stepSize, numSteps);
 			}
-		}, output.size());
+		});
 	}
 
 }
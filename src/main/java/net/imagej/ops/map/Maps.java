@@ -37,10 +37,12 @@ import net.imagej.ops.special.inplace.BinaryInplace1Op;
 import net.imagej.ops.special.inplace.BinaryInplaceOp;
 import net.imagej.ops.special.inplace.UnaryInplaceOp;
 import net.imglib2.Cursor;
+import net.imglib2.FlatIterationOrder;
 import net.imglib2.IterableInterval;
 import net.imglib2.RandomAccess;
 import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.util.Intervals;
+import net.imglib2.view.Views;
 
 /**
  * Utility class for {@link MapOp}s.
@@ -139,7 +141,7 @@ public class Maps {
 		final Cursor<O> aCursor = a.cursor();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			aCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(aCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			op.compute(aCursor.get());
 		}
 	}
@@ -293,8 +295,8 @@ public class Maps {
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
 			final int m = ctr == 0 ? startIndex + 1 : stepSize;
-			aCursor.jumpFwd(m);
-			bCursor.jumpFwd(m);
+			jumpFwd(aCursor, m);
+			jumpFwd(bCursor, m);
 			op.compute(aCursor.get(), bCursor.get());
 		}
 	}
@@ -304,11 +306,16 @@ public class Maps {
 		final int startIndex, final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<O> bFlat = flatView(a, b);
+		if (bFlat != null) {
+			map(a, bFlat, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final Cursor<I> aCursor = a.localizingCursor();
 		final RandomAccess<O> bAccess = b.randomAccess();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			aCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(aCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			bAccess.setPosition(aCursor);
 			op.compute(aCursor.get(), bAccess.get());
 		}
@@ -319,11 +326,16 @@ public class Maps {
 		final int startIndex, final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<I> aFlat = flatView(b, a);
+		if (aFlat != null) {
+			map(aFlat, b, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final RandomAccess<I> aAccess = a.randomAccess();
 		final Cursor<O> bCursor = b.localizingCursor();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			bCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(bCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			aAccess.setPosition(bCursor);
 			op.compute(aAccess.get(), bCursor.get());
 		}
@@ -343,9 +355,9 @@ public class Maps {
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
 			final int m = ctr == 0 ? startIndex + 1 : stepSize;
-			aCursor.jumpFwd(m);
-			bCursor.jumpFwd(m);
-			cCursor.jumpFwd(m);
+			jumpFwd(aCursor, m);
+			jumpFwd(bCursor, m);
+			jumpFwd(cCursor, m);
 			op.compute(aCursor.get(), bCursor.get(), cCursor.get());
 		}
 	}
@@ -356,14 +368,19 @@ public class Maps {
 		final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<O> cFlat = flatView(a, c);
+		if (cFlat != null) {
+			map(a, b, cFlat, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final Cursor<I1> aCursor = a.localizingCursor();
 		final Cursor<I2> bCursor = b.cursor();
 		final RandomAccess<O> cAccess = c.randomAccess();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
 			final int m = ctr == 0 ? startIndex + 1 : stepSize;
-			aCursor.jumpFwd(m);
-			bCursor.jumpFwd(m);
+			jumpFwd(aCursor, m);
+			jumpFwd(bCursor, m);
 			cAccess.setPosition(aCursor);
 			op.compute(aCursor.get(), bCursor.get(), cAccess.get());
 		}
@@ -375,14 +392,19 @@ public class Maps {
 		final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<I2> bFlat = flatView(a, b);
+		if (bFlat != null) {
+			map(a, bFlat, c, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final Cursor<I1> aCursor = a.localizingCursor();
 		final RandomAccess<I2> bAccess = b.randomAccess();
 		final Cursor<O> cCursor = c.cursor();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
 			final int m = ctr == 0 ? startIndex + 1 : stepSize;
-			aCursor.jumpFwd(m);
-			cCursor.jumpFwd(m);
+			jumpFwd(aCursor, m);
+			jumpFwd(cCursor, m);
 			bAccess.setPosition(aCursor);
 			op.compute(aCursor.get(), bAccess.get(), cCursor.get());
 		}
@@ -394,14 +416,19 @@ public class Maps {
 		final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<I1> aFlat = flatView(b, a);
+		if (aFlat != null) {
+			map(aFlat, b, c, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final RandomAccess<I1> aAccess = a.randomAccess();
 		final Cursor<I2> bCursor = b.localizingCursor();
 		final Cursor<O> cCursor = c.cursor();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
 			final int m = ctr == 0 ? startIndex + 1 : stepSize;
-			bCursor.jumpFwd(m);
-			cCursor.jumpFwd(m);
+			jumpFwd(bCursor, m);
+			jumpFwd(cCursor, m);
 			aAccess.setPosition(bCursor);
 			op.compute(aAccess.get(), bCursor.get(), cCursor.get());
 		}
@@ -413,12 +440,17 @@ public class Maps {
 		final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<I2> bFlat = flatView(a, b);
+		if (bFlat != null) {
+			map(a, bFlat, flatView(a, c), op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final Cursor<I1> aCursor = a.localizingCursor();
 		final RandomAccess<I2> bAccess = b.randomAccess();
 		final RandomAccess<O> cAccess = c.randomAccess();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			aCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(aCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			bAccess.setPosition(aCursor);
 			cAccess.setPosition(aCursor);
 			op.compute(aCursor.get(), bAccess.get(), cAccess.get());
@@ -431,12 +463,17 @@ public class Maps {
 		final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<I1> aFlat = flatView(b, a);
+		if (aFlat != null) {
+			map(aFlat, b, flatView(b, c), op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final RandomAccess<I1> aAccess = a.randomAccess();
 		final Cursor<I2> bCursor = b.localizingCursor();
 		final RandomAccess<O> cAccess = c.randomAccess();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			bCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(bCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			aAccess.setPosition(bCursor);
 			cAccess.setPosition(bCursor);
 			op.compute(aAccess.get(), bCursor.get(), cAccess.get());
@@ -449,12 +486,17 @@ public class Maps {
 		final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<I1> aFlat = flatView(c, a);
+		if (aFlat != null) {
+			map(aFlat, flatView(c, b), c, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final RandomAccess<I1> aAccess = a.randomAccess();
 		final RandomAccess<I2> bAccess = b.randomAccess();
 		final Cursor<O> cCursor = c.localizingCursor();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			cCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(cCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			aAccess.setPosition(cCursor);
 			bAccess.setPosition(cCursor);
 			op.compute(aAccess.get(), bAccess.get(), cCursor.get());
@@ -478,7 +520,7 @@ public class Maps {
 		final Cursor<O> argCursor = arg.cursor();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			argCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(argCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			op.mutate(argCursor.get());
 		}
 	}
@@ -531,8 +573,8 @@ public class Maps {
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
 			final int m = ctr == 0 ? startIndex + 1 : stepSize;
-			argCursor.jumpFwd(m);
-			inCursor.jumpFwd(m);
+			jumpFwd(argCursor, m);
+			jumpFwd(inCursor, m);
 			op.mutate1(argCursor.get(), inCursor.get());
 		}
 	}
@@ -542,11 +584,16 @@ public class Maps {
 		final int startIndex, final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<I> inFlat = flatView(arg, in);
+		if (inFlat != null) {
+			inplace(arg, inFlat, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final Cursor<A> argCursor = arg.localizingCursor();
 		final RandomAccess<I> inAccess = in.randomAccess();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			argCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(argCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			inAccess.setPosition(argCursor);
 			op.mutate1(argCursor.get(), inAccess.get());
 		}
@@ -557,11 +604,16 @@ public class Maps {
 		final int startIndex, final int stepSize, final int numSteps)
 	{
 		if (numSteps <= 0) return;
+		final IterableInterval<A> argFlat = flatView(in, arg);
+		if (argFlat != null) {
+			inplace(argFlat, in, op, startIndex, stepSize, numSteps);
+			return;
+		}
 		final RandomAccess<A> argAccess = arg.randomAccess();
 		final Cursor<I> inCursor = in.localizingCursor();
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
-			inCursor.jumpFwd(ctr == 0 ? startIndex + 1 : stepSize);
+			jumpFwd(inCursor, ctr == 0 ? startIndex + 1 : stepSize);
 			argAccess.setPosition(inCursor);
 			op.mutate1(argAccess.get(), inCursor.get());
 		}
@@ -587,9 +639,35 @@ public class Maps {
 
 		for (int ctr = 0; ctr < numSteps; ctr++) {
 			final int m = ctr == 0 ? startIndex + 1 : stepSize;
-			argCursor.jumpFwd(m);
-			inCursor.jumpFwd(m);
+			jumpFwd(argCursor, m);
+			jumpFwd(inCursor, m);
 			op.mutate2(argCursor.get(), inCursor.get());
 		}
 	}
+
+	// -- Helper methods --
+
+	/**
+	 * Advances the cursor of a chunk by the given number of elements. For
+	 * contiguous chunks (i.e. a step size of one), this is a plain
+	 * {@link Cursor#fwd()}, which is much cheaper than
+	 * {@link Cursor#jumpFwd(long)} for most cursors.
+	 */
+	private static void jumpFwd(final Cursor<?> cursor, final int steps) {
+		if (steps == 1) cursor.fwd();
+		else cursor.jumpFwd(steps);
+	}
+
+	/**
+	 * Gets a view of {@code b}, restricted to the interval of {@code a}, which
+	 * iterates in the same order as {@code a}, or null if {@code a} does not
+	 * iterate in flat order. If so, the chunks can walk both with plain cursors
+	 * instead of positioning a {@link RandomAccess} for every element.
+	 */
+	private static <T> IterableInterval<T> flatView(
+		final IterableInterval<?> a, final RandomAccessibleInterval<T> b)
+	{
+		if (!a.iterationOrder().equals(new FlatIterationOrder(a))) return null;
+		return Views.flatIterable(Views.interval(b, a));
+	}
 }
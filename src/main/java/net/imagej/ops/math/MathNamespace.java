@@ -36,6 +36,7 @@ import net.imagej.ops.OpMethod;
 import net.imagej.ops.Ops;
 import net.imglib2.IterableInterval;
 import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.img.Img;
 import net.imglib2.img.array.ArrayImg;
 import net.imglib2.img.basictypeaccess.array.ArrayDataAccess;
 import net.imglib2.img.basictypeaccess.array.ByteArray;
@@ -1280,6 +1281,16 @@ public class MathNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(op = net.imagej.ops.math.multiply.ComplexMultiplyArrays.class)
+	public <C extends ComplexType<C>> Img<C> multiply(final Img<C> out,
+		final Img<C> in1, final Img<C> in2)
+	{
+		@SuppressWarnings("unchecked")
+		final Img<C> result = (Img<C>) ops().run(
+			net.imagej.ops.Ops.Math.Multiply.class, out, in1, in2);
+		return result;
+	}
+
 	@OpMethod(op = net.imagej.ops.math.PrimitiveMath.IntegerMultiply.class)
 	public int multiply(final int a, final int b) {
 		final int result = (Integer) ops().run(
@@ -2161,6 +2172,17 @@ public class MathNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.math.multiply.ComplexConjugateMultiplyArrays.class)
+	public <C extends ComplexType<C>> Img<C> complexConjugateMultiply(
+		final Img<C> out, final Img<C> in1, final Img<C> in2)
+	{
+		@SuppressWarnings("unchecked")
+		final Img<C> result = (Img<C>) ops().run(
+			net.imagej.ops.Ops.Math.ComplexConjugateMultiply.class, out, in1, in2);
+		return result;
+	}
+
 	@OpMethod(op = net.imagej.ops.math.multiply.ComplexConjugateMultiplyOp.class)
 	public <C extends ComplexType<C>> C complexConjugateMultiply(final C in1,
 		final C in2, final C out)
@@ -0,0 +1,252 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.math;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.thread.chunker.Chunk;
+import net.imagej.ops.thread.chunker.ChunkerOp;
+import net.imglib2.IterableInterval;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.basictypeaccess.array.DoubleArray;
+import net.imglib2.img.basictypeaccess.array.FloatArray;
+import net.imglib2.img.cell.AbstractCellImg;
+import net.imglib2.img.cell.Cell;
+import net.imglib2.img.cell.CellGrid;
+import net.imglib2.type.numeric.complex.ComplexDoubleType;
+import net.imglib2.type.numeric.complex.ComplexFloatType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.util.Intervals;
+
+/**
+ * The primitive storage arrays of an {@link ArrayImg} or a cell image of
+ * {@link FloatType}, {@link DoubleType}, {@link ComplexFloatType} or
+ * {@link ComplexDoubleType}, in iteration order, for ops which work directly
+ * on the storage instead of going through cursors and type objects.
+ * <p>
+ * Complex values are stored interleaved, real part first, so pixel {@code i}
+ * of an array occupies the elements {@code 2 * i} and {@code 2 * i + 1}.
+ * </p>
+ */
+public final class StorageArrays {
+
+	/** Processes a range of pixels of one storage array. */
+	public interface Segment {
+
+		/**
+		 * @param array index of the storage array
+		 * @param from index of the first pixel within the array
+		 * @param to index after the last pixel within the array
+		 */
+		void process(int array, int from, int to);
+	}
+
+	private final Object[] arrays;
+	private final boolean isDouble;
+	private final int entities;
+	private final long[] dims;
+
+	/** Dimensions of the first cell, or null for an {@link ArrayImg}. */
+	private final int[] cellDims;
+
+	private StorageArrays(final Object[] arrays, final boolean isDouble,
+		final int entities, final long[] dims, final int[] cellDims)
+	{
+		this.arrays = arrays;
+		this.isDouble = isDouble;
+		this.entities = entities;
+		this.dims = dims;
+		this.cellDims = cellDims;
+	}
+
+	/**
+	 * Gets the storage arrays of the given image.
+	 *
+	 * @return The storage arrays, or null if the image is not an
+	 *         {@link ArrayImg} or cell image of a supported type, backed by plain
+	 *         {@link FloatArray}s or {@link DoubleArray}s.
+	 */
+	public static StorageArrays of(final Object image) {
+		if (!(image instanceof ArrayImg) && !(image instanceof AbstractCellImg)) {
+			return null;
+		}
+		final IterableInterval<?> ii = (IterableInterval<?>) image;
+		if (ii.size() == 0) return null;
+
+		final Object type = ii.firstElement();
+		final boolean isDouble;
+		final int entities;
+		if (type instanceof ComplexFloatType || type instanceof FloatType) {
+			isDouble = false;
+		}
+		else if (type instanceof ComplexDoubleType || type instanceof DoubleType) {
+			isDouble = true;
+		}
+		else return null;
+		entities = type instanceof FloatType || type instanceof DoubleType ? 1 : 2;
+
+		final long[] dims = Intervals.dimensionsAsLongArray(ii);
+		if (image instanceof ArrayImg) {
+			final Object array = storage(((ArrayImg<?, ?>) image).update(null),
+				isDouble);
+			if (array == null) return null;
+			return new StorageArrays(new Object[] { array }, isDouble, entities,
+				dims, null);
+		}
+
+		final AbstractCellImg<?, ?, ?, ?> img = (AbstractCellImg<?, ?, ?, ?>) image;
+		final List<Object> arrays = new ArrayList<>();
+		for (final Object cell : img.getCells()) {
+			final Object array = storage(((Cell<?>) cell).getData(), isDouble);
+			if (array == null) return null;
+			arrays.add(array);
+		}
+		final CellGrid grid = img.getCellGrid();
+		final int n = grid.numDimensions();
+		final int[] cellDims = new int[n];
+		grid.getCellDimensions(new long[n], new long[n], cellDims);
+		return new StorageArrays(arrays.toArray(), isDouble, entities, dims,
+			cellDims);
+	}
+
+	/**
+	 * Checks that all given images are complex images with storage arrays of
+	 * the same precision and layout, so that pixel {@code i} of array {@code a}
+	 * denotes the same position in all of them.
+	 */
+	public static boolean complexAligned(final Object... images) {
+		StorageArrays first = null;
+		for (final Object image : images) {
+			final StorageArrays s = of(image);
+			if (s == null || !s.isComplex()) return false;
+			if (first == null) first = s;
+			else if (!first.hasLayoutOf(s)) return false;
+		}
+		return first != null;
+	}
+
+	// -- StorageArrays methods --
+
+	/** Whether the arrays are {@code double[]}s rather than {@code float[]}s. */
+	public boolean isDouble() {
+		return isDouble;
+	}
+
+	/** Whether the pixels are complex values. */
+	public boolean isComplex() {
+		return entities == 2;
+	}
+
+	/**
+	 * Checks whether the given arrays have the same precision, number of
+	 * entities per pixel and layout as these.
+	 */
+	public boolean hasLayoutOf(final StorageArrays other) {
+		return isDouble == other.isDouble && entities == other.entities && //
+			arrays.length == other.arrays.length && //
+			Arrays.equals(dims, other.dims) && Arrays.equals(cellDims,
+				other.cellDims);
+	}
+
+	/** Gets the number of storage arrays. */
+	public int numArrays() {
+		return arrays.length;
+	}
+
+	/** Gets the number of pixels in the given storage array. */
+	public int size(final int array) {
+		return (isDouble ? ((double[]) arrays[array]).length
+			: ((float[]) arrays[array]).length) / entities;
+	}
+
+	/** Gets the given storage array of a float image. */
+	public float[] floats(final int array) {
+		return (float[]) arrays[array];
+	}
+
+	/** Gets the given storage array of a double image. */
+	public double[] doubles(final int array) {
+		return (double[]) arrays[array];
+	}
+
+	/**
+	 * Processes all pixels in parallel using a {@link ChunkerOp}. The cells of a
+	 * cell image are distributed among the threads; the single array of an
+	 * {@link ArrayImg} is split into ranges.
+	 */
+	public void run(final OpEnvironment ops, final Segment segment) {
+		if (arrays.length == 1) {
+			ops.run(ChunkerOp.class, new Chunk() {
+
+				@Override
+				public void execute(final int startIndex, final int stepSize,
+					final int numSteps)
+				{
+					if (stepSize == 1) {
+						segment.process(0, startIndex, startIndex + numSteps);
+						return;
+					}
+					for (int i = startIndex, j = 0; j < numSteps; i += stepSize, j++) {
+						segment.process(0, i, i + 1);
+					}
+				}
+			}, (long) size(0));
+			return;
+		}
+		ops.run(ChunkerOp.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				for (int a = startIndex, j = 0; j < numSteps; a += stepSize, j++) {
+					segment.process(a, 0, size(a));
+				}
+			}
+		}, (long) arrays.length);
+	}
+
+	// -- Helper methods --
+
+	private static Object storage(final Object access, final boolean isDouble) {
+		if (isDouble) {
+			return access instanceof DoubleArray ? ((DoubleArray) access)
+				.getCurrentStorageArray() : null;
+		}
+		return access instanceof FloatArray ? ((FloatArray) access)
+			.getCurrentStorageArray() : null;
+	}
+
+}
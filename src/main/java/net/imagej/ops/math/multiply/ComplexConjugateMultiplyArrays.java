@@ -0,0 +1,112 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.math.multiply;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.math.StorageArrays;
+import net.imagej.ops.special.computer.AbstractBinaryComputerOp;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.ComplexType;
+import net.imglib2.type.numeric.complex.ComplexDoubleType;
+import net.imglib2.type.numeric.complex.ComplexFloatType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Multiplies an {@link Img} of {@link ComplexFloatType} or
+ * {@link ComplexDoubleType} by the complex conjugate of another one, directly
+ * on their interleaved storage arrays, e.g. to correlate two spectra in the
+ * frequency domain. The output may be one of the inputs. It ranks just above
+ * {@link ComplexConjugateMultiplyMap}, which it replaces for such inputs.
+ *
+ * @see StorageArrays
+ */
+@Plugin(type = Ops.Math.ComplexConjugateMultiply.class,
+	priority = Priority.LOW_PRIORITY + 1)
+public class ComplexConjugateMultiplyArrays<C extends ComplexType<C>> extends
+	AbstractBinaryComputerOp<Img<C>, Img<C>, Img<C>> implements
+	Ops.Math.ComplexConjugateMultiply, Contingent, Parallel
+{
+
+	@Override
+	public boolean conforms() {
+		return StorageArrays.complexAligned(in1(), in2(), out());
+	}
+
+	@Override
+	public void compute(final Img<C> input1, final Img<C> input2,
+		final Img<C> output)
+	{
+		final StorageArrays a = StorageArrays.of(input1);
+		final StorageArrays b = StorageArrays.of(input2);
+		final StorageArrays o = StorageArrays.of(output);
+		a.run(ops(), new StorageArrays.Segment() {
+
+			@Override
+			public void process(final int array, final int from, final int to) {
+				if (a.isDouble()) {
+					conjugateMultiply(a.doubles(array), b.doubles(array), o.doubles(array),
+						from, to);
+				}
+				else {
+					conjugateMultiply(a.floats(array), b.floats(array), o.floats(array),
+						from, to);
+				}
+			}
+		});
+	}
+
+	// -- Helper methods --
+
+	private static void conjugateMultiply(final float[] a, final float[] b,
+		final float[] o, final int from, final int to)
+	{
+		for (int i = 2 * from; i < 2 * to; i += 2) {
+			final float ar = a[i], ai = a[i + 1], br = b[i], bi = b[i + 1];
+			o[i] = br * ar + bi * ai;
+			o[i + 1] = br * ai - bi * ar;
+		}
+	}
+
+	private static void conjugateMultiply(final double[] a, final double[] b,
+		final double[] o, final int from, final int to)
+	{
+		for (int i = 2 * from; i < 2 * to; i += 2) {
+			final double ar = a[i], ai = a[i + 1], br = b[i], bi = b[i + 1];
+			o[i] = br * ar + bi * ai;
+			o[i + 1] = br * ai - bi * ar;
+		}
+	}
+
+}
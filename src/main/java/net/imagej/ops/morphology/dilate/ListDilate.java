@@ -30,6 +30,7 @@
 
 package net.imagej.ops.morphology.dilate;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.imagej.ops.Contingent;
@@ -76,7 +77,8 @@ public class ListDilate<T extends RealType<T>> extends
 	private T minVal;
 	private UnaryFunctionOp<Interval, Img<T>> imgCreator;
 	private UnaryComputerOp<IterableInterval<T>, IterableInterval<T>> copyImg;
-	private BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>> dilateComputer;
+	private List<Shape> shapes;
+	private List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>> dilateComputers;
 
 	@Override
 	public boolean conforms() {
@@ -97,9 +99,7 @@ public class ListDilate<T extends RealType<T>> extends
 			Ops.Copy.IterableInterval.class, IterableInterval.class, Views.iterable(
 				in1()));
 
-		dilateComputer = (BinaryComputerOp) Computers.unary(ops(),
-			Ops.Morphology.Dilate.class, IterableInterval.class, in1(), in2().get(0),
-			false);
+		dilateComputers(in1(), in2());
 	}
 
 	@Override
@@ -123,7 +123,9 @@ public class ListDilate<T extends RealType<T>> extends
 		Img<T> downstream = imgCreator.calculate(interval);
 		Img<T> tmp;
 
-		dilateComputer.compute(in1, in2.get(0), Views.translate(downstream,
+		final List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>> computers =
+			dilateComputers(in1, in2);
+		computers.get(0).compute(in1, in2.get(0), Views.translate(downstream,
 			minSize[0]));
 		for (int i = 1; i < in2.size(); i++) {
 			// Ping-ponging intermediate results between upstream and downstream to
@@ -131,10 +133,38 @@ public class ListDilate<T extends RealType<T>> extends
 			tmp = downstream;
 			downstream = upstream;
 			upstream = tmp;
-			dilateComputer.compute(upstream, in2.get(i), downstream);
+			computers.get(i).compute(upstream, in2.get(i), downstream);
 		}
 		if (isFull) copyImg.compute(downstream, out);
 		else copyImg.compute(Views.interval(Views.translate(downstream,
 			minSize[0]), out), out);
 	}
+
+	/**
+	 * Gets the dilation for each shape of the list, as the best dilation
+	 * depends on the shape. The computers are matched once and reused as long
+	 * as the shapes stay the same.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>>
+		dilateComputers(final RandomAccessibleInterval<T> in1, final List<Shape> in2)
+	{
+		if (in2.equals(shapes)) return dilateComputers;
+
+		// NB: All shapes but the first are applied to intermediate results.
+		final Interval interval = new FinalInterval(Morphologies.computeMinSize(
+			in1, in2)[1]);
+		final RandomAccessibleInterval<T> intermediate = Views.interval(Views
+			.extendValue(in1, minVal), interval);
+		final List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>> computers =
+			new ArrayList<>(in2.size());
+		for (int i = 0; i < in2.size(); i++) {
+			computers.add((BinaryComputerOp) Computers.unary(ops(),
+				Ops.Morphology.Dilate.class, IterableInterval.class, i == 0 ? in1
+					: intermediate, in2.get(i), false));
+		}
+		shapes = new ArrayList<>(in2);
+		dilateComputers = computers;
+		return computers;
+	}
 }
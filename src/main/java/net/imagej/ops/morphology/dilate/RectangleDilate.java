@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.morphology.dilate;
+
+import java.util.Arrays;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Ops;
+import net.imagej.ops.filter.AbstractRectangleFilter;
+import net.imagej.ops.filter.AbstractSeparableRectangleFilter;
+import net.imagej.ops.filter.max.VanHerkMaxFilter;
+import net.imagej.ops.special.chain.RAIs;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imagej.ops.special.hybrid.AbstractBinaryHybridCF;
+import net.imglib2.Dimensions;
+import net.imglib2.FinalInterval;
+import net.imglib2.IterableInterval;
+import net.imglib2.RandomAccessible;
+import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.morphology.MorphologyUtils;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.algorithm.neighborhood.Shape;
+import net.imglib2.img.Img;
+import net.imglib2.outofbounds.OutOfBoundsConstantValueFactory;
+import net.imglib2.outofbounds.OutOfBoundsFactory;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Intervals;
+import net.imglib2.util.Util;
+import net.imglib2.view.Views;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Computes the dilation of a {@link RandomAccessibleInterval} using a
+ * {@link RectangleShape}, with the separable {@link VanHerkMaxFilter}, so the
+ * cost per pixel does not depend on the size of the rectangle. Same as
+ * {@link DefaultDilate} otherwise.
+ *
+ * @param <T> element type
+ * @see net.imglib2.algorithm.morphology.Dilation
+ */
+@Plugin(type = Ops.Morphology.Dilate.class, priority = Priority.HIGH_PRIORITY)
+public class RectangleDilate<T extends RealType<T>> extends
+	AbstractBinaryHybridCF<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>
+	implements Ops.Morphology.Dilate, Contingent
+{
+
+	@Parameter(required = false)
+	private boolean isFull;
+
+	@Parameter(required = false)
+	private OutOfBoundsFactory<T, RandomAccessibleInterval<T>> f;
+
+	private T minVal;
+	private VanHerkMaxFilter<T, T> maxFilter;
+	private UnaryFunctionOp<Dimensions, Img<T>> imgCreator;
+
+	@Override
+	public boolean conforms() {
+		if (!AbstractRectangleFilter.isFullRectangle(in2(), in1())) return false;
+		final long[] dims = isFull ? MorphologyUtils
+			.computeTargetImageDimensionsAndOffset(in1(), in2())[0] : Intervals
+				.dimensionsAsLongArray(in1());
+		if (out() != null) {
+			if (!(out() instanceof RandomAccessibleInterval)) return false;
+			if (!Arrays.equals(Intervals.dimensionsAsLongArray(out()), dims)) {
+				return false;
+			}
+		}
+		return AbstractSeparableRectangleFilter.fitsBuffers(new FinalInterval(
+			dims), ((RectangleShape) in2()).getSpan());
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Override
+	public void initialize() {
+		minVal = Util.getTypeFromInterval(in1()).createVariable();
+		minVal.setReal(minVal.getMinValue());
+
+		if (f == null) {
+			f = new OutOfBoundsConstantValueFactory<>(minVal);
+		}
+
+		imgCreator = (UnaryFunctionOp) Functions.unary(ops(), Ops.Create.Img.class,
+			Img.class, in1(), minVal.createVariable());
+
+		maxFilter = new VanHerkMaxFilter<>();
+		maxFilter.setEnvironment(ops());
+	}
+
+	@Override
+	public IterableInterval<T> createOutput(final RandomAccessibleInterval<T> in1,
+		final Shape in2)
+	{
+		if (isFull) {
+			final long[] dims = MorphologyUtils.computeTargetImageDimensionsAndOffset(
+				in1, in2)[0];
+			return imgCreator.calculate(new FinalInterval(dims));
+		}
+		return imgCreator.calculate(in1);
+	}
+
+	@Override
+	public void compute(final RandomAccessibleInterval<T> in1, final Shape in2,
+		final IterableInterval<T> output)
+	{
+		final RandomAccessibleInterval<T> extended = RAIs.extend(in1, f);
+		final RandomAccessible<T> shifted;
+		if (isFull) {
+			final long[] offset = MorphologyUtils
+				.computeTargetImageDimensionsAndOffset(in1, in2)[1];
+			shifted = Views.translate(extended, offset);
+		}
+		else {
+			shifted = extended;
+		}
+		@SuppressWarnings("unchecked")
+		final RandomAccessibleInterval<T> out =
+			(RandomAccessibleInterval<T>) output;
+		maxFilter.filter(shifted, output, out, ((RectangleShape) in2).getSpan());
+	}
+
+}
@@ -30,6 +30,7 @@
 
 package net.imagej.ops.morphology.erode;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import net.imagej.ops.Contingent;
@@ -76,7 +77,8 @@ public class ListErode<T extends RealType<T>> extends
 	private T maxVal;
 	private UnaryFunctionOp<Interval, Img<T>> imgCreator;
 	private UnaryComputerOp<IterableInterval<T>, IterableInterval<T>> copyImg;
-	private BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>> erodeComputer;
+	private List<Shape> shapes;
+	private List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>> erodeComputers;
 
 	@Override
 	public boolean conforms() {
@@ -97,9 +99,7 @@ public class ListErode<T extends RealType<T>> extends
 			Ops.Copy.IterableInterval.class, IterableInterval.class, Views.iterable(
 				in1()));
 
-		erodeComputer = (BinaryComputerOp) Computers.unary(ops(),
-			Ops.Morphology.Erode.class, IterableInterval.class, in1(), in2().get(0),
-			false);
+		erodeComputers(in1(), in2());
 	}
 
 	@Override
@@ -123,7 +123,9 @@ public class ListErode<T extends RealType<T>> extends
 		Img<T> downstream = imgCreator.calculate(interval);
 		Img<T> tmp;
 
-		erodeComputer.compute(in1, in2.get(0), Views.translate(downstream,
+		final List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>> computers =
+			erodeComputers(in1, in2);
+		computers.get(0).compute(in1, in2.get(0), Views.translate(downstream,
 			minSize[0]));
 		for (int i = 1; i < in2.size(); i++) {
 			// Ping-ponging intermediate results between upstream and downstream to
@@ -131,11 +133,40 @@ public class ListErode<T extends RealType<T>> extends
 			tmp = downstream;
 			downstream = upstream;
 			upstream = tmp;
-			erodeComputer.compute(Views.interval(Views.extendValue(upstream, maxVal),
-				interval), in2.get(i), downstream);
+			final RandomAccessibleInterval<T> source = Views.interval(Views
+				.extendValue(upstream, maxVal), interval);
+			computers.get(i).compute(source, in2.get(i), downstream);
 		}
 		if (isFull) copyImg.compute(downstream, out);
 		else copyImg.compute(Views.interval(Views.translate(downstream,
 			minSize[0]), out), out);
 	}
+
+	/**
+	 * Gets the erosion for each shape of the list, as the best erosion depends
+	 * on the shape. The computers are matched once and reused as long as the
+	 * shapes stay the same.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>>
+		erodeComputers(final RandomAccessibleInterval<T> in1, final List<Shape> in2)
+	{
+		if (in2.equals(shapes)) return erodeComputers;
+
+		// NB: All shapes but the first are applied to intermediate results.
+		final Interval interval = new FinalInterval(Morphologies.computeMinSize(
+			in1, in2)[1]);
+		final RandomAccessibleInterval<T> intermediate = Views.interval(Views
+			.extendValue(in1, maxVal), interval);
+		final List<BinaryComputerOp<RandomAccessibleInterval<T>, Shape, IterableInterval<T>>> computers =
+			new ArrayList<>(in2.size());
+		for (int i = 0; i < in2.size(); i++) {
+			computers.add((BinaryComputerOp) Computers.unary(ops(),
+				Ops.Morphology.Erode.class, IterableInterval.class, i == 0 ? in1
+					: intermediate, in2.get(i), false));
+		}
+		shapes = new ArrayList<>(in2);
+		erodeComputers = computers;
+		return computers;
+	}
 }
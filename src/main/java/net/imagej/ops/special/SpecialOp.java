@@ -39,6 +39,7 @@ import net.imagej.ops.Op;
 import net.imagej.ops.OpCandidate;
 import net.imagej.ops.OpEnvironment;
 import net.imagej.ops.OpRef;
+import net.imagej.ops.OpRegistry;
 import net.imagej.ops.Threadable;
 import net.imagej.ops.special.computer.BinaryComputerOp;
 import net.imagej.ops.special.computer.NullaryComputerOp;
@@ -59,8 +60,6 @@ import net.imagej.ops.special.inplace.BinaryInplace1Op;
 import net.imagej.ops.special.inplace.BinaryInplaceOp;
 import net.imagej.ops.special.inplace.UnaryInplaceOp;
 
-import org.scijava.InstantiableException;
-
 /**
  * A <em>special</em> operation is one intended to be used repeatedly from other
  * ops. Such reuse provides additional type safety and performance gains over
@@ -328,22 +327,11 @@ public interface SpecialOp extends Op, Initializable, Threadable {
 	static List<OpCandidate> filterArity(final List<OpCandidate> candidates,
 		final int arity)
 	{
-		if (arity < 0) return candidates;
-		return candidates.stream().filter(candidate -> {
-			try {
-				final Class<?> opClass = candidate.cInfo().loadClass();
-				if (!SpecialOp.class.isAssignableFrom(opClass)) return false;
-				final Object o = opClass.newInstance();
-				final SpecialOp op = (SpecialOp) o;
-				return arity == op.getArity();
-			}
-			catch (final InstantiableException | InstantiationException
-					| IllegalAccessException exc)
-			{
-				// NB: Ignore this problematic op.
-				return false;
-			}
-		}).collect(Collectors.toList());
+		if (arity < 0 || candidates.isEmpty()) return candidates;
+		// NB: All candidates stem from the same op environment.
+		final OpRegistry registry = candidates.get(0).ops().registry();
+		return candidates.stream().filter(candidate -> arity == registry.arity(
+			candidate.opInfo())).collect(Collectors.toList());
 	}
 
 	// -- Enums --
@@ -0,0 +1,78 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link Op} to approximate the n-th {@code stats.quantile} from a
+ * {@code stats.quantileSketch} of the input, in bounded memory.
+ * 
+ * @param <I> input type
+ * @param <O> output type
+ */
+@Plugin(type = Ops.Stats.ApproximateQuantile.class,
+	label = "Statistics: Approximate Quantile")
+public class DefaultApproximateQuantile<I extends RealType<I>, O extends RealType<O>>
+	extends AbstractStatsOp<Iterable<I>, O> implements
+	Ops.Stats.ApproximateQuantile
+{
+
+	@Parameter(min = "0.0", max = "1.0")
+	private double quantile;
+
+	/** Accuracy of the sketch; see {@link KllSketch#KllSketch(int)}. */
+	@Parameter(required = false, min = "8")
+	private int k = KllSketch.DEFAULT_K;
+
+	private UnaryFunctionOp<Iterable<I>, KllSketch> sketchFunc;
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	@Override
+	public void initialize() {
+		sketchFunc = (UnaryFunctionOp) Functions.unary(ops(),
+			Ops.Stats.QuantileSketch.class, KllSketch.class, in() == null
+				? Iterable.class : in(), k);
+	}
+
+	@Override
+	public void compute(final Iterable<I> input, final O output) {
+		output.setReal(sketchFunc.calculate(input).quantile(quantile));
+	}
+
+}
@@ -56,14 +56,24 @@ public class DefaultGeometricMean<I extends RealType<I>, O extends RealType<O>>
 
 	private UnaryFunctionOp<Iterable<I>, O> sumOfLogsFunc;
 
+	private UnaryFunctionOp<Iterable<I>, SummaryStatistics> summaryFunc;
+
 	@Override
 	public void initialize() {
+		summaryFunc = DefaultSummary.cachedFunction(ops(), in());
+		if (summaryFunc != null) return;
+
 		sumOfLogsFunc = RTs.function(ops(), Ops.Stats.SumOfLogs.class, in());
 		sizeFunc = RTs.function(ops(), Ops.Stats.Size.class, in());
 	}
 	
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
+		if (summaryFunc != null) {
+			output.setReal(summaryFunc.calculate(input).getGeometricMean());
+			return;
+		}
+
 		final double size = sizeFunc.calculate(input).getRealDouble();
 		final double sumOfLogs = sumOfLogsFunc.calculate(input).getRealDouble();
 
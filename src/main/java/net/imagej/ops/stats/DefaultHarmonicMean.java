@@ -56,14 +56,24 @@ public class DefaultHarmonicMean<I extends RealType<I>, O extends RealType<O>>
 
 	private UnaryFunctionOp<Iterable<I>, O> sumOfInversesFunc;
 
+	private UnaryFunctionOp<Iterable<I>, SummaryStatistics> summaryFunc;
+
 	@Override
 	public void initialize() {
+		summaryFunc = DefaultSummary.cachedFunction(ops(), in());
+		if (summaryFunc != null) return;
+
 		sumOfInversesFunc = RTs.function(ops(), Ops.Stats.SumOfInverses.class, in());
 		sizeFunc = RTs.function(ops(), Ops.Stats.Size.class, in());
 	}
 
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
+		if (summaryFunc != null) {
+			output.setReal(summaryFunc.calculate(input).getHarmonicMean());
+			return;
+		}
+
 		final double area = sizeFunc.calculate(input).getRealDouble();
 		final double sumOfInverses = sumOfInversesFunc.calculate(input).getRealDouble();
 
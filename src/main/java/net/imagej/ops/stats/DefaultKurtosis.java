@@ -56,14 +56,24 @@ public class DefaultKurtosis<I extends RealType<I>, O extends RealType<O>>
 	
 	private UnaryFunctionOp<Iterable<I>, O> moment4AboutMeanFunc;
 
+	private UnaryFunctionOp<Iterable<I>, SummaryStatistics> summaryFunc;
+
 	@Override
 	public void initialize() {
+		summaryFunc = DefaultSummary.cachedFunction(ops(), in());
+		if (summaryFunc != null) return;
+
 		stdDevFunc = RTs.function(ops(), Ops.Stats.StdDev.class, in());
 		moment4AboutMeanFunc = RTs.function(ops(), Ops.Stats.Moment4AboutMean.class, in());
 	}
 	
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
+		if (summaryFunc != null) {
+			output.setReal(summaryFunc.calculate(input).getKurtosis());
+			return;
+		}
+
 		output.setReal(Double.NaN);
 
 		final double std = stdDevFunc.calculate(input).getRealDouble();
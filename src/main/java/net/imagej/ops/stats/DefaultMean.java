@@ -58,14 +58,24 @@ public class DefaultMean<I extends RealType<I>, O extends RealType<O>> extends
 	
 	private UnaryFunctionOp<Iterable<I>, O> areaFunc;
 
+	private UnaryFunctionOp<Iterable<I>, SummaryStatistics> summaryFunc;
+
 	@Override
 	public void initialize() {
+		summaryFunc = DefaultSummary.cachedFunction(ops(), in());
+		if (summaryFunc != null) return;
+
 		sumFunc = RTs.function(ops(), Ops.Stats.Sum.class, in());
 		areaFunc = RTs.function(ops(), Ops.Stats.Size.class, in());
 	}
 
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
+		if (summaryFunc != null) {
+			output.setReal(summaryFunc.calculate(input).getMean());
+			return;
+		}
+
 		output.setReal(sumFunc.calculate(input).getRealDouble() /
 			areaFunc.calculate(input).getRealDouble());
 	}
@@ -55,14 +55,24 @@ public class DefaultMoment2AboutMean<I extends RealType<I>, O extends RealType<O
 	private UnaryFunctionOp<Iterable<I>, O> meanFunc;
 	private UnaryFunctionOp<Iterable<I>, O> sizeFunc;
 
+	private UnaryFunctionOp<Iterable<I>, SummaryStatistics> summaryFunc;
+
 	@Override
 	public void initialize() {
+		summaryFunc = DefaultSummary.cachedFunction(ops(), in());
+		if (summaryFunc != null) return;
+
 		meanFunc = RTs.function(ops(), Ops.Stats.Mean.class, in());
 		sizeFunc = RTs.function(ops(), Ops.Stats.Size.class, in());
 	}
 
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
+		if (summaryFunc != null) {
+			output.setReal(summaryFunc.calculate(input).getMoment2AboutMean());
+			return;
+		}
+
 		final double mean = meanFunc.calculate(input).getRealDouble();
 		final double size = sizeFunc.calculate(input).getRealDouble();
 
@@ -30,9 +30,8 @@
 
 package net.imagej.ops.stats;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 
 import net.imagej.ops.Op;
 import net.imagej.ops.Ops;
@@ -43,6 +42,13 @@ import org.scijava.plugin.Plugin;
 
 /**
  * {@link Op} to calculate the n-th {@code stats.percentile}.
+ * <p>
+ * The samples are copied into a primitive scratch array and the quantile is
+ * selected in place. Scratch arrays of up to {@link #MAX_RETAINED} samples,
+ * enough for the neighborhoods of filters, are kept per thread for reuse;
+ * larger inputs use a temporary array. Large integer images are handled by
+ * {@link HistogramQuantile} instead.
+ * </p>
  * 
  * @author Daniel Seebacher (University of Konstanz)
  * @author Christian Dietz (University of Konstanz)
@@ -55,27 +61,62 @@ public class DefaultQuantile<I extends RealType<I>, O extends RealType<O>>
 	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Quantile
 {
 
+	/** Maximum length of the scratch arrays kept for reuse (512 KiB). */
+	private static final int MAX_RETAINED = 1 << 16;
+
 	@Parameter(min = "0.0", max = "1.0")
 	private double quantile;
-	
+
+	/**
+	 * Scratch arrays for the samples. The op instance is shared by the threads
+	 * of parallel maps (e.g. of the median filter), so each thread needs its
+	 * own.
+	 */
+	private final ThreadLocal<double[]> scratch = new ThreadLocal<double[]>() {
+
+		@Override
+		protected double[] initialValue() {
+			return new double[0];
+		}
+	};
+
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
-		final ArrayList<Double> statistics = new ArrayList<>();
+		double[] values = scratch.get();
+		int size = 0;
 
 		final Iterator<I> it = input.iterator();
 		while (it.hasNext()) {
-			statistics.add(it.next().getRealDouble());
+			if (size == values.length) {
+				values = grow(values);
+				if (values.length <= MAX_RETAINED) scratch.set(values);
+			}
+			values[size++] = it.next().getRealDouble();
+		}
+
+		if (size == 0) {
+			output.setReal(Double.NaN);
+			return;
 		}
+		output.setReal(select(values, 0, size - 1, index(size)));
+	}
+
+	// -- Helper methods --
+
+	/** Gets the index of the quantile in the sorted samples. */
+	private int index(final int size) {
+		return (int) Math.min(size - 1, (long) (size * quantile));
+	}
 
-		output.setReal(select(statistics, 0, statistics.size() - 1, (int) (statistics
-			.size() * quantile)));
+	private static double[] grow(final double[] values) {
+		return Arrays.copyOf(values, Math.max(16, 2 * values.length));
 	}
 
 	/**
 	 * Returns the value of the kth lowest element. Do note that for nth lowest
 	 * element, k = n - 1.
 	 */
-	private double select(final ArrayList<Double> array, final int inLeft,
+	private static double select(final double[] array, final int inLeft,
 		final int inRight, final int k)
 	{
 
@@ -86,39 +127,39 @@ public class DefaultQuantile<I extends RealType<I>, O extends RealType<O>>
 
 			if (right <= left + 1) {
 
-				if (right == left + 1 && array.get(right) < array.get(left)) {
+				if (right == left + 1 && array[right] < array[left]) {
 					swap(array, left, right);
 				}
 
-				return array.get(k);
+				return array[k];
 
 			}
 			final int middle = (left + right) >>> 1;
 			swap(array, middle, left + 1);
 
-			if (array.get(left) > array.get(right)) {
+			if (array[left] > array[right]) {
 				swap(array, left, right);
 			}
 
-			if (array.get(left + 1) > array.get(right)) {
+			if (array[left + 1] > array[right]) {
 				swap(array, left + 1, right);
 			}
 
-			if (array.get(left) > array.get(left + 1)) {
+			if (array[left] > array[left + 1]) {
 				swap(array, left, left + 1);
 			}
 
 			int i = left + 1;
 			int j = right;
-			final double pivot = array.get(left + 1);
+			final double pivot = array[left + 1];
 
 			while (true) {
 				do
 					++i;
-				while (array.get(i) < pivot);
+				while (array[i] < pivot);
 				do
 					--j;
-				while (array.get(j) > pivot);
+				while (array[j] > pivot);
 
 				if (j < i) {
 					break;
@@ -127,8 +168,8 @@ public class DefaultQuantile<I extends RealType<I>, O extends RealType<O>>
 				swap(array, i, j);
 			}
 
-			array.set(left + 1, array.get(j));
-			array.set(j, pivot);
+			array[left + 1] = array[j];
+			array[j] = pivot;
 
 			if (j >= k) {
 				right = j - 1;
@@ -141,9 +182,9 @@ public class DefaultQuantile<I extends RealType<I>, O extends RealType<O>>
 	}
 
 	/** Helper method for swapping array entries */
-	private void swap(final List<Double> array, final int a, final int b) {
-		final double temp = array.get(a);
-		array.set(a, array.get(b));
-		array.set(b, temp);
+	private static void swap(final double[] array, final int a, final int b) {
+		final double temp = array[a];
+		array[a] = array[b];
+		array[b] = temp;
 	}
 }
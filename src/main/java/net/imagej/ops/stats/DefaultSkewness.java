@@ -55,14 +55,24 @@ public class DefaultSkewness<I extends RealType<I>, O extends RealType<O>>
 	private UnaryFunctionOp<Iterable<I>, O> moment3AboutMeanFunc;
 	private UnaryFunctionOp<Iterable<I>, O> stdDevFunc;
 
+	private UnaryFunctionOp<Iterable<I>, SummaryStatistics> summaryFunc;
+
 	@Override
 	public void initialize() {
+		summaryFunc = DefaultSummary.cachedFunction(ops(), in());
+		if (summaryFunc != null) return;
+
 		moment3AboutMeanFunc = RTs.function(ops(), Ops.Stats.Moment3AboutMean.class, in());
 		stdDevFunc = RTs.function(ops(), Ops.Stats.StdDev.class, in());
 	}
 	
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
+		if (summaryFunc != null) {
+			output.setReal(summaryFunc.calculate(input).getSkewness());
+			return;
+		}
+
 		final double moment3 =
 				moment3AboutMeanFunc.calculate(input).getRealDouble();
 		final double std = stdDevFunc.calculate(input).getRealDouble();
@@ -0,0 +1,80 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.Ops;
+import net.imagej.ops.cached.CachedOpEnvironment;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link Op} to calculate the {@code stats.summary}, i.e. all
+ * {@link SummaryStatistics} of the input in a single pass.
+ * 
+ * @param <I> input type
+ */
+@Plugin(type = Ops.Stats.Summary.class, label = "Statistics: Summary")
+public class DefaultSummary<I extends RealType<I>> extends
+	AbstractUnaryFunctionOp<Iterable<I>, SummaryStatistics> implements
+	Ops.Stats.Summary
+{
+
+	@Override
+	public SummaryStatistics calculate(final Iterable<I> input) {
+		final SummaryStatistics summary = new SummaryStatistics();
+		for (final I in : input) {
+			summary.add(in.getRealDouble());
+		}
+		return summary;
+	}
+
+	/**
+	 * Gets a {@code stats.summary} function if the given environment caches
+	 * results, or null otherwise. Statistics ops which depend on other
+	 * statistics use it to share a single, cached pass over their input, rather
+	 * than one pass per dependency.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	static <I> UnaryFunctionOp<Iterable<I>, SummaryStatistics> cachedFunction(
+		final OpEnvironment ops, final Iterable<I> in)
+	{
+		if (!(ops instanceof CachedOpEnvironment)) return null;
+		return (UnaryFunctionOp) Functions.unary(ops, Ops.Stats.Summary.class,
+			SummaryStatistics.class, in == null ? Iterable.class : in);
+	}
+
+}
@@ -57,13 +57,22 @@ public class DefaultVariance<I extends RealType<I>, O extends RealType<O>>
 	
 	private UnaryFunctionOp<Iterable<I>, O> meanOp;
 
+	private UnaryFunctionOp<Iterable<I>, SummaryStatistics> summaryFunc;
+
 	@Override
 	public void initialize() {
+		summaryFunc = DefaultSummary.cachedFunction(ops(), in());
+		if (summaryFunc != null) return;
+
 		meanOp = RTs.function(ops(), Ops.Stats.Mean.class, in());
 	}
 
 	@Override
 	public void compute(final Iterable<I> input, final O output) {
+		if (summaryFunc != null) {
+			output.setReal(summaryFunc.calculate(input).getVariance());
+			return;
+		}
 
 		double mean = meanOp.calculate(input).getRealDouble();
 
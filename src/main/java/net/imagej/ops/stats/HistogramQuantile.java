@@ -0,0 +1,168 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.Op;
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.thread.chunker.CellAlignedChunk;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.type.numeric.IntegerType;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * {@link Op} to calculate the n-th {@code stats.quantile} of an integer image
+ * exactly, by counting its pixel values.
+ * <p>
+ * Applies to {@link IterableInterval}s of {@link IntegerType}s of at most 16
+ * bits, whose value range is not larger than the number of pixels, such that
+ * counting the values into one bin per value is cheaper than selecting them.
+ * Large images are counted in parallel, merging one histogram per chunk.
+ * Other inputs are passed on to {@link DefaultQuantile}.
+ * </p>
+ * <p>
+ * {@link DefaultMedian} and {@link DefaultPercentile} delegate to the
+ * quantile op, so they use this op for countable images as well.
+ * </p>
+ * 
+ * @param <I> input type
+ * @param <O> output type
+ */
+@Plugin(type = Ops.Stats.Quantile.class, label = "Statistics: Quantile",
+	priority = Priority.HIGH_PRIORITY)
+public class HistogramQuantile<I extends RealType<I>, O extends RealType<O>>
+	extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Quantile,
+	Contingent, Parallel
+{
+
+	@Parameter(min = "0.0", max = "1.0")
+	private double quantile;
+
+	/** Selecting quantile op, for inputs which cannot be counted. */
+	private UnaryComputerOp<Iterable<I>, O> selection;
+
+	@Override
+	public void compute(final Iterable<I> input, final O output) {
+		// NB: The op may be reused for other inputs than it was matched for.
+		if (countable(input)) {
+			output.setReal(quantile(ops(), (IterableInterval<I>) input, quantile));
+			return;
+		}
+		if (selection == null) {
+			selection = Computers.unary(ops(), DefaultQuantile.class, output, input,
+				quantile);
+		}
+		selection.compute(input, output);
+	}
+
+	@Override
+	public boolean conforms() {
+		return countable(in());
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Checks whether the given input is an image of integers whose values are
+	 * cheaper to count than to select.
+	 */
+	private static boolean countable(final Iterable<?> in) {
+		if (!(in instanceof IterableInterval)) return false;
+		final IterableInterval<?> ii = (IterableInterval<?>) in;
+		if (ii.size() == 0) return false;
+		final Object first = ii.firstElement();
+		if (!(first instanceof IntegerType)) return false;
+		final IntegerType<?> type = (IntegerType<?>) first;
+		if (type.getBitsPerPixel() > 16) return false;
+		return type.getMaxValue() - type.getMinValue() + 1 <= ii.size();
+	}
+
+	/**
+	 * Gets the q-th quantile of a {@link #countable} image, i.e. the value of
+	 * rank {@code floor(q * n)} among the sorted values.
+	 */
+	private static <I extends RealType<I>> double quantile(final OpEnvironment ops,
+		final IterableInterval<I> input, final double q)
+	{
+		final I type = input.firstElement();
+		final long min = (long) type.getMinValue();
+		final long[] counts = new long[(int) ((long) type.getMaxValue() - min +
+			1)];
+
+		if (ops == null || input.size() < ParallelStats.MIN_SIZE) {
+			for (final I value : input) {
+				counts[(int) ((long) value.getRealDouble() - min)]++;
+			}
+		}
+		else {
+			CellAlignedChunk.run(ops, input, new CursorBasedChunk() {
+
+				@Override
+				public void execute(final int startIndex, final int stepSize,
+					final int numSteps)
+				{
+					final int[] part = new int[counts.length];
+					final Cursor<I> cursor = input.cursor();
+					setToStart(cursor, startIndex);
+					for (int i = 0; i < numSteps; i++) {
+						if (i > 0) cursor.jumpFwd(stepSize);
+						part[(int) ((long) cursor.get().getRealDouble() - min)]++;
+					}
+					synchronized (counts) {
+						for (int i = 0; i < part.length; i++) {
+							counts[i] += part[i];
+						}
+					}
+				}
+			});
+		}
+
+		final long n = input.size();
+		final long rank = Math.min(n - 1, (long) (n * q));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen > rank) return min + i;
+		}
+		throw new IllegalStateException("Fewer pixels than expected");
+	}
+
+}
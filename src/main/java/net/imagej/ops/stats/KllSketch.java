@@ -0,0 +1,246 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Approximate quantiles of a stream of values in bounded memory (KLL sketch,
+ * Karnin, Lang and Liberty 2016).
+ * <p>
+ * The values are kept in a hierarchy of compactors: level {@code h} holds
+ * values of weight {@code 2^h}. Whenever the sketch exceeds its capacity, a
+ * full level is sorted and every other value of it is promoted to the next
+ * level, starting with a randomly chosen one. The capacity of the levels
+ * shrinks geometrically from the top level, which holds {@code k} values,
+ * towards level 0, so the sketch keeps about {@code 3 k} values in total,
+ * independently of the number of values added.
+ * </p>
+ * <p>
+ * The accuracy is controlled by {@code k}: the rank of a returned quantile
+ * differs from the requested rank by an error roughly inversely proportional
+ * to {@code k}: about 1.65% of the number of values for the default of 200.
+ * Sketches of different parts of the values can be
+ * {@link #merge(KllSketch) merged}, so they can be computed in parallel, e.g.
+ * one per cell of an image.
+ * </p>
+ */
+public class KllSketch {
+
+	/** The default accuracy parameter. */
+	public static final int DEFAULT_K = 200;
+
+	/** Capacity ratio of consecutive levels. */
+	private static final double C = 2.0 / 3.0;
+
+	private final int k;
+
+	/** The values of each level; only the first {@code sizes[h]} are used. */
+	private double[][] levels = new double[1][];
+	private int[] sizes = new int[1];
+	private int[] capacities = new int[1];
+
+	/** Total number of values kept, and the capacity of all levels. */
+	private int retained;
+	private int maxRetained;
+
+	private long n;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+
+	/** Chooses the values to promote; seeded to be reproducible. */
+	private final Random random = new Random(0xC0FFEE);
+
+	public KllSketch() {
+		this(DEFAULT_K);
+	}
+
+	/**
+	 * @param k The accuracy parameter: the capacity of the top level. Larger
+	 *          values give more accurate quantiles at the cost of memory.
+	 */
+	public KllSketch(final int k) {
+		if (k < 8) throw new IllegalArgumentException("k must be at least 8: " +
+			k);
+		this.k = k;
+		updateCapacities();
+		levels[0] = new double[capacities[0]];
+	}
+
+	/** Adds a value to the sketch. */
+	public void add(final double value) {
+		if (Double.isNaN(value)) return;
+		n++;
+		if (value < min) min = value;
+		if (value > max) max = value;
+		append(0, value);
+		while (retained > maxRetained) {
+			compress();
+		}
+	}
+
+	/**
+	 * Merges another sketch into this one, as if its values had been
+	 * {@link #add(double) added} to this sketch.
+	 */
+	public void merge(final KllSketch other) {
+		if (other.n == 0) return;
+		n += other.n;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		// NB: Snapshot the sizes, since appending grows them if other == this.
+		final int[] sizes = other.sizes.clone();
+		for (int h = 0; h < sizes.length; h++) {
+			for (int i = 0; i < sizes[h]; i++) {
+				append(h, other.levels[h][i]);
+			}
+		}
+		while (retained > maxRetained) {
+			compress();
+		}
+	}
+
+	/**
+	 * Gets the approximate q-th quantile, i.e. the value of rank
+	 * {@code floor(q * n)} among the sorted values, in the convention of
+	 * {@code stats.quantile}. The quantiles 0 and 1 are the exact minimum and
+	 * maximum.
+	 *
+	 * @return the quantile, or NaN if no values were added.
+	 */
+	public double quantile(final double q) {
+		if (n == 0) return Double.NaN;
+		if (q <= 0) return min;
+		if (q >= 1) return max;
+
+		final int count = retained;
+		final double[] values = new double[count];
+		final long[] weights = new long[count];
+		final Integer[] order = new Integer[count];
+		int i = 0;
+		for (int h = 0; h < sizes.length; h++) {
+			for (int j = 0; j < sizes[h]; j++) {
+				values[i] = levels[h][j];
+				weights[i] = 1L << h;
+				order[i] = i;
+				i++;
+			}
+		}
+		Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+		final long rank = Math.min(n - 1, (long) (n * q));
+		long seen = 0;
+		for (final int index : order) {
+			seen += weights[index];
+			if (seen > rank) return values[index];
+		}
+		return max;
+	}
+
+	// -- Getters --
+
+	public int getK() {
+		return k;
+	}
+
+	/** Gets the number of values added to the sketch. */
+	public long getN() {
+		return n;
+	}
+
+	public double getMin() {
+		return min;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	/** Gets the number of values kept by the sketch. */
+	public int retained() {
+		return retained;
+	}
+
+	// -- Helper methods --
+
+	/** Computes the capacities of the levels, which shrink from the top. */
+	private void updateCapacities() {
+		capacities = new int[sizes.length];
+		maxRetained = 0;
+		for (int h = 0; h < sizes.length; h++) {
+			final int depth = sizes.length - h - 1;
+			capacities[h] = Math.max(2, (int) Math.ceil(k * Math.pow(C, depth)));
+			maxRetained += capacities[h];
+		}
+	}
+
+	private void append(final int level, final double value) {
+		while (level >= sizes.length) {
+			levels = Arrays.copyOf(levels, sizes.length + 1);
+			sizes = Arrays.copyOf(sizes, sizes.length + 1);
+			updateCapacities();
+			levels[sizes.length - 1] = new double[capacities[sizes.length - 1]];
+		}
+		if (sizes[level] == levels[level].length) {
+			levels[level] = Arrays.copyOf(levels[level], 2 * levels[level].length);
+		}
+		levels[level][sizes[level]++] = value;
+		retained++;
+	}
+
+	/** Compacts the lowest level which exceeds its capacity. */
+	private void compress() {
+		for (int h = 0; h < sizes.length; h++) {
+			if (sizes[h] >= capacities[h]) {
+				compact(h);
+				return;
+			}
+		}
+	}
+
+	private void compact(final int level) {
+		final double[] values = levels[level];
+		final int size = sizes[level];
+		Arrays.sort(values, 0, size);
+
+		// NB: With an odd size, the largest value stays at this level.
+		final int pairs = size / 2;
+		final int offset = random.nextBoolean() ? 1 : 0;
+		sizes[level] = 0;
+		retained -= size;
+		for (int i = 0; i < pairs; i++) {
+			append(level + 1, values[2 * i + offset]);
+		}
+		if (size % 2 == 1) append(level, values[size - 1]);
+	}
+
+}
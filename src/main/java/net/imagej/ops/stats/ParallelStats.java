@@ -0,0 +1,450 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import net.imagej.ops.Contingent;
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.Ops;
+import net.imagej.ops.Parallel;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imagej.ops.thread.chunker.CellAlignedChunk;
+import net.imagej.ops.thread.chunker.CursorBasedChunk;
+import net.imglib2.Cursor;
+import net.imglib2.IterableInterval;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.util.Pair;
+import net.imglib2.util.ValuePair;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Parallelized reducing statistics over large {@link IterableInterval}s.
+ * <p>
+ * The pixels are split into chunks, each chunk is reduced into its own
+ * accumulator, and the accumulators are merged in the order of the chunks, so
+ * the result does not depend on the scheduling of the threads. The ops are
+ * only used for inputs of at least {@link #MIN_SIZE} pixels; smaller inputs
+ * fall back to the sequential ops.
+ * </p>
+ */
+public final class ParallelStats {
+
+	private ParallelStats() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/** Minimum number of pixels for which the parallel ops are used. */
+	public static final long MIN_SIZE = 1 << 18;
+
+	/** Priority above the sequential {@code Iterable*} stats ops. */
+	private static final double PRIORITY = Priority.VERY_HIGH_PRIORITY + 1;
+
+	/** Sum of the pixels, compensated for rounding errors (Kahan). */
+	@Plugin(type = Ops.Stats.Sum.class, label = "Statistics: Sum",
+		priority = PRIORITY)
+	public static class Sum<I extends RealType<I>, O extends RealType<O>> extends
+		AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Sum, Contingent,
+		Parallel
+	{
+
+		@Override
+		public void compute(final Iterable<I> input, final O output) {
+			output.setReal(reduce(ops(), input, KahanSum<I>::new).get());
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** Mean of the pixels, from a compensated sum. */
+	@Plugin(type = Ops.Stats.Mean.class, label = "Statistics: Mean",
+		priority = PRIORITY)
+	public static class Mean<I extends RealType<I>, O extends RealType<O>>
+		extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Mean,
+		Contingent, Parallel
+	{
+
+		@Override
+		public void compute(final Iterable<I> input, final O output) {
+			final KahanSum<I> sum = reduce(ops(), input, KahanSum<I>::new);
+			output.setReal(sum.get() / sum.n);
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** Sample variance of the pixels (Welford, Chan). */
+	@Plugin(type = Ops.Stats.Variance.class, label = "Statistics: Variance",
+		priority = PRIORITY)
+	public static class Variance<I extends RealType<I>, O extends RealType<O>>
+		extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.Variance,
+		Contingent, Parallel
+	{
+
+		@Override
+		public void compute(final Iterable<I> input, final O output) {
+			output.setReal(reduce(ops(), input, Welford<I>::new).variance());
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** Sample standard deviation of the pixels (Welford, Chan). */
+	@Plugin(type = Ops.Stats.StdDev.class,
+		label = "Statistics: Standard Deviation", priority = PRIORITY)
+	public static class StdDev<I extends RealType<I>, O extends RealType<O>>
+		extends AbstractStatsOp<Iterable<I>, O> implements Ops.Stats.StdDev,
+		Contingent, Parallel
+	{
+
+		@Override
+		public void compute(final Iterable<I> input, final O output) {
+			output.setReal(Math.sqrt(reduce(ops(), input, Welford<I>::new)
+				.variance()));
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** Minimum of the pixels. */
+	@Plugin(type = Ops.Stats.Min.class, label = "Statistics: Min",
+		priority = PRIORITY)
+	public static class Min<T extends RealType<T>> extends
+		AbstractStatsOp<Iterable<T>, T> implements Ops.Stats.Min, Contingent,
+		Parallel
+	{
+
+		@Override
+		public void compute(final Iterable<T> input, final T output) {
+			output.set(reduce(ops(), input, Extrema<T>::new).min);
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** Maximum of the pixels. */
+	@Plugin(type = Ops.Stats.Max.class, label = "Statistics: Max",
+		priority = PRIORITY)
+	public static class Max<T extends RealType<T>> extends
+		AbstractStatsOp<Iterable<T>, T> implements Ops.Stats.Max, Contingent,
+		Parallel
+	{
+
+		@Override
+		public void compute(final Iterable<T> input, final T output) {
+			output.set(reduce(ops(), input, Extrema<T>::new).max);
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** Minimum and maximum of the pixels. */
+	@Plugin(type = Ops.Stats.MinMax.class, label = "Statistics: MinMax",
+		priority = PRIORITY)
+	public static class MinMax<I extends RealType<I>> extends
+		AbstractUnaryFunctionOp<Iterable<I>, Pair<I, I>> implements
+		Ops.Stats.MinMax, Contingent, Parallel
+	{
+
+		@Override
+		public Pair<I, I> calculate(final Iterable<I> input) {
+			final Extrema<I> extrema = reduce(ops(), input, Extrema<I>::new);
+			return new ValuePair<>(extrema.min, extrema.max);
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** All {@link SummaryStatistics} of the pixels. */
+	@Plugin(type = Ops.Stats.Summary.class, label = "Statistics: Summary",
+		priority = PRIORITY)
+	public static class Summary<I extends RealType<I>> extends
+		AbstractUnaryFunctionOp<Iterable<I>, SummaryStatistics> implements
+		Ops.Stats.Summary, Contingent, Parallel
+	{
+
+		@Override
+		public SummaryStatistics calculate(final Iterable<I> input) {
+			return reduce(ops(), input, Summarizer<I>::new).summary;
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	/** A {@link KllSketch} of the pixels, merged from one sketch per chunk. */
+	@Plugin(type = Ops.Stats.QuantileSketch.class,
+		label = "Statistics: Quantile Sketch", priority = PRIORITY)
+	public static class QuantileSketch<I extends RealType<I>> extends
+		AbstractUnaryFunctionOp<Iterable<I>, KllSketch> implements
+		Ops.Stats.QuantileSketch, Contingent, Parallel
+	{
+
+		@Parameter(required = false, min = "8")
+		private int k = KllSketch.DEFAULT_K;
+
+		@Override
+		public KllSketch calculate(final Iterable<I> input) {
+			return reduce(ops(), input, () -> new Sketcher<I>(k)).sketch;
+		}
+
+		@Override
+		public boolean conforms() {
+			return large(in());
+		}
+	}
+
+	// -- Helper methods --
+
+	private static boolean large(final Iterable<?> in) {
+		return in instanceof IterableInterval && //
+			((IterableInterval<?>) in).size() >= MIN_SIZE;
+	}
+
+	/**
+	 * Reduces the pixels of the given input chunk by chunk, and merges the
+	 * accumulators of the chunks in the order of the chunks. Inputs which are
+	 * not large {@link IterableInterval}s are reduced sequentially, since a
+	 * matched op may be reused for inputs other than the one it was matched
+	 * for.
+	 */
+	private static <I, A extends Accumulator<I, A>> A reduce(
+		final OpEnvironment ops, final Iterable<I> input,
+		final Supplier<A> factory)
+	{
+		if (!large(input)) {
+			final A result = factory.get();
+			for (final I value : input) {
+				result.add(value);
+			}
+			return result;
+		}
+
+		final IterableInterval<I> ii = (IterableInterval<I>) input;
+		final SortedMap<Integer, A> parts = Collections.synchronizedSortedMap(
+			new TreeMap<Integer, A>());
+
+		CellAlignedChunk.run(ops, ii, new CursorBasedChunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				final A part = factory.get();
+				final Cursor<I> cursor = ii.cursor();
+				setToStart(cursor, startIndex);
+				for (int i = 0; i < numSteps; i++) {
+					if (i > 0) cursor.jumpFwd(stepSize);
+					part.add(cursor.get());
+				}
+				parts.put(startIndex, part);
+			}
+		});
+
+		final A result = factory.get();
+		synchronized (parts) {
+			for (final A part : parts.values()) {
+				result.merge(part);
+			}
+		}
+		return result;
+	}
+
+	// -- Helper classes --
+
+	/** Mergeable state of a reduction. */
+	private interface Accumulator<I, A extends Accumulator<I, A>> {
+
+		void add(I value);
+
+		/** Merges the state of values following the values of this one. */
+		void merge(A other);
+	}
+
+	private static class KahanSum<I extends RealType<I>> implements
+		Accumulator<I, KahanSum<I>>
+	{
+
+		private long n;
+		private double sum;
+		private double compensation;
+
+		@Override
+		public void add(final I value) {
+			n++;
+			accumulate(value.getRealDouble());
+		}
+
+		@Override
+		public void merge(final KahanSum<I> other) {
+			n += other.n;
+			accumulate(other.sum);
+			accumulate(-other.compensation);
+		}
+
+		public double get() {
+			return sum;
+		}
+
+		private void accumulate(final double x) {
+			final double y = x - compensation;
+			final double t = sum + y;
+			compensation = (t - sum) - y;
+			sum = t;
+		}
+	}
+
+	private static class Welford<I extends RealType<I>> implements
+		Accumulator<I, Welford<I>>
+	{
+
+		private long n;
+		private double mean;
+		private double m2;
+
+		@Override
+		public void add(final I value) {
+			final double x = value.getRealDouble();
+			n++;
+			final double delta = x - mean;
+			mean += delta / n;
+			m2 += delta * (x - mean);
+		}
+
+		@Override
+		public void merge(final Welford<I> other) {
+			if (other.n == 0) return;
+			final double na = n;
+			final double nb = other.n;
+			final double delta = other.mean - mean;
+			n += other.n;
+			mean += delta * nb / n;
+			m2 += other.m2 + delta * delta * na * nb / n;
+		}
+
+		public double variance() {
+			return n < 2 ? Double.NaN : m2 / (n - 1);
+		}
+	}
+
+	private static class Extrema<T extends RealType<T>> implements
+		Accumulator<T, Extrema<T>>
+	{
+
+		private T min;
+		private T max;
+
+		@Override
+		public void add(final T value) {
+			if (min == null) {
+				min = value.copy();
+				max = value.copy();
+			}
+			else if (min.compareTo(value) > 0) min.set(value);
+			else if (max.compareTo(value) < 0) max.set(value);
+		}
+
+		@Override
+		public void merge(final Extrema<T> other) {
+			if (other.min == null) return;
+			add(other.min);
+			add(other.max);
+		}
+	}
+
+	private static class Sketcher<I extends RealType<I>> implements
+		Accumulator<I, Sketcher<I>>
+	{
+
+		private final KllSketch sketch;
+
+		public Sketcher(final int k) {
+			sketch = new KllSketch(k);
+		}
+
+		@Override
+		public void add(final I value) {
+			sketch.add(value.getRealDouble());
+		}
+
+		@Override
+		public void merge(final Sketcher<I> other) {
+			sketch.merge(other.sketch);
+		}
+	}
+
+	private static class Summarizer<I extends RealType<I>> implements
+		Accumulator<I, Summarizer<I>>
+	{
+
+		private final SummaryStatistics summary = new SummaryStatistics();
+
+		@Override
+		public void add(final I value) {
+			summary.add(value.getRealDouble());
+		}
+
+		@Override
+		public void merge(final Summarizer<I> other) {
+			summary.merge(other.summary);
+		}
+	}
+
+}
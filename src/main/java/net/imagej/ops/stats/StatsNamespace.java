@@ -52,6 +52,43 @@ import org.scijava.plugin.Plugin;
 @Plugin(type = Namespace.class)
 public class StatsNamespace extends AbstractNamespace {
 
+	@OpMethod(op = net.imagej.ops.stats.DefaultApproximateQuantile.class)
+	public <T extends RealType<T>, O extends RealType<O>> O approximateQuantile(
+		final Iterable<T> in, final double quantile)
+	{
+		final O result = (O) ops().run(
+			net.imagej.ops.Ops.Stats.ApproximateQuantile.class, in, quantile);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.stats.DefaultApproximateQuantile.class)
+	public <T extends RealType<T>, O extends RealType<O>> O approximateQuantile(
+		final Iterable<T> in, final double quantile, final int k)
+	{
+		final O result = (O) ops().run(
+			net.imagej.ops.Ops.Stats.ApproximateQuantile.class, in, quantile, k);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.stats.DefaultApproximateQuantile.class)
+	public <T extends RealType<T>, O extends RealType<O>> O approximateQuantile(
+		final O out, final Iterable<T> in, final double quantile)
+	{
+		final O result = (O) ops().run(
+			net.imagej.ops.Ops.Stats.ApproximateQuantile.class, out, in, quantile);
+		return result;
+	}
+
+	@OpMethod(op = net.imagej.ops.stats.DefaultApproximateQuantile.class)
+	public <T extends RealType<T>, O extends RealType<O>> O approximateQuantile(
+		final O out, final Iterable<T> in, final double quantile, final int k)
+	{
+		final O result = (O) ops().run(
+			net.imagej.ops.Ops.Stats.ApproximateQuantile.class, out, in, quantile,
+			k);
+		return result;
+	}
+
 	@OpMethod(ops = { net.imagej.ops.stats.IterableGeometricMean.class,
 		net.imagej.ops.stats.DefaultGeometricMean.class })
 	public <T extends RealType<T>, O extends RealType<O>> O geometricMean(
@@ -148,20 +185,23 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.IterableMax.class)
+	@OpMethod(ops = { net.imagej.ops.stats.IterableMax.class,
+		net.imagej.ops.stats.ParallelStats.Max.class })
 	public <T extends RealType<T>> T max(final Iterable<T> in) {
 		final T result = (T) ops().run(net.imagej.ops.Ops.Stats.Max.class, in);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.IterableMax.class)
+	@OpMethod(ops = { net.imagej.ops.stats.IterableMax.class,
+		net.imagej.ops.stats.ParallelStats.Max.class })
 	public <T extends RealType<T>> T max(final T out, final Iterable<T> in) {
 		final T result = (T) ops().run(net.imagej.ops.Ops.Stats.Max.class, out, in);
 		return result;
 	}
 
 	@OpMethod(ops = { net.imagej.ops.stats.IterableMean.class,
-		net.imagej.ops.stats.DefaultMean.class })
+		net.imagej.ops.stats.DefaultMean.class,
+		net.imagej.ops.stats.ParallelStats.Mean.class })
 	public <T extends RealType<T>, O extends RealType<O>> O mean(
 		final Iterable<T> in)
 	{
@@ -170,7 +210,8 @@ public class StatsNamespace extends AbstractNamespace {
 	}
 
 	@OpMethod(ops = { net.imagej.ops.stats.IterableMean.class,
-		net.imagej.ops.stats.DefaultMean.class })
+		net.imagej.ops.stats.DefaultMean.class,
+		net.imagej.ops.stats.ParallelStats.Mean.class })
 	public <T extends RealType<T>, O extends RealType<O>> O mean(final O out,
 		final Iterable<T> in)
 	{
@@ -197,19 +238,22 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.IterableMin.class)
+	@OpMethod(ops = { net.imagej.ops.stats.IterableMin.class,
+		net.imagej.ops.stats.ParallelStats.Min.class })
 	public <T extends RealType<T>> T min(final Iterable<T> in) {
 		final T result = (T) ops().run(net.imagej.ops.Ops.Stats.Min.class, in);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.IterableMin.class)
+	@OpMethod(ops = { net.imagej.ops.stats.IterableMin.class,
+		net.imagej.ops.stats.ParallelStats.Min.class })
 	public <T extends RealType<T>> T min(final T out, final Iterable<T> in) {
 		final T result = (T) ops().run(net.imagej.ops.Ops.Stats.Min.class, out, in);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.DefaultMinMax.class)
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultMinMax.class,
+		net.imagej.ops.stats.ParallelStats.MinMax.class })
 	public <T extends RealType<T>> Pair<T,T> minMax(final Iterable<T> in) {
 		final Pair<T,T> result =
 			(Pair<T,T>) ops().run(net.imagej.ops.Ops.Stats.MinMax.class, in);
@@ -310,20 +354,42 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.DefaultQuantile.class)
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultQuantile.class,
+		net.imagej.ops.stats.HistogramQuantile.class })
 	public <T extends RealType<T>, O extends RealType<O>> O quantile(final Iterable<T> in, final double quantile) {
 		final O result =
 			(O) ops().run(net.imagej.ops.Ops.Stats.Quantile.class, in, quantile);
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.DefaultQuantile.class)
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultQuantile.class,
+		net.imagej.ops.stats.HistogramQuantile.class })
 	public <T extends RealType<T>, O extends RealType<O>> O quantile(final O out, final Iterable<T> in, final double quantile) {
 		final O result =
 			(O) ops().run(net.imagej.ops.Ops.Stats.Quantile.class, out, in, quantile);
 		return result;
 	}
 
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultQuantileSketch.class,
+		net.imagej.ops.stats.ParallelStats.QuantileSketch.class })
+	public <T extends RealType<T>> KllSketch quantileSketch(
+		final Iterable<T> in)
+	{
+		final KllSketch result = (KllSketch) ops().run(
+			net.imagej.ops.Ops.Stats.QuantileSketch.class, in);
+		return result;
+	}
+
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultQuantileSketch.class,
+		net.imagej.ops.stats.ParallelStats.QuantileSketch.class })
+	public <T extends RealType<T>> KllSketch quantileSketch(
+		final Iterable<T> in, final int k)
+	{
+		final KllSketch result = (KllSketch) ops().run(
+			net.imagej.ops.Ops.Stats.QuantileSketch.class, in, k);
+		return result;
+	}
+
 	@OpMethod(op = net.imagej.ops.stats.IISize.class)
 	public <T extends RealType<T>, O extends RealType<O>> O size(
 		final IterableInterval<T> in)
@@ -378,7 +444,8 @@ public class StatsNamespace extends AbstractNamespace {
 	}
 
 	@OpMethod(ops = { net.imagej.ops.stats.IterableStandardDeviation.class,
-		net.imagej.ops.stats.DefaultStandardDeviation.class })
+		net.imagej.ops.stats.DefaultStandardDeviation.class,
+		net.imagej.ops.stats.ParallelStats.StdDev.class })
 	public <T extends RealType<T>, O extends RealType<O>> O stdDev(
 		final Iterable<T> in)
 	{
@@ -387,7 +454,8 @@ public class StatsNamespace extends AbstractNamespace {
 	}
 
 	@OpMethod(ops = { net.imagej.ops.stats.IterableStandardDeviation.class,
-		net.imagej.ops.stats.DefaultStandardDeviation.class })
+		net.imagej.ops.stats.DefaultStandardDeviation.class,
+		net.imagej.ops.stats.ParallelStats.StdDev.class })
 	public <T extends RealType<T>, O extends RealType<O>> O stdDev(final O out,
 		final Iterable<T> in)
 	{
@@ -396,7 +464,8 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.DefaultSum.class)
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultSum.class,
+		net.imagej.ops.stats.ParallelStats.Sum.class })
 	public <T extends RealType<T>, O extends RealType<O>> O sum(
 		final Iterable<T> in)
 	{
@@ -404,7 +473,8 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
-	@OpMethod(op = net.imagej.ops.stats.DefaultSum.class)
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultSum.class,
+		net.imagej.ops.stats.ParallelStats.Sum.class })
 	public <T extends RealType<T>, O extends RealType<O>> O sum(final O out,
 		final Iterable<T> in)
 	{
@@ -467,8 +537,19 @@ public class StatsNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(ops = { net.imagej.ops.stats.DefaultSummary.class,
+		net.imagej.ops.stats.ParallelStats.Summary.class })
+	public <T extends RealType<T>> SummaryStatistics summary(
+		final Iterable<T> in)
+	{
+		final SummaryStatistics result = (SummaryStatistics) ops().run(
+			net.imagej.ops.Ops.Stats.Summary.class, in);
+		return result;
+	}
+
 	@OpMethod(ops = { net.imagej.ops.stats.DefaultVariance.class,
-		net.imagej.ops.stats.IterableVariance.class })
+		net.imagej.ops.stats.IterableVariance.class,
+		net.imagej.ops.stats.ParallelStats.Variance.class })
 	public <T extends RealType<T>, O extends RealType<O>> O variance(
 		final Iterable<T> in)
 	{
@@ -477,7 +558,8 @@ public class StatsNamespace extends AbstractNamespace {
 	}
 
 	@OpMethod(ops = { net.imagej.ops.stats.DefaultVariance.class,
-		net.imagej.ops.stats.IterableVariance.class })
+		net.imagej.ops.stats.IterableVariance.class,
+		net.imagej.ops.stats.ParallelStats.Variance.class })
 	public <T extends RealType<T>, O extends RealType<O>> O variance(final O out,
 		final Iterable<T> in)
 	{
@@ -0,0 +1,221 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.stats;
+
+/**
+ * Descriptive statistics of a stream of values, accumulated in a single pass.
+ * <p>
+ * The central moments are updated incrementally (Welford, Terriberry), which
+ * is numerically stable, and two accumulators over disjoint parts of the
+ * values can be {@link #merge(SummaryStatistics) merged} (Chan, Pébay), such
+ * that parts can be accumulated in parallel.
+ * </p>
+ * <p>
+ * The statistics follow the conventions of the corresponding {@code stats}
+ * ops: the variance is the sample variance, the n-th moments about the mean
+ * are divided by the count, and skewness and kurtosis are the third and
+ * fourth moment about the mean divided by the respective power of the sample
+ * standard deviation.
+ * </p>
+ */
+public class SummaryStatistics {
+
+	private long n;
+	private double min = Double.POSITIVE_INFINITY;
+	private double max = Double.NEGATIVE_INFINITY;
+	private double sum;
+	private double sumOfSquares;
+	private double sumOfLogs;
+	private double sumOfInverses;
+
+	private double mean;
+	private double m2;
+	private double m3;
+	private double m4;
+
+	/** Adds a value to the statistics. */
+	public void add(final double x) {
+		final long n1 = n;
+		n++;
+
+		if (x < min) min = x;
+		if (x > max) max = x;
+		sum += x;
+		sumOfSquares += x * x;
+		sumOfLogs += Math.log(x);
+		sumOfInverses += 1.0d / x;
+
+		final double delta = x - mean;
+		final double deltaN = delta / n;
+		final double deltaN2 = deltaN * deltaN;
+		final double term1 = delta * deltaN * n1;
+		mean += deltaN;
+		m4 += term1 * deltaN2 * ((double) n * n - 3 * n + 3) + 6 * deltaN2 * m2 -
+			4 * deltaN * m3;
+		m3 += term1 * deltaN * (n - 2) - 3 * deltaN * m2;
+		m2 += term1;
+	}
+
+	/**
+	 * Merges the statistics of other values into these statistics, as if the
+	 * other values had been {@link #add(double) added}.
+	 */
+	public void merge(final SummaryStatistics other) {
+		if (other.n == 0) return;
+		if (n == 0) {
+			set(other);
+			return;
+		}
+
+		final double na = n;
+		final double nb = other.n;
+		final double nn = na + nb;
+		final double delta = other.mean - mean;
+		final double delta2 = delta * delta;
+
+		final double mergedM4 = m4 + other.m4 + delta2 * delta2 * na * nb * (na *
+			na - na * nb + nb * nb) / (nn * nn * nn) + 6 * delta2 * (na * na *
+				other.m2 + nb * nb * m2) / (nn * nn) + 4 * delta * (na * other.m3 - nb *
+					m3) / nn;
+		final double mergedM3 = m3 + other.m3 + delta2 * delta * na * nb * (na -
+			nb) / (nn * nn) + 3 * delta * (na * other.m2 - nb * m2) / nn;
+		final double mergedM2 = m2 + other.m2 + delta2 * na * nb / nn;
+
+		n += other.n;
+		mean += delta * nb / nn;
+		m2 = mergedM2;
+		m3 = mergedM3;
+		m4 = mergedM4;
+
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+		sum += other.sum;
+		sumOfSquares += other.sumOfSquares;
+		sumOfLogs += other.sumOfLogs;
+		sumOfInverses += other.sumOfInverses;
+	}
+
+	// -- Getters --
+
+	public long getN() {
+		return n;
+	}
+
+	public double getMin() {
+		return min;
+	}
+
+	public double getMax() {
+		return max;
+	}
+
+	public double getSum() {
+		return sum;
+	}
+
+	public double getSumOfSquares() {
+		return sumOfSquares;
+	}
+
+	public double getSumOfLogs() {
+		return sumOfLogs;
+	}
+
+	public double getSumOfInverses() {
+		return sumOfInverses;
+	}
+
+	public double getMean() {
+		return n == 0 ? Double.NaN : mean;
+	}
+
+	public double getGeometricMean() {
+		return n == 0 ? 0 : Math.exp(sumOfLogs / n);
+	}
+
+	public double getHarmonicMean() {
+		return sumOfInverses == 0 ? 0 : n / sumOfInverses;
+	}
+
+	/** Gets the sample variance, with a denominator of {@code n - 1}. */
+	public double getVariance() {
+		return m2 / (n - 1);
+	}
+
+	/** Gets the sample standard deviation. */
+	public double getStdDev() {
+		return Math.sqrt(getVariance());
+	}
+
+	public double getMoment1AboutMean() {
+		return n == 0 ? Double.NaN : 0;
+	}
+
+	public double getMoment2AboutMean() {
+		return m2 / n;
+	}
+
+	public double getMoment3AboutMean() {
+		return m3 / n;
+	}
+
+	public double getMoment4AboutMean() {
+		return m4 / n;
+	}
+
+	public double getSkewness() {
+		final double std = getStdDev();
+		return std == 0 ? Double.NaN : getMoment3AboutMean() / (std * std * std);
+	}
+
+	public double getKurtosis() {
+		final double std = getStdDev();
+		return std == 0 ? Double.NaN : getMoment4AboutMean() / (std * std * std *
+			std);
+	}
+
+	// -- Helper methods --
+
+	private void set(final SummaryStatistics other) {
+		n = other.n;
+		min = other.min;
+		max = other.max;
+		sum = other.sum;
+		sumOfSquares = other.sumOfSquares;
+		sumOfLogs = other.sumOfLogs;
+		sumOfInverses = other.sumOfInverses;
+		mean = other.mean;
+		m2 = other.m2;
+		m3 = other.m3;
+		m4 = other.m4;
+	}
+
+}
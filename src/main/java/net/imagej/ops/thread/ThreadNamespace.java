@@ -48,13 +48,23 @@ public class ThreadNamespace extends AbstractNamespace {
 	// -- Thread namespace ops --
 
 	/** Executes the "chunker" operation on the given arguments. */
-	@OpMethod(ops = { net.imagej.ops.thread.chunker.DefaultChunker.class,
+	@OpMethod(ops = { net.imagej.ops.thread.chunker.ChunkerLoadBalanced.class,
+		net.imagej.ops.thread.chunker.DefaultChunker.class,
 		net.imagej.ops.thread.chunker.ChunkerInterleaved.class })
 	public void chunker(final Chunk chunkable, final long numberOfElements) {
 		ops().run(net.imagej.ops.Ops.Thread.Chunker.class, chunkable,
 			numberOfElements);
 	}
 
+	/** Executes the "chunker" operation on the given arguments. */
+	@OpMethod(op = net.imagej.ops.thread.chunker.ChunkerLoadBalanced.class)
+	public void chunker(final Chunk chunkable, final long numberOfElements,
+		final int grainSize)
+	{
+		ops().run(net.imagej.ops.Ops.Thread.Chunker.class, chunkable,
+			numberOfElements, grainSize);
+	}
+
 	// -- Named methods --
 
 	@Override
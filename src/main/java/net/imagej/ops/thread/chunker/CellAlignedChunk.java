@@ -0,0 +1,171 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.thread.chunker;
+
+import java.util.Arrays;
+
+import net.imagej.ops.OpEnvironment;
+import net.imglib2.IterableInterval;
+import net.imglib2.img.cell.AbstractCellImg;
+import net.imglib2.img.cell.CellGrid;
+import net.imglib2.util.IntervalIndexer;
+
+/**
+ * A {@link Chunk} whose elements are the cells of a cell image, delegating to
+ * a {@link Chunk} over the pixels of the image.
+ * <p>
+ * A cell image iterates over its pixels cell by cell, so the pixels of
+ * consecutive cells form a consecutive range of pixel indices. Chunking over
+ * the cells instead of the pixels thus makes each chunk cover whole cells: no
+ * cell is shared between two threads, and the cursor of a chunk only leaves
+ * a cell to proceed with the next one, walking the cell's storage array
+ * sequentially in the meantime. If input and output images have the same cell
+ * grid, they are aligned by construction. The pixels are still visited through
+ * the cursors of the delegate, not through the storage arrays themselves, so
+ * that the element ops stay generic.
+ * </p>
+ * <p>
+ * Cells larger than the share of one processor, i.e. the number of pixels
+ * divided by the number of available processors, are split into consecutive
+ * pieces of at most that size, so that an image of a few large cells is still
+ * processed by all processors.
+ * </p>
+ */
+public class CellAlignedChunk implements Chunk {
+
+	private final Chunk chunk;
+
+	/**
+	 * Index of the first pixel of each cell or piece of a cell, plus the total
+	 * number of pixels as last entry.
+	 */
+	private final long[] offsets;
+
+	private CellAlignedChunk(final Chunk chunk, final long[] offsets) {
+		this.chunk = chunk;
+		this.offsets = offsets;
+	}
+
+	/**
+	 * Executes the given {@link Chunk} over all pixels of the given image in
+	 * parallel using a {@link ChunkerOp}. If the image is an
+	 * {@link AbstractCellImg}, the chunks are aligned to its cells.
+	 *
+	 * @param ops The {@link OpEnvironment} providing the {@link ChunkerOp}.
+	 * @param image The image whose iteration order defines the pixel indices.
+	 * @param chunk The {@link Chunk} over the pixel indices.
+	 * @throws IllegalArgumentException if the image has more pixels than a
+	 *           {@link Chunk} can address
+	 */
+	public static void run(final OpEnvironment ops,
+		final IterableInterval<?> image, final Chunk chunk)
+	{
+		if (image.size() > Integer.MAX_VALUE) {
+			// NB: Chunk addresses its elements by int.
+			throw new IllegalArgumentException("Too many elements: " + image
+				.size() + " > " + Integer.MAX_VALUE);
+		}
+		if (!(image instanceof AbstractCellImg) || image.size() == 0) {
+			ops.run(ChunkerOp.class, chunk, image.size());
+			return;
+		}
+		final int parallelism = Runtime.getRuntime().availableProcessors();
+		final long maxPiece = Math.max(1, (image.size() + parallelism - 1) /
+			parallelism);
+		final long[] offsets = offsets(((AbstractCellImg<?, ?, ?, ?>) image)
+			.getCellGrid(), maxPiece);
+		ops.run(ChunkerOp.class, new CellAlignedChunk(chunk, offsets),
+			(long) offsets.length - 1);
+	}
+
+	// -- Chunk methods --
+
+	@Override
+	public void execute(final int startIndex, final int stepSize,
+		final int numSteps)
+	{
+		if (stepSize == 1) {
+			// NB: Consecutive cells are a single range of pixels.
+			final long start = offsets[startIndex];
+			chunk.execute((int) start, 1, (int) (offsets[startIndex + numSteps] -
+				start));
+			return;
+		}
+		for (int i = 0; i < numSteps; i++) {
+			final int cell = startIndex + i * stepSize;
+			final long start = offsets[cell];
+			chunk.execute((int) start, 1, (int) (offsets[cell + 1] - start));
+		}
+	}
+
+	// -- Helper methods --
+
+	/**
+	 * Computes the pixel offsets of the cells of the given grid, in the flat
+	 * order of the grid, which is the order the cell image iterates its cells.
+	 * Cells with more than {@code maxPiece} pixels are split into pieces of
+	 * equal size. Only the grid is needed, so lazily loaded cells are not
+	 * touched.
+	 */
+	private static long[] offsets(final CellGrid grid, final long maxPiece) {
+		final int n = grid.numDimensions();
+		final long[] gridDims = grid.getGridDimensions();
+		final long[] gridPos = new long[n];
+		final long[] cellMin = new long[n];
+		final int[] cellDims = new int[n];
+		long numCells = 1;
+		for (final long d : gridDims) {
+			numCells *= d;
+		}
+
+		long[] offsets = new long[(int) numCells + 1];
+		int count = 0;
+		for (int i = 0; i < numCells; i++) {
+			IntervalIndexer.indexToPosition(i, gridDims, gridPos);
+			grid.getCellDimensions(gridPos, cellMin, cellDims);
+			long size = 1;
+			for (final int d : cellDims) {
+				size *= d;
+			}
+			final long pieces = (size + maxPiece - 1) / maxPiece;
+			if (count + pieces >= offsets.length) {
+				offsets = Arrays.copyOf(offsets, (int) Math.max(2L * offsets.length,
+					count + pieces + 1));
+			}
+			final long start = offsets[count];
+			for (long p = 1; p <= pieces; p++) {
+				offsets[++count] = start + size * p / pieces;
+			}
+		}
+		return Arrays.copyOf(offsets, count + 1);
+	}
+
+}
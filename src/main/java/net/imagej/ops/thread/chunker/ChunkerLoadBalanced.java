@@ -0,0 +1,177 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.thread.chunker;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.imagej.ops.Ops;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Load balancing implementation of a {@link ChunkerOp}. The elements are cut
+ * into many more chunks than there are threads, each of the grain size (the
+ * last chunk takes the remainder). The calling thread and worker threads of
+ * the context's {@link org.scijava.thread.ThreadService} claim the chunks one
+ * after another until none are left. Threads which finish their chunks early
+ * simply claim more, so the load is balanced well even if the cost per element
+ * varies.
+ * <p>
+ * If the chunker is called from within a chunk which is already being executed
+ * by this chunker (i.e., from a parallel op nested inside another parallel op),
+ * its chunks are executed by the calling thread alone, since the outer chunker
+ * already keeps all processors busy.
+ * </p>
+ */
+@Plugin(type = Ops.Thread.Chunker.class, priority = Priority.HIGH_PRIORITY)
+public class ChunkerLoadBalanced extends AbstractChunker {
+
+	/**
+	 * Number of chunks created per worker thread, if no grain size is given.
+	 * More chunks than threads are needed so that the load can be balanced.
+	 */
+	private static final int CHUNKS_PER_THREAD = 8;
+
+	/** Whether the current thread is executing a chunk of this chunker. */
+	private static final ThreadLocal<Boolean> IN_CHUNK =
+		new ThreadLocal<Boolean>()
+		{
+
+			@Override
+			protected Boolean initialValue() {
+				return false;
+			}
+		};
+
+	/**
+	 * Minimum number of consecutive elements processed by one chunk (unless
+	 * there are fewer elements in total). If not set, the grain size is chosen
+	 * such that each thread receives up to {@link #CHUNKS_PER_THREAD} chunks.
+	 */
+	@Parameter(required = false)
+	private int grainSize;
+
+	@Override
+	public void run() {
+		if (numberOfElements <= 0) return;
+		if (numberOfElements > Integer.MAX_VALUE) {
+			// NB: Chunk addresses its elements by int.
+			throw new IllegalArgumentException("Too many elements: " +
+				numberOfElements + " > " + Integer.MAX_VALUE);
+		}
+
+		final int total = (int) numberOfElements;
+		final int threads = Runtime.getRuntime().availableProcessors();
+		final int grain = grainSize > 0 ? grainSize : defaultGrainSize(total,
+			threads);
+		final int numChunks = Math.max(1, total / grain);
+
+		if (IN_CHUNK.get() || numChunks == 1) {
+			execute(0, total);
+			return;
+		}
+
+		final AtomicInteger next = new AtomicInteger();
+		final CountDownLatch done = new CountDownLatch(numChunks);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		final Runnable worker = new Runnable() {
+
+			@Override
+			public void run() {
+				IN_CHUNK.set(true);
+				try {
+					int chunk;
+					while ((chunk = next.getAndIncrement()) < numChunks) {
+						try {
+							if (!isCanceled() && failure.get() == null) {
+								final int start = chunk * grain;
+								execute(start, chunk == numChunks - 1 ? total : start +
+									grain);
+							}
+						}
+						catch (final Throwable t) {
+							failure.compareAndSet(null, t);
+						}
+						finally {
+							done.countDown();
+						}
+					}
+				}
+				finally {
+					IN_CHUNK.set(false);
+				}
+			}
+		};
+
+		// NB: The calling thread works too, so every claimed chunk is being
+		// executed by a running thread, even if the helpers never get to start.
+		final ArrayList<Future<?>> helpers = new ArrayList<>();
+		for (int i = 1; i < Math.min(threads, numChunks); i++) {
+			helpers.add(threadService.run(worker));
+		}
+		worker.run();
+
+		try {
+			done.await();
+		}
+		catch (final InterruptedException exc) {
+			for (final Future<?> helper : helpers) {
+				helper.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(exc);
+		}
+
+		final Throwable t = failure.get();
+		if (t instanceof RuntimeException) throw (RuntimeException) t;
+		if (t instanceof Error) throw (Error) t;
+		if (t != null) throw new RuntimeException(new ExecutionException(t));
+	}
+
+	// -- Helper methods --
+
+	private void execute(final int start, final int end) {
+		chunkable.execute(start, 1, end - start);
+	}
+
+	private static int defaultGrainSize(final int total, final int threads) {
+		final long chunks = (long) Math.max(1, threads) * CHUNKS_PER_THREAD;
+		return (int) Math.max(1, (total + chunks - 1) / chunks);
+	}
+
+}
@@ -32,9 +32,11 @@ package net.imagej.ops.threshold;
 
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import net.imagej.ops.AbstractNamespace;
 import net.imagej.ops.Namespace;
+import net.imagej.ops.Op;
 import net.imagej.ops.OpMethod;
 import net.imglib2.IterableInterval;
 import net.imglib2.RandomAccessibleInterval;
@@ -58,6 +60,58 @@ public class ThresholdNamespace extends AbstractNamespace {
 
 	// -- Threshold namespace ops --
 
+	// -- all --
+
+	@OpMethod(
+		op = net.imagej.ops.threshold.all.ComputeAllThresholds.class)
+	public <T extends RealType<T>> Map<Class<? extends Op>, T> all(
+		final Histogram1d<T> in)
+	{
+		@SuppressWarnings("unchecked")
+		final Map<Class<? extends Op>, T> result =
+			(Map<Class<? extends Op>, T>) ops().run(
+				net.imagej.ops.Ops.Threshold.All.class, in);
+		return result;
+	}
+
+	@OpMethod(
+		op = net.imagej.ops.threshold.all.ComputeAllThresholds.class)
+	@SafeVarargs
+	public final <T extends RealType<T>> Map<Class<? extends Op>, T> all(
+		final Histogram1d<T> in, final Class<? extends Op>... methods)
+	{
+		@SuppressWarnings("unchecked")
+		final Map<Class<? extends Op>, T> result =
+			(Map<Class<? extends Op>, T>) ops().run(
+				net.imagej.ops.Ops.Threshold.All.class, in, methods);
+		return result;
+	}
+
+	@OpMethod(
+		op = net.imagej.ops.threshold.all.ComputeAllThresholdsIterable.class)
+	public <T extends RealType<T>> Map<Class<? extends Op>, T> all(
+		final IterableInterval<T> in)
+	{
+		@SuppressWarnings("unchecked")
+		final Map<Class<? extends Op>, T> result =
+			(Map<Class<? extends Op>, T>) ops().run(
+				net.imagej.ops.Ops.Threshold.All.class, in);
+		return result;
+	}
+
+	@OpMethod(
+		op = net.imagej.ops.threshold.all.ComputeAllThresholdsIterable.class)
+	@SafeVarargs
+	public final <T extends RealType<T>> Map<Class<? extends Op>, T> all(
+		final IterableInterval<T> in, final Class<? extends Op>... methods)
+	{
+		@SuppressWarnings("unchecked")
+		final Map<Class<? extends Op>, T> result =
+			(Map<Class<? extends Op>, T>) ops().run(
+				net.imagej.ops.Ops.Threshold.All.class, in, methods);
+		return result;
+	}
+
 	// -- apply --
 
 	@OpMethod(
@@ -171,6 +225,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Huang.class)
+	public <T extends RealType<T>> IterableInterval<BitType> huang(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Huang.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.ApplyThresholdMethodLocal.LocalHuangThreshold.class)
 	public <T extends RealType<T>, B extends BooleanType<B>> IterableInterval<B>
@@ -245,6 +312,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.IJ1.class)
+	public <T extends RealType<T>> IterableInterval<BitType> ij1(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.IJ1.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.ApplyThresholdMethodLocal.LocalIJ1Threshold.class)
 	public <T extends RealType<T>, B extends BooleanType<B>> IterableInterval<B>
@@ -326,6 +406,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Intermodes.class)
+	public <T extends RealType<T>> IterableInterval<BitType> intermodes(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Intermodes.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.ApplyThresholdMethodLocal.LocalIntermodesThreshold.class)
 	public <T extends RealType<T>, B extends BooleanType<B>> IterableInterval<B>
@@ -378,6 +471,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.IsoData.class)
+	public <T extends RealType<T>> IterableInterval<BitType> isoData(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.IsoData.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.isoData.ComputeIsoDataThreshold.class)
 	public <T extends RealType<T>> List<Object> isoData(final Histogram1d<T> in) {
@@ -452,6 +558,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Li.class)
+	public <T extends RealType<T>> IterableInterval<BitType> li(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Li.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.li.ComputeLiThreshold.class)
 	public <T extends RealType<T>> T li(final Histogram1d<T> in) {
@@ -985,6 +1104,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.MaxEntropy.class)
+	public <T extends RealType<T>> IterableInterval<BitType> maxEntropy(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.MaxEntropy.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.maxEntropy.ComputeMaxEntropyThreshold.class)
 	public
@@ -1066,6 +1198,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.MaxLikelihood.class)
+	public <T extends RealType<T>> IterableInterval<BitType> maxLikelihood(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.MaxLikelihood.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.maxLikelihood.ComputeMaxLikelihoodThreshold.class)
 	public
@@ -1145,6 +1290,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Mean.class)
+	public <T extends RealType<T>> IterableInterval<BitType> mean(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Mean.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.mean.ComputeMeanThreshold.class)
 	public <T extends RealType<T>> T mean(final Histogram1d<T> in) {
@@ -1190,6 +1348,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.MinError.class)
+	public <T extends RealType<T>> IterableInterval<BitType> minError(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.MinError.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.minError.ComputeMinErrorThreshold.class)
 	public
@@ -1268,6 +1439,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Minimum.class)
+	public <T extends RealType<T>> IterableInterval<BitType> minimum(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Minimum.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.minimum.ComputeMinimumThreshold.class)
 	public <T extends RealType<T>> List<Object> minimum(final Histogram1d<T> in) {
@@ -1368,6 +1552,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Moments.class)
+	public <T extends RealType<T>> IterableInterval<BitType> moments(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Moments.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.ApplyThresholdMethodLocal.LocalMomentsThreshold.class)
 	public <T extends RealType<T>, B extends BooleanType<B>> IterableInterval<B>
@@ -1439,6 +1636,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Otsu.class)
+	public <T extends RealType<T>> IterableInterval<BitType> otsu(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Otsu.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.ApplyThresholdMethodLocal.LocalOtsuThreshold.class)
 	public <T extends RealType<T>, B extends BooleanType<B>> IterableInterval<B>
@@ -1492,6 +1702,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Percentile.class)
+	public <T extends RealType<T>> IterableInterval<BitType> percentile(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Percentile.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.percentile.ComputePercentileThreshold.class)
 	public
@@ -1573,6 +1796,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.RenyiEntropy.class)
+	public <T extends RealType<T>> IterableInterval<BitType> renyiEntropy(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.RenyiEntropy.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.renyiEntropy.ComputeRenyiEntropyThreshold.class)
 	public
@@ -1653,6 +1889,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Shanbhag.class)
+	public <T extends RealType<T>> IterableInterval<BitType> shanbhag(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Shanbhag.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.shanbhag.ComputeShanbhagThreshold.class)
 	public
@@ -1728,6 +1977,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Triangle.class)
+	public <T extends RealType<T>> IterableInterval<BitType> triangle(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Triangle.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.triangle.ComputeTriangleThreshold.class)
 	public
@@ -1823,6 +2085,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 		return result;
 	}
 
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Yen.class)
+	public <T extends RealType<T>> IterableInterval<BitType> yen(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Yen.class, out, in, histogram);
+		return result;
+	}
+
 	@OpMethod(
 		op = net.imagej.ops.threshold.ApplyThresholdMethodLocal.LocalYenThreshold.class)
 	public <T extends RealType<T>, B extends BooleanType<B>> IterableInterval<B>
@@ -1893,6 +2168,19 @@ public class ThresholdNamespace extends AbstractNamespace {
 				in);
 		return result;
 	}
+
+	@OpMethod(
+		op = net.imagej.ops.threshold.ApplyThresholdMethod.Rosin.class)
+	public <T extends RealType<T>> IterableInterval<BitType> rosin(
+		final IterableInterval<BitType> out, final IterableInterval<T> in,
+		final Histogram1d<T> histogram)
+	{
+		@SuppressWarnings("unchecked")
+		final IterableInterval<BitType> result =
+			(IterableInterval<BitType>) ops().run(
+				net.imagej.ops.Ops.Threshold.Rosin.class, out, in, histogram);
+		return result;
+	}
         
         @OpMethod(
 		op = net.imagej.ops.threshold.ApplyThresholdMethodLocal.LocalRosinThreshold.class)
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.threshold.all;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imagej.ops.threshold.ComputeThresholdHistogram;
+import net.imglib2.histogram.Histogram1d;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.Priority;
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Evaluates several {@link ComputeThresholdHistogram} methods against one
+ * {@link Histogram1d}, so that comparing methods costs a single histogram.
+ * <p>
+ * The result maps each requested threshold op type (e.g.
+ * {@link Ops.Threshold.Otsu}) to its threshold, in the order requested.
+ * </p>
+ */
+@Plugin(type = Ops.Threshold.All.class, priority = Priority.HIGH_PRIORITY)
+public class ComputeAllThresholds<T extends RealType<T>> extends
+	AbstractUnaryFunctionOp<Histogram1d<T>, Map<Class<? extends Op>, T>>
+	implements Ops.Threshold.All
+{
+
+	/** The global threshold methods evaluated when none are specified. */
+	public static final List<Class<? extends Op>> METHODS = Collections
+		.unmodifiableList(Arrays.<Class<? extends Op>> asList(
+			Ops.Threshold.Huang.class, Ops.Threshold.IJ1.class,
+			Ops.Threshold.Intermodes.class, Ops.Threshold.IsoData.class,
+			Ops.Threshold.Li.class, Ops.Threshold.MaxEntropy.class,
+			Ops.Threshold.MaxLikelihood.class, Ops.Threshold.Mean.class,
+			Ops.Threshold.MinError.class, Ops.Threshold.Minimum.class,
+			Ops.Threshold.Moments.class, Ops.Threshold.Otsu.class,
+			Ops.Threshold.Percentile.class, Ops.Threshold.RenyiEntropy.class,
+			Ops.Threshold.Rosin.class, Ops.Threshold.Shanbhag.class,
+			Ops.Threshold.Triangle.class, Ops.Threshold.Yen.class));
+
+	/** The threshold methods to evaluate; defaults to {@link #METHODS}. */
+	@Parameter(required = false)
+	private Class<? extends Op>[] methods;
+
+	private List<UnaryComputerOp<Histogram1d<T>, T>> thresholdComps;
+
+	private Class<?> thresholdType;
+
+	@Override
+	public Map<Class<? extends Op>, T> calculate(final Histogram1d<T> input) {
+		final T type = input.firstDataValue();
+		final List<Class<? extends Op>> opTypes = methods == null ? METHODS
+			: Arrays.asList(methods);
+		if (thresholdComps == null || thresholdType != type.getClass()) {
+			thresholdComps = thresholdComputers(opTypes, type);
+			thresholdType = type.getClass();
+		}
+
+		final Map<Class<? extends Op>, T> thresholds = new LinkedHashMap<>();
+		for (int i = 0; i < opTypes.size(); i++) {
+			final T threshold = type.createVariable();
+			thresholdComps.get(i).compute(input, threshold);
+			thresholds.put(opTypes.get(i), threshold);
+		}
+		return thresholds;
+	}
+
+	// -- Helper methods --
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private List<UnaryComputerOp<Histogram1d<T>, T>> thresholdComputers(
+		final List<Class<? extends Op>> opTypes, final T type)
+	{
+		final UnaryComputerOp[] comps = new UnaryComputerOp[opTypes.size()];
+		for (int i = 0; i < comps.length; i++) {
+			comps[i] = Computers.unary(ops(), opTypes.get(i), type.getClass(),
+				Histogram1d.class);
+		}
+		return (List) Arrays.asList(comps);
+	}
+
+}
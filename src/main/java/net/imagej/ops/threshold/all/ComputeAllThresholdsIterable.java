@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.threshold.all;
+
+import java.util.Map;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.function.AbstractUnaryFunctionOp;
+import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imglib2.IterableInterval;
+import net.imglib2.histogram.Histogram1d;
+import net.imglib2.type.numeric.RealType;
+
+import org.scijava.plugin.Parameter;
+import org.scijava.plugin.Plugin;
+
+/**
+ * Histograms an {@link IterableInterval} once and evaluates several global
+ * threshold methods against that histogram.
+ *
+ * @see ComputeAllThresholds
+ */
+@Plugin(type = Ops.Threshold.All.class)
+public class ComputeAllThresholdsIterable<T extends RealType<T>> extends
+	AbstractUnaryFunctionOp<IterableInterval<T>, Map<Class<? extends Op>, T>>
+	implements Ops.Threshold.All
+{
+
+	/**
+	 * The threshold methods to evaluate; defaults to
+	 * {@link ComputeAllThresholds#METHODS}.
+	 */
+	@Parameter(required = false)
+	private Class<? extends Op>[] methods;
+
+	private UnaryFunctionOp<IterableInterval<T>, Histogram1d<T>> histCreator;
+
+	private UnaryFunctionOp<Histogram1d<T>, Map<Class<? extends Op>, T>>
+		thresholdsFunc;
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Override
+	public void initialize() {
+		histCreator = (UnaryFunctionOp) Functions.unary(ops(),
+			Ops.Image.Histogram.class, Histogram1d.class, in());
+		thresholdsFunc = (UnaryFunctionOp) Functions.unary(ops(),
+			Ops.Threshold.All.class, Map.class, Histogram1d.class,
+			(Object) methods);
+	}
+
+	@Override
+	public Map<Class<? extends Op>, T> calculate(final IterableInterval<T> input) {
+		return thresholdsFunc.calculate(histCreator.calculate(input));
+	}
+
+}
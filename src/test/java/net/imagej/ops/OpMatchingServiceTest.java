@@ -42,6 +42,7 @@ import net.imglib2.type.numeric.real.DoubleType;
 
 import org.junit.Test;
 import org.scijava.ItemIO;
+import org.scijava.Priority;
 import org.scijava.module.Module;
 import org.scijava.plugin.Attr;
 import org.scijava.plugin.Parameter;
@@ -156,6 +157,29 @@ public class OpMatchingServiceTest extends AbstractOpTest {
 		}
 	}
 	
+	/** Tests that memoized matches respect the conformance of the arguments. */
+	@Test
+	public void testMatchCache() {
+		final OpMatchCache cache = ((DefaultOpMatchingService) matcher)
+			.matchCache();
+		assertSame(PositiveOp.class, signOp(5).getClass());
+		assertEquals(1, cache.size(ops));
+		final long hits = cache.hits();
+
+		// memoized op no longer conforms; match from scratch
+		assertSame(AnySignOp.class, signOp(-5).getClass());
+		assertEquals(hits + 1, cache.hits());
+
+		// rejected op still does not conform; replay
+		assertSame(AnySignOp.class, signOp(-3).getClass());
+		assertEquals(hits + 2, cache.hits());
+
+		// rejected op now conforms; match from scratch
+		assertSame(PositiveOp.class, signOp(7).getClass());
+		assertEquals(hits + 3, cache.hits());
+		assertEquals(1, cache.size(ops));
+	}
+
 	@Test
 	public void testLosslessMatch() {
 		// Not implemented yet
@@ -168,6 +192,10 @@ public class OpMatchingServiceTest extends AbstractOpTest {
 			.getModule();
 	}
 
+	private Op signOp(final double value) {
+		return ops.op("test.sign", new DoubleType(value));
+	}
+
 	private void assertValues(final Module m, final int a, final int b,
 		final int c, final int d, final int e, final int f, final int result)
 	{
@@ -210,6 +238,27 @@ public class OpMatchingServiceTest extends AbstractOpTest {
 		}
 	}
 
+	/** A test {@link Op} for any value. */
+	@Plugin(type = Op.class, name = "test.sign")
+	public static class AnySignOp extends NoOp {
+
+		@Parameter
+		private DoubleType arg;
+	}
+
+	/** A higher priority test {@link Op}, only for positive values. */
+	@Plugin(type = Op.class, name = "test.sign", priority = Priority.HIGH_PRIORITY)
+	public static class PositiveOp extends NoOp implements Contingent {
+
+		@Parameter
+		private DoubleType arg;
+
+		@Override
+		public boolean conforms() {
+			return arg.get() > 0;
+		}
+	}
+
 	@Plugin(type = Op.class)
 	public static class OptionalParams extends AbstractOp {
 
@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import net.imagej.ops.OpMatchingServiceTest.GenericSherbet;
+import net.imagej.ops.OpMatchingServiceTest.RainbowSherbet;
+import net.imagej.ops.OpMatchingServiceTest.Sherbet;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link OpRegistry}.
+ */
+public class OpRegistryTest extends AbstractOpTest {
+
+	/** Tests that the registry is built once and sorted by priority. */
+	@Test
+	public void testInfos() {
+		final OpRegistry registry = ops.registry();
+		assertSame(registry, ops.registry());
+		assertSame(registry.infos(), ops.infos());
+
+		final List<OpInfo> sorted = new ArrayList<>(registry.infos());
+		Collections.sort(sorted);
+		assertEquals(sorted, registry.infos());
+	}
+
+	/** Tests lookup by qualified name, simple name and alias. */
+	@Test
+	public void testInfosByName() {
+		final OpRegistry registry = ops.registry();
+		assertNames(registry.infos("test.dessert.sherbet", null),
+			GenericSherbet.class, RainbowSherbet.class);
+		assertNames(registry.infos("sherbet", null), GenericSherbet.class,
+			RainbowSherbet.class);
+		assertNames(registry.infos("test.dessert.americanSherbet", null),
+			GenericSherbet.class);
+		assertEquals(0, registry.infos("test.dessert.nonexistent", null).size());
+	}
+
+	/** Tests lookup by op type. */
+	@Test
+	public void testInfosByType() {
+		final OpRegistry registry = ops.registry();
+		assertNames(registry.infos(null, OpRef.types(Sherbet.class)),
+			GenericSherbet.class, RainbowSherbet.class);
+		assertSame(registry.infos(Sherbet.class), registry.infos(Sherbet.class));
+	}
+
+	/** Tests that a custom environment merges its ops into the parent index. */
+	@Test
+	public void testCustomEnvironment() {
+		final OpInfo custom = new OpInfo(CustomSherbet.class);
+		final OpEnvironment env = new CustomOpEnvironment(ops, Collections
+			.singletonList(custom));
+		assertEquals(ops.infos().size() + 1, env.infos().size());
+		assertSame(custom, env.info(CustomSherbet.class));
+		assertTrue(env.registry().infos(Sherbet.class).contains(custom));
+		assertSame(ops.registry(), new CustomOpEnvironment(ops).registry());
+	}
+
+	// -- Helper methods --
+
+	private void assertNames(final List<OpInfo> infos,
+		final Class<?>... opTypes)
+	{
+		final ArrayList<String> expected = new ArrayList<>();
+		for (final Class<?> opType : opTypes) {
+			expected.add(opType.getName());
+		}
+		final ArrayList<String> actual = new ArrayList<>();
+		for (final OpInfo info : infos) {
+			actual.add(info.cInfo().getDelegateClassName());
+		}
+		Collections.sort(expected);
+		Collections.sort(actual);
+		assertEquals(expected, actual);
+	}
+
+	// -- Helper classes --
+
+	/** An op which is not a plugin, added via a custom environment. */
+	public static class CustomSherbet extends NoOp implements Sherbet {
+		// NB: No implementation needed.
+	}
+
+}
@@ -37,6 +37,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Collection;
 
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.special.function.BinaryFunctionOp;
 import net.imglib2.type.numeric.real.DoubleType;
 
 import org.junit.Test;
@@ -156,6 +158,28 @@ public class OpServiceTest extends AbstractOpTest {
 		assertTrue(Double.isInfinite(value.get()));
 	}
 
+	/**
+	 * Tests {@link OpService#binaryFunction} and
+	 * {@link OpService#unaryComputer}.
+	 */
+	@Test
+	public void testHandles() {
+		final BinaryFunctionOp<DoubleType, DoubleType, DoubleType> add = ops
+			.binaryFunction(Ops.Math.Add.class, DoubleType.class, DoubleType.class,
+				DoubleType.class);
+		for (int i = 0; i < 3; i++) {
+			final DoubleType sum = add.calculate(new DoubleType(i),
+				new DoubleType(10));
+			assertEquals(i + 10, sum.get(), 0);
+		}
+
+		final UnaryComputerOp<DoubleType, DoubleType> sqr = ops.unaryComputer(
+			Ops.Math.Sqr.class, DoubleType.class, DoubleType.class);
+		final DoubleType out = new DoubleType();
+		sqr.compute(new DoubleType(3), out);
+		assertEquals(9, out.get(), 0);
+	}
+
 	/** Tests {@link OpService#run(String, Object...)} with op aliases. */
 	@Test
 	public void testAliases() {
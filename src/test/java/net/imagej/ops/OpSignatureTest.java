@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import net.imagej.ops.OpMatchingServiceTest.Gelato;
+import net.imagej.ops.OpMatchingServiceTest.GenericSherbet;
+import net.imagej.ops.OpMatchingServiceTest.NaNOp;
+import net.imagej.ops.OpMatchingServiceTest.Sherbet;
+import net.imglib2.type.numeric.real.DoubleType;
+
+import org.junit.Test;
+import org.scijava.InstantiableException;
+
+/**
+ * Tests {@link OpSignature} and {@link OpSignatureIndex}.
+ */
+public class OpSignatureTest extends AbstractOpTest {
+
+	/** Tests that signatures survive a round trip through the index format. */
+	@Test
+	public void testParse() throws InstantiableException {
+		final OpSignature signature = OpSignature.of(ops.info(
+			GenericSherbet.class));
+		final OpSignature parsed = OpSignature.parse(signature.toString());
+		assertEquals(signature.toString(), parsed.toString());
+		assertEquals(GenericSherbet.class.getName(), parsed.getClassName());
+		assertEquals(Sherbet.NAME, parsed.getName());
+		assertArrayEquals(new String[] { Sherbet.ALIAS }, parsed.getAliases());
+		assertTrue(parsed.getSupertypes().contains(Op.class.getName()));
+		assertTrue(parsed.typesMatch(OpRef.create(Sherbet.class)));
+		assertFalse(parsed.typesMatch(OpRef.create(Gelato.class)));
+	}
+
+	/** Tests that ops are matched by their precomputed signature. */
+	@Test
+	public void testMatchBySignature() throws InstantiableException {
+		final OpInfo info = ops.info(NaNOp.class);
+		final OpSignature signature = OpSignature.of(info);
+		assertEquals(1, signature.inputs().size());
+		assertEquals(1, signature.getRequiredInputCount());
+
+		final OpInfo indexed = new OpInfo(info.cInfo(), signature);
+		assertSame(signature, indexed.signature());
+		assertEquals("test.nan", indexed.getName());
+
+		final OpEnvironment env = new CustomOpEnvironment(ops, Collections
+			.singletonList(indexed));
+		final DoubleType value = new DoubleType(1);
+		env.run("test.nan", value);
+		assertTrue(Double.isNaN(value.get()));
+
+		try {
+			env.run("test.nan", value, value);
+			fail("Expected too many arguments");
+		}
+		catch (final IllegalArgumentException exc) {
+			// NB: Expected; ruled out by argument count.
+		}
+	}
+
+	/** Tests that indices older than their class files are ignored. */
+	@Test
+	public void testStaleIndex() throws InstantiableException, IOException {
+		final OpSignature signature = OpSignature.of(ops.info(NaNOp.class));
+		final File classes = Files.createTempDirectory("ops-index").toFile();
+		try {
+			final File index = new File(classes, OpSignatureIndex.RESOURCE);
+			new OpSignatureIndex(Collections.singletonList(signature)).write(index);
+			final File classFile = new File(classes, NaNOp.class.getName().replace(
+				'.', '/') + ".class");
+			assertTrue(classFile.getParentFile().mkdirs());
+			assertTrue(classFile.createNewFile());
+
+			// class compiled before the index was generated
+			assertTrue(classFile.setLastModified(index.lastModified() - 10000));
+			assertNotNull(load(classes).get(NaNOp.class.getName()));
+
+			// class recompiled since the index was generated
+			assertTrue(classFile.setLastModified(index.lastModified() + 10000));
+			assertEquals(0, load(classes).size());
+		}
+		finally {
+			delete(classes);
+		}
+	}
+
+	// -- Helper methods --
+
+	private static OpSignatureIndex load(final File classes) throws IOException {
+		try (final URLClassLoader loader = new URLClassLoader(new URL[] { classes
+			.toURI().toURL() }, null))
+		{
+			return OpSignatureIndex.load(loader);
+		}
+	}
+
+	private static void delete(final File file) {
+		final File[] children = file.listFiles();
+		if (children != null) {
+			for (final File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+}
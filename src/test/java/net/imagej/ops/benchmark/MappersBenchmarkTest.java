@@ -41,9 +41,11 @@ import net.imagej.ops.map.MapUnaryComputers.IIToII;
 import net.imagej.ops.map.MapUnaryComputers.IIToIIParallel;
 import net.imagej.ops.map.MapUnaryComputers.IIToRAI;
 import net.imagej.ops.map.MapUnaryComputers.IIToRAIParallel;
+import net.imglib2.IterableInterval;
 import net.imglib2.img.Img;
 import net.imglib2.type.numeric.NumericType;
 import net.imglib2.type.numeric.integer.ByteType;
+import net.imglib2.view.Views;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -64,6 +66,8 @@ public class MappersBenchmarkTest extends AbstractOpBenchmark {
 
 	private Img<ByteType> in;
 	private Img<ByteType> out;
+	private IterableInterval<ByteType> inView;
+	private IterableInterval<ByteType> outView;
 	private Op addConstant;
 	private Op addConstantInplace;
 
@@ -75,6 +79,10 @@ public class MappersBenchmarkTest extends AbstractOpBenchmark {
 	public void initImg() {
 		in = generateByteArrayTestImg(true, 1000, 1000);
 		out = generateByteArrayTestImg(false, 1000, 1000);
+		inView = Views.iterable(Views.interval(in, new long[] { 1, 1 },
+			new long[] { 998, 998 }));
+		outView = Views.iterable(Views.interval(out, new long[] { 1, 1 },
+			new long[] { 998, 998 }));
 
 		addConstant =
 			ops.op(Ops.Math.Add.class, null, NumericType.class,
@@ -105,6 +113,11 @@ public class MappersBenchmarkTest extends AbstractOpBenchmark {
 			addConstant);
 	}
 
+	@Test
+	public void pixelWiseTestThreadedMapperView() {
+		ops.run(IIToIIParallel.class, outView, inView, addConstant);
+	}
+
 	@Test
 	public void pixelWiseTestMapperInplace() {
 		ops.run(MapIterableInplace.class, in, addConstantInplace);
@@ -0,0 +1,76 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.benchmark;
+
+import net.imagej.ops.OpEnvironment;
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.computer.BinaryComputerOp;
+import net.imglib2.type.numeric.real.DoubleType;
+
+import org.junit.Test;
+
+/**
+ * Benchmarks repeated calls of a cheap op through {@link OpEnvironment#run}
+ * against calls through a bound handle obtained from
+ * {@link OpEnvironment#binaryComputer}.
+ */
+public class OpHandleBenchmarkTest extends AbstractOpBenchmark {
+
+	private static final int CALLS = 100000;
+
+	@Test
+	public void addRunVersusHandle() {
+		final DoubleType in1 = new DoubleType(1);
+		final DoubleType in2 = new DoubleType(2);
+		final DoubleType out = new DoubleType();
+
+		final BinaryComputerOp<DoubleType, DoubleType, DoubleType> add = ops
+			.binaryComputer(Ops.Math.Add.class, DoubleType.class, DoubleType.class,
+				DoubleType.class);
+
+		final long run = bestOf(() -> {
+			for (int i = 0; i < CALLS; i++) {
+				ops.run(Ops.Math.Add.class, out, in1, in2);
+			}
+		}, 5);
+		final long handle = bestOf(() -> {
+			for (int i = 0; i < CALLS; i++) {
+				add.compute(in1, in2, out);
+			}
+		}, 5);
+
+		System.out.println("[" + CALLS + " x ops.run(add)]: " + asMilliSeconds(
+			run) + "ms !");
+		System.out.println("[" + CALLS + " x handle.compute(add)]: " +
+			asMilliSeconds(handle) + "ms !");
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.benchmark;
+
+import net.imagej.ops.OpService;
+import net.imagej.ops.OpSignatureIndex;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.type.numeric.real.FloatType;
+
+import org.junit.Test;
+import org.scijava.Context;
+
+/**
+ * Benchmarks the time from creating a fresh {@link Context} to the result of a
+ * first {@code ops.filter().gauss(...)} call, with and without the
+ * {@link OpSignatureIndex} generated at build time.
+ * <p>
+ * NB: All runs share one JVM, so class loading is only paid for once. What is
+ * measured is the per-context cost of discovering and matching the ops.
+ * </p>
+ */
+public class OpStartupBenchmarkTest extends AbstractOpBenchmark {
+
+	private static final String PROPERTY = "imagej.ops.signatures";
+
+	@Test
+	public void gaussColdStart() {
+		final Img<FloatType> img = ArrayImgs.floats(256, 256);
+
+		// NB: Warm up the class loading.
+		gauss(img);
+
+		final String previous = System.getProperty(PROPERTY);
+		final long withIndex = bestOf(() -> gauss(img), 10);
+		System.setProperty(PROPERTY, "disabled");
+		final long withoutIndex;
+		try {
+			withoutIndex = bestOf(() -> gauss(img), 10);
+		}
+		finally {
+			if (previous == null) System.clearProperty(PROPERTY);
+			else System.setProperty(PROPERTY, previous);
+		}
+
+		System.out.println("[gauss cold start with signature index]: " +
+			asMilliSeconds(withIndex) + "ms !");
+		System.out.println("[gauss cold start without signature index]: " +
+			asMilliSeconds(withoutIndex) + "ms !");
+	}
+
+	private void gauss(final Img<FloatType> img) {
+		final Context context = new Context(OpService.class);
+		try {
+			context.getService(OpService.class).filter().gauss(img, 2.0);
+		}
+		finally {
+			context.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,184 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.stats.DefaultQuantile;
+import net.imglib2.IterableInterval;
+import net.imglib2.algorithm.neighborhood.Neighborhood;
+import net.imglib2.algorithm.neighborhood.RectangleShape;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.view.Views;
+
+import org.junit.Test;
+
+/**
+ * Benchmarks {@link DefaultQuantile} against the former implementation, which
+ * boxed every sample into an {@link ArrayList} before selecting the quantile.
+ */
+public class QuantileBenchmarkTest extends AbstractOpBenchmark {
+
+	@Test
+	public void medianOfNeighborhoods() {
+		final Img<UnsignedByteType> img =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 512,
+				512 }, 1234567890L);
+		final IterableInterval<Neighborhood<UnsignedByteType>> neighborhoods =
+			new RectangleShape(2, false).neighborhoods(Views.interval(Views
+				.extendMirrorSingle(img), img));
+
+		final UnaryComputerOp<Iterable<UnsignedByteType>, DoubleType> median =
+			quantile(neighborhoods.firstElement());
+		final DoubleType out = new DoubleType();
+
+		final long primitive = bestOf(() -> {
+			for (final Neighborhood<UnsignedByteType> n : neighborhoods) {
+				median.compute(n, out);
+			}
+		}, 5);
+		final long boxed = bestOf(() -> {
+			for (final Neighborhood<UnsignedByteType> n : neighborhoods) {
+				boxedQuantile(n, 0.5);
+			}
+		}, 5);
+
+		System.out.println("[5x5 medians of 512x512 (primitive)]: " +
+			asMilliSeconds(primitive) + "ms !");
+		System.out.println("[5x5 medians of 512x512 (boxed)]: " + asMilliSeconds(
+			boxed) + "ms !");
+	}
+
+	@Test
+	public void medianOfImage() {
+		final Img<UnsignedByteType> bytes =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 2000,
+				2000 }, 1234567890L);
+		final Img<FloatType> floats = ops.convert().float32(bytes);
+
+		final UnaryComputerOp<Iterable<UnsignedByteType>, DoubleType> byteMedian =
+			quantile(bytes);
+		final UnaryComputerOp<Iterable<FloatType>, DoubleType> floatMedian =
+			quantile(floats);
+		final DoubleType out = new DoubleType();
+
+		final long counted = bestOf(() -> byteMedian.compute(bytes, out), 5);
+		final long selected = bestOf(() -> floatMedian.compute(floats, out), 5);
+		final long boxed = bestOf(() -> boxedQuantile(floats, 0.5), 5);
+
+		System.out.println("[median of 2000x2000 uint8 (counting)]: " +
+			asMilliSeconds(counted) + "ms !");
+		System.out.println("[median of 2000x2000 float32 (primitive)]: " +
+			asMilliSeconds(selected) + "ms !");
+		System.out.println("[median of 2000x2000 float32 (boxed)]: " +
+			asMilliSeconds(boxed) + "ms !");
+	}
+
+	// -- Helper methods --
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private <T> UnaryComputerOp<Iterable<T>, DoubleType> quantile(
+		final Iterable<T> in)
+	{
+		return (UnaryComputerOp) ops.op(Ops.Stats.Quantile.class, DoubleType.class,
+			in, 0.5);
+	}
+
+	/** The former, boxing implementation of {@link DefaultQuantile}. */
+	private static <T extends RealType<T>> double
+		boxedQuantile(final Iterable<T> input, final double quantile)
+	{
+		final ArrayList<Double> statistics = new ArrayList<>();
+		for (final T t : input) {
+			statistics.add(t.getRealDouble());
+		}
+		return select(statistics, 0, statistics.size() - 1, (int) (statistics
+			.size() * quantile));
+	}
+
+	private static double select(final ArrayList<Double> array,
+		final int inLeft, final int inRight, final int k)
+	{
+		int left = inLeft;
+		int right = inRight;
+
+		while (true) {
+			if (right <= left + 1) {
+				if (right == left + 1 && array.get(right) < array.get(left)) {
+					swap(array, left, right);
+				}
+				return array.get(k);
+			}
+			final int middle = (left + right) >>> 1;
+			swap(array, middle, left + 1);
+			if (array.get(left) > array.get(right)) swap(array, left, right);
+			if (array.get(left + 1) > array.get(right)) swap(array, left + 1, right);
+			if (array.get(left) > array.get(left + 1)) swap(array, left, left + 1);
+
+			int i = left + 1;
+			int j = right;
+			final double pivot = array.get(left + 1);
+
+			while (true) {
+				do
+					++i;
+				while (array.get(i) < pivot);
+				do
+					--j;
+				while (array.get(j) > pivot);
+				if (j < i) break;
+				swap(array, i, j);
+			}
+
+			array.set(left + 1, array.get(j));
+			array.set(j, pivot);
+
+			if (j >= k) right = j - 1;
+			if (j <= k) left = i;
+		}
+	}
+
+	private static void swap(final List<Double> array, final int a,
+		final int b)
+	{
+		final double temp = array.get(a);
+		array.set(a, array.get(b));
+		array.set(b, temp);
+	}
+
+}
@@ -39,7 +39,9 @@ import net.imagej.ops.AbstractOpTest;
 import net.imagej.ops.Op;
 import net.imagej.ops.OpInfo;
 import net.imagej.ops.Ops;
+import net.imagej.ops.special.function.BinaryFunctionOp;
 import net.imagej.ops.special.function.Functions;
+import net.imagej.ops.special.hybrid.AbstractBinaryHybridCF;
 import net.imagej.ops.special.function.UnaryFunctionOp;
 import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
 import net.imagej.ops.special.hybrid.Hybrids;
@@ -76,6 +78,7 @@ public class CachedOpEnvironmentTest extends AbstractOpTest {
 		final ArrayList<OpInfo> customOps = new ArrayList<>();
 		customOps.add(new OpInfo(MyMin.class));
 		customOps.add(new OpInfo(MyOptionalParameterOp.class));
+		customOps.add(new OpInfo(MyBinaryOp.class));
 
 		env = new CachedOpEnvironment(ops, customOps);
 
@@ -119,6 +122,68 @@ public class CachedOpEnvironmentTest extends AbstractOpTest {
 		assertSame(result, sameResult);
 	}
 
+	@Test
+	public void testCachingBinaryFunction() {
+		final BinaryFunctionOp<DoubleType, DoubleType, DoubleType> binary =
+			Functions.binary(env, BinaryCountOp.class, DoubleType.class,
+				DoubleType.class, DoubleType.class);
+		ctr = 0;
+
+		assertEquals(3.0, binary.calculate(new DoubleType(1), new DoubleType(2))
+			.get(), 0.0);
+		assertEquals(3.0, binary.calculate(new DoubleType(1), new DoubleType(2))
+			.get(), 0.0);
+		assertEquals(1, ctr);
+
+		// Should be recomputed for different inputs
+		assertEquals(4.0, binary.calculate(new DoubleType(2), new DoubleType(2))
+			.get(), 0.0);
+		assertEquals(2, ctr);
+	}
+
+	@Test
+	public void testContentAware() {
+		env.setContentAware(true);
+		ctr = 0;
+
+		// imgB has the same content as imgA, so it should not be recomputed
+		assertEquals(1.0, func.calculate(imgA).get(), 0.0);
+		assertEquals(1.0, func.calculate(imgB).get(), 0.0);
+	}
+
+	@Test
+	public void testStatsShareSummary() {
+		final UnaryFunctionOp<Img<ByteType>, DoubleType> kurtosis = Functions
+			.unary(env, Ops.Stats.Kurtosis.class, DoubleType.class, imgA);
+		final UnaryFunctionOp<Img<ByteType>, DoubleType> skewness = Functions
+			.unary(env, Ops.Stats.Skewness.class, DoubleType.class, imgA);
+		env.getResultCache().resetStatistics();
+
+		assertEquals(((DoubleType) ops.run(Ops.Stats.Kurtosis.class, imgA)).get(),
+			kurtosis.calculate(imgA).get(), 1e-9);
+		assertEquals(((DoubleType) ops.run(Ops.Stats.Skewness.class, imgA)).get(),
+			skewness.calculate(imgA).get(), 1e-9);
+
+		// the skewness reuses the summary computed for the kurtosis
+		assertEquals(1, env.getResultCache().getHits());
+	}
+
+	@Test
+	public void testBudget() {
+		final ResultCache cache = env.getResultCache();
+		cache.setBudget(ResultCache.weigh(new DoubleType()));
+		ctr = 0;
+
+		// Only room for one result; the least recently used one is evicted
+		assertEquals(1.0, func.calculate(imgA).get(), 0.0);
+		assertEquals(2.0, func.calculate(imgB).get(), 0.0);
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getEvictions());
+		assertEquals(3.0, func.calculate(imgA).get(), 0.0);
+		assertEquals(0, cache.getHits());
+		assertEquals(3, cache.getMisses());
+	}
+
 	// some specialized ops to track number of counts
 	public static class MyMin extends AbstractUnaryHybridCF<Img<ByteType>, DoubleType>
 		implements Ops.Stats.Min
@@ -137,6 +202,32 @@ public class CachedOpEnvironmentTest extends AbstractOpTest {
 
 	}
 
+	private interface BinaryCountOp extends Op {
+		String NAME = "test.cached.binary";
+	}
+
+	public static class MyBinaryOp extends
+		AbstractBinaryHybridCF<DoubleType, DoubleType, DoubleType> implements
+		BinaryCountOp
+	{
+
+		@Override
+		public DoubleType createOutput(final DoubleType input1,
+			final DoubleType input2)
+		{
+			return new DoubleType();
+		}
+
+		@Override
+		public void compute(final DoubleType input1, final DoubleType input2,
+			final DoubleType output)
+		{
+			ctr++;
+			output.set(input1.get() + input2.get());
+		}
+
+	}
+
 	private interface OptionalParameterOp extends Op {
 		String name = "optional.parameter.op";
 	}
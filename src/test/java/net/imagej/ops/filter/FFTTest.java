@@ -30,9 +30,12 @@
 package net.imagej.ops.filter;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.filter.fft.FFTMethodsOpC;
 import net.imagej.ops.filter.fft.FFTMethodsOpF;
+import net.imagej.ops.filter.fft.FloatFFTMethods;
 import net.imagej.ops.filter.fftSize.ComputeFFTSize;
 import net.imagej.ops.filter.ifft.IFFTMethodsOpC;
 import net.imagej.ops.filter.pad.PadShiftKernel;
@@ -42,8 +45,10 @@ import net.imglib2.FinalDimensions;
 import net.imglib2.IterableInterval;
 import net.imglib2.Point;
 import net.imglib2.RandomAccessibleInterval;
+import net.imglib2.algorithm.fft2.FFTMethods;
 import net.imglib2.algorithm.region.hypersphere.HyperSphere;
 import net.imglib2.img.Img;
+import net.imglib2.img.cell.CellImgFactory;
 import net.imglib2.type.numeric.complex.ComplexDoubleType;
 import net.imglib2.type.numeric.complex.ComplexFloatType;
 import net.imglib2.type.numeric.real.FloatType;
@@ -203,6 +208,71 @@ public class FFTTest extends AbstractOpTest {
 
 	}
 
+	/**
+	 * test that the float FFT on the storage of an array spectrum agrees with
+	 * FFTMethods, which is still used for a spectrum stored in cells
+	 */
+	@Test
+	public void testFloatFFTMatchesFFTMethods() {
+		final long[] dimensions = new long[] { 16, 12, 10 };
+		final long[] fftDimensions = new long[] { 9, 12, 10 };
+		final Img<FloatType> in = generateFloatArrayTestImg(true, dimensions);
+
+		final Img<ComplexFloatType> arrayFFT = ops.create().img(
+			new FinalDimensions(fftDimensions), new ComplexFloatType());
+		final Img<ComplexFloatType> cellFFT = new CellImgFactory<ComplexFloatType>(
+			4).create(fftDimensions, new ComplexFloatType());
+		ops.run(FFTMethodsOpC.class, arrayFFT, in);
+		ops.run(FFTMethodsOpC.class, cellFFT, in);
+
+		final Cursor<ComplexFloatType> c1 = Views.flatIterable(arrayFFT).cursor();
+		final Cursor<ComplexFloatType> c2 = Views.flatIterable(cellFFT).cursor();
+		while (c1.hasNext()) {
+			c1.fwd();
+			c2.fwd();
+			assertEquals(c2.get().getRealFloat(), c1.get().getRealFloat(), 0.001f);
+			assertEquals(c2.get().getImaginaryFloat(), c1.get()
+				.getImaginaryFloat(), 0.001f);
+		}
+
+		// the inverse into the full size gives back the input
+		final Img<FloatType> inverse = generateFloatArrayTestImg(false,
+			dimensions);
+		ops.run(IFFTMethodsOpC.class, inverse, arrayFFT);
+		assertImagesEqual(in, inverse, .00005f);
+
+		// the inverse into a smaller size is cropped like FFTMethods does it
+		final long[] cropped = new long[] { 13, 11, 10 };
+		ops.run(FFTMethodsOpC.class, arrayFFT, in);
+		final Img<FloatType> arrayInverse = generateFloatArrayTestImg(false,
+			cropped);
+		final Img<FloatType> cellInverse = generateFloatArrayTestImg(false,
+			cropped);
+		ops.run(IFFTMethodsOpC.class, arrayInverse, arrayFFT);
+		ops.run(IFFTMethodsOpC.class, cellInverse, cellFFT);
+		assertImagesEqual(cellInverse, arrayInverse, .00005f);
+	}
+
+	/**
+	 * test that repeated transforms of one size reuse their workspaces
+	 */
+	@Test
+	public void testWorkspaceReuse() {
+		final long[] padded = new long[2];
+		final long[] fft = new long[2];
+		FFTMethods.dimensionsRealToComplexFast(new FinalDimensions(97, 61), padded,
+			fft);
+
+		// a second transform of the same size finds its workspace set up
+		final Img<FloatType> in = generateFloatArrayTestImg(true, padded);
+		final Img<ComplexFloatType> out = ops.create().img(new FinalDimensions(
+			fft), new ComplexFloatType());
+		ops.run(FFTMethodsOpC.class, out, in);
+		final long workspaceHits = FloatFFTMethods.getWorkspaceHits();
+		ops.run(FFTMethodsOpC.class, out, in);
+		assertTrue(FloatFFTMethods.getWorkspaceHits() > workspaceHits);
+	}
+
 	/**
 	 * utility that places a sphere in the center of the image
 	 * 
@@ -31,29 +31,42 @@
 package net.imagej.ops.filter;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Random;
 
 import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
 import net.imagej.ops.filter.max.DefaultMaxFilter;
 import net.imagej.ops.filter.max.MaxFilterOp;
+import net.imagej.ops.filter.max.VanHerkMaxFilter;
+import net.imagej.ops.filter.mean.BoxMeanFilter;
 import net.imagej.ops.filter.mean.DefaultMeanFilter;
 import net.imagej.ops.filter.mean.MeanFilterOp;
 import net.imagej.ops.filter.median.DefaultMedianFilter;
 import net.imagej.ops.filter.median.MedianFilterOp;
+import net.imagej.ops.filter.median.SlidingMedianFilter;
 import net.imagej.ops.filter.min.DefaultMinFilter;
 import net.imagej.ops.filter.min.MinFilterOp;
+import net.imagej.ops.filter.min.VanHerkMinFilter;
 import net.imagej.ops.filter.sigma.DefaultSigmaFilter;
 import net.imagej.ops.filter.sigma.SigmaFilterOp;
 import net.imagej.ops.filter.variance.DefaultVarianceFilter;
 import net.imagej.ops.filter.variance.VarianceFilterOp;
+import net.imglib2.Cursor;
 import net.imglib2.algorithm.neighborhood.RectangleShape;
 import net.imglib2.algorithm.neighborhood.RectangleShape.NeighborhoodsIterableInterval;
 import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
 import net.imglib2.outofbounds.OutOfBoundsMirrorFactory;
 import net.imglib2.outofbounds.OutOfBoundsMirrorFactory.Boundary;
+import net.imglib2.type.numeric.RealType;
 import net.imglib2.type.numeric.integer.ByteType;
+import net.imglib2.type.numeric.integer.UnsignedShortType;
+import net.imglib2.type.numeric.real.FloatType;
 import net.imglib2.util.Util;
 import net.imglib2.view.Views;
 
@@ -105,6 +118,22 @@ public class NonLinearFiltersTest extends AbstractOpTest {
 		assertEquals(out.firstElement().get(), max);
 	}
 
+	@Test
+	public void testVanHerkMaxFilter() {
+		assertSameFilter(DefaultMaxFilter.class, VanHerkMaxFilter.class,
+			generateByteArrayTestImg(true, 23, 17), generateByteArrayTestImg(false,
+				23, 17), generateByteArrayTestImg(false, 23, 17), new RectangleShape(3,
+					false), 0);
+		assertSameFilter(DefaultMaxFilter.class, VanHerkMaxFilter.class,
+			generateByteArrayTestImg(true, 9, 8, 7), generateByteArrayTestImg(false,
+				9, 8, 7), generateByteArrayTestImg(false, 9, 8, 7), new RectangleShape(
+					2, false), 0);
+		assertSameFilter(DefaultMaxFilter.class, VanHerkMaxFilter.class,
+			generateFloatArrayTestImg(true, 23, 17), generateFloatArrayTestImg(false,
+				23, 17), generateFloatArrayTestImg(false, 23, 17), new RectangleShape(5,
+					false), 0);
+	}
+
 	/**
 	 * @see MeanFilterOp
 	 * @see DefaultMeanFilter
@@ -124,6 +153,29 @@ public class NonLinearFiltersTest extends AbstractOpTest {
 		assertEquals(Util.round(sum / 9.0), out.firstElement().get());
 	}
 
+	/**
+	 * @see BoxMeanFilter
+	 */
+	@Test
+	public void testBoxMeanFilter() {
+		assertSameFilter(DefaultMeanFilter.class, BoxMeanFilter.class,
+			generateByteArrayTestImg(true, 23, 17), generateByteArrayTestImg(false,
+				23, 17), generateByteArrayTestImg(false, 23, 17), new RectangleShape(3,
+					false), 0);
+		assertSameFilter(DefaultMeanFilter.class, BoxMeanFilter.class,
+			generateByteArrayTestImg(true, 23, 17), generateByteArrayTestImg(false,
+				23, 17), generateByteArrayTestImg(false, 23, 17), new RectangleShape(3,
+					true), 0);
+		assertSameFilter(DefaultMeanFilter.class, BoxMeanFilter.class,
+			generateByteArrayTestImg(true, 9, 8, 7), generateByteArrayTestImg(false,
+				9, 8, 7), generateByteArrayTestImg(false, 9, 8, 7), new RectangleShape(
+					2, false), 0);
+		assertSameFilter(DefaultMeanFilter.class, BoxMeanFilter.class,
+			generateFloatArrayTestImg(true, 23, 17), generateFloatArrayTestImg(false,
+				23, 17), generateFloatArrayTestImg(false, 23, 17), new RectangleShape(5,
+					false), 1e-5);
+	}
+
 	/**
 	 * @see MedianFilterOp
 	 * @see DefaultMedianFilter
@@ -144,6 +196,51 @@ public class NonLinearFiltersTest extends AbstractOpTest {
 		assertEquals(items.get(5).get(), out.firstElement().get());
 	}
 
+	/**
+	 * @see SlidingMedianFilter
+	 */
+	@Test
+	public void testSlidingMedianFilter() {
+		// histogram window
+		assertSameFilter(DefaultMedianFilter.class, SlidingMedianFilter.class,
+			generateByteArrayTestImg(true, 23, 17), generateByteArrayTestImg(false,
+				23, 17), generateByteArrayTestImg(false, 23, 17), new RectangleShape(3,
+					false), 0);
+		assertSameFilter(DefaultMedianFilter.class, SlidingMedianFilter.class,
+			generateByteArrayTestImg(true, 9, 8, 7), generateByteArrayTestImg(false,
+				9, 8, 7), generateByteArrayTestImg(false, 9, 8, 7), new RectangleShape(
+					2, false), 0);
+
+		// histogram window with coarse bins
+		final Random random = new Random(42);
+		final Img<UnsignedShortType> shorts = ArrayImgs.unsignedShorts(31, 19);
+		for (final UnsignedShortType t : shorts) {
+			t.set(random.nextInt(65536));
+		}
+		assertSameFilter(DefaultMedianFilter.class, SlidingMedianFilter.class,
+			shorts, ArrayImgs.unsignedShorts(31, 19), ArrayImgs.unsignedShorts(31,
+				19), new RectangleShape(4, false), 0);
+
+		// sorted window
+		assertSameFilter(DefaultMedianFilter.class, SlidingMedianFilter.class,
+			generateFloatArrayTestImg(true, 23, 17), generateFloatArrayTestImg(false,
+				23, 17), generateFloatArrayTestImg(false, 23, 17), new RectangleShape(2,
+					false), 0);
+
+		// sorted windows with large slabs are left to DefaultMedianFilter
+		final Img<FloatType> floats = generateFloatArrayTestImg(true, 23, 17);
+		assertSame(SlidingMedianFilter.class, ops.op(Ops.Filter.Median.class,
+			generateFloatArrayTestImg(false, 23, 17), floats, new RectangleShape(2,
+				false)).getClass());
+		assertSame(DefaultMedianFilter.class, ops.op(Ops.Filter.Median.class,
+			generateFloatArrayTestImg(false, 23, 17), floats, new RectangleShape(3,
+				false)).getClass());
+		final Img<FloatType> volume = generateFloatArrayTestImg(true, 9, 8, 7);
+		assertSame(DefaultMedianFilter.class, ops.op(Ops.Filter.Median.class,
+			generateFloatArrayTestImg(false, 9, 8, 7), volume, new RectangleShape(1,
+				false)).getClass());
+	}
+
 	/**
 	 * @see MinFilterOp
 	 * @see DefaultMinFilter
@@ -162,6 +259,22 @@ public class NonLinearFiltersTest extends AbstractOpTest {
 		assertEquals(min, out.firstElement().get());
 	}
 
+	@Test
+	public void testVanHerkMinFilter() {
+		assertSameFilter(DefaultMinFilter.class, VanHerkMinFilter.class,
+			generateByteArrayTestImg(true, 23, 17), generateByteArrayTestImg(false,
+				23, 17), generateByteArrayTestImg(false, 23, 17), new RectangleShape(3,
+					false), 0);
+		assertSameFilter(DefaultMinFilter.class, VanHerkMinFilter.class,
+			generateByteArrayTestImg(true, 9, 8, 7), generateByteArrayTestImg(false,
+				9, 8, 7), generateByteArrayTestImg(false, 9, 8, 7), new RectangleShape(
+					2, false), 0);
+		assertSameFilter(DefaultMinFilter.class, VanHerkMinFilter.class,
+			generateFloatArrayTestImg(true, 23, 17), generateFloatArrayTestImg(false,
+				23, 17), generateFloatArrayTestImg(false, 23, 17), new RectangleShape(5,
+					false), 0);
+	}
+
 	/**
 	 * @see SigmaFilterOp
 	 * @see DefaultSigmaFilter
@@ -192,4 +305,23 @@ public class NonLinearFiltersTest extends AbstractOpTest {
 		assertEquals((byte)Util.round((sumSq - (sum * sum / 9)) / 8), out.firstElement().get());
 	}
 
+	// -- Helper methods --
+
+	private <T extends RealType<T>> void assertSameFilter(
+		final Class<? extends Op> expectedOp, final Class<? extends Op> actualOp,
+		final Img<T> img, final Img<T> expected, final Img<T> actual,
+		final RectangleShape shape, final double delta)
+	{
+		final OutOfBoundsMirrorFactory<T, Img<T>> oob =
+			new OutOfBoundsMirrorFactory<>(Boundary.SINGLE);
+		ops.run(expectedOp, expected, img, shape, oob);
+		ops.run(actualOp, actual, img, shape, oob);
+
+		final Cursor<T> e = expected.cursor();
+		final Cursor<T> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().getRealDouble(), a.next().getRealDouble(), delta);
+		}
+	}
+
 }
@@ -35,13 +35,18 @@ import static org.junit.Assert.assertSame;
 
 import net.imagej.ops.AbstractOpTest;
 import net.imagej.ops.Op;
+import net.imagej.ops.OpMatchingService;
+import net.imagej.ops.OpService;
 import net.imagej.ops.Ops;
+import net.imagej.ops.cached.ResultCache;
+import net.imagej.ops.filter.KernelFFTCacheService;
 import net.imagej.ops.filter.fft.CreateOutputFFTMethods;
 import net.imagej.ops.filter.pad.PadInputFFTMethods;
 import net.imagej.ops.filter.pad.PadShiftKernelFFTMethods;
 import net.imagej.ops.special.function.BinaryFunctionOp;
 import net.imagej.ops.special.function.Functions;
 import net.imagej.ops.special.function.UnaryFunctionOp;
+import net.imglib2.Cursor;
 import net.imglib2.Dimensions;
 import net.imglib2.FinalDimensions;
 import net.imglib2.Point;
@@ -50,6 +55,7 @@ import net.imglib2.RandomAccessibleInterval;
 import net.imglib2.algorithm.region.hypersphere.HyperSphere;
 import net.imglib2.img.Img;
 import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.img.cell.CellImgFactory;
 import net.imglib2.type.numeric.complex.ComplexFloatType;
 import net.imglib2.type.numeric.integer.ByteType;
 import net.imglib2.type.numeric.real.DoubleType;
@@ -57,12 +63,20 @@ import net.imglib2.type.numeric.real.FloatType;
 import net.imglib2.view.Views;
 
 import org.junit.Test;
+import org.scijava.Context;
+import org.scijava.cache.CacheService;
 
 /**
  * Tests involving convolvers.
  */
 public class ConvolveTest extends AbstractOpTest {
 
+	@Override
+	protected Context createContext() {
+		return new Context(OpService.class, OpMatchingService.class,
+			CacheService.class, KernelFFTCacheService.class);
+	}
+
 	/** Tests that the correct convolver is selected when using a small kernel. */
 	@Test
 	public void testConvolveMethodSelection() {
@@ -214,6 +228,99 @@ public class ConvolveTest extends AbstractOpTest {
 		assertEquals(size[0], out2.dimension(0));
 	}
 
+	/** tests that repeated convolutions reuse the spectrum of the kernel */
+	@Test
+	public void testConvolveKernelFFTCache() {
+		final ResultCache cache = context.getService(KernelFFTCacheService.class)
+			.getCache().getResultCache();
+
+		final Img<FloatType> in = new ArrayImgFactory<FloatType>().create(
+			new int[] { 64, 48 }, new FloatType());
+		placeSphereInCenter(in);
+
+		final Img<FloatType> kernel = new ArrayImgFactory<FloatType>().create(
+			new int[] { 15, 11 }, new FloatType());
+		placeSphereInCenter(kernel);
+
+		@SuppressWarnings("unchecked")
+		final Img<FloatType> out1 = (Img<FloatType>) ops.run(ConvolveFFTF.class, in,
+			kernel);
+		final long hits = cache.getHits();
+		@SuppressWarnings("unchecked")
+		final Img<FloatType> out2 = (Img<FloatType>) ops.run(ConvolveFFTF.class, in,
+			kernel);
+		assertEquals(hits + 1, cache.getHits());
+		assertIterationsEqual(out1, out2);
+
+		// a modified kernel must be transformed again
+		kernel.firstElement().set(1);
+		final long misses = cache.getMisses();
+		ops.run(ConvolveFFTF.class, in, kernel);
+		assertEquals(misses + 1, cache.getMisses());
+	}
+
+	/** Tests that disposing the context frees the cached kernel spectra. */
+	@Test
+	public void testKernelFFTCacheDisposal() {
+		final Context c = new Context(OpService.class,
+			KernelFFTCacheService.class);
+		final ResultCache cache = c.getService(KernelFFTCacheService.class)
+			.getCache().getResultCache();
+
+		final Img<FloatType> in = new ArrayImgFactory<FloatType>().create(
+			new int[] { 32, 32 }, new FloatType());
+		final Img<FloatType> kernel = new ArrayImgFactory<FloatType>().create(
+			new int[] { 5, 5 }, new FloatType());
+		placeSphereInCenter(kernel);
+		c.getService(OpService.class).run(ConvolveFFTF.class, in, kernel);
+		assertEquals(1, cache.size());
+
+		c.dispose();
+		assertEquals(0, cache.size());
+	}
+
+	/** Tests that the tiled convolution agrees with the whole-image one. */
+	@Test
+	public void testConvolveFFTTiled() {
+		final Img<FloatType> in = new ArrayImgFactory<FloatType>().create(
+			new int[] { 100, 70 }, new FloatType());
+		final Cursor<FloatType> c = in.localizingCursor();
+		while (c.hasNext()) {
+			c.fwd();
+			c.get().setReal((c.getIntPosition(0) * 7 + c.getIntPosition(1) * 3) %
+				17);
+		}
+
+		final Img<FloatType> kernel = new ArrayImgFactory<FloatType>().create(
+			new int[] { 9, 7 }, new FloatType());
+		placeSphereInCenter(kernel);
+
+		@SuppressWarnings("unchecked")
+		final Img<FloatType> expected = (Img<FloatType>) ops.run(
+			ConvolveFFTF.class, in, kernel);
+
+		// a small budget forces several tiles in each dimension
+		final long budget = 16 * 32 * 32;
+		final Img<FloatType> arrayOut = ops.create().img(in);
+		ops.run(ConvolveFFTTiled.class, arrayOut, in, kernel, budget);
+		assertSimilar(expected, arrayOut, 1e-3);
+
+		final Img<FloatType> cellOut = new CellImgFactory<FloatType>(16).create(
+			in, new FloatType());
+		ops.run(ConvolveFFTTiled.class, cellOut, in, kernel, budget);
+		assertSimilar(expected, cellOut, 1e-3);
+	}
+
+	private void assertSimilar(final Img<FloatType> expected,
+		final Img<FloatType> actual, final double delta)
+	{
+		final Cursor<FloatType> e = Views.flatIterable(expected).cursor();
+		final Cursor<FloatType> a = Views.flatIterable(actual).cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().get(), a.next().get(), delta);
+		}
+	}
+
 	// utility to place a small sphere at the center of the image
 	private void placeSphereInCenter(Img<FloatType> img) {
 
@@ -0,0 +1,138 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.image.histogram;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imglib2.histogram.Histogram1d;
+import net.imglib2.histogram.Real1dBinMapper;
+import net.imglib2.img.Img;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.util.Pair;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link HistogramCreate} and {@link BoundedHistogramCreate} against
+ * histograms counted by {@link Histogram1d#countData}.
+ */
+public class HistogramCreateTest extends AbstractOpTest {
+
+	@Test
+	public void testIntegerImage() {
+		// 8-bit pixels outnumber their value range: counted by value
+		final Img<UnsignedByteType> img =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 100,
+				100 }, 1234567890L);
+		assertSameCounts(img, ops.image().histogram(img, 64), 64);
+	}
+
+	@Test
+	public void testRealImage() {
+		final Img<FloatType> img = generateFloatArrayTestImg(true, 100, 100);
+		assertSameCounts(img, ops.image().histogram(img, 100), 100);
+	}
+
+	@Test
+	public void testLargeImages() {
+		// large enough to be counted in parallel
+		final Img<UnsignedByteType> bytes =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 1024,
+				512 }, 42L);
+		assertSameCounts(bytes, ops.image().histogram(bytes), 256);
+
+		final Img<FloatType> floats = generateFloatArrayTestImg(true, 1024, 512);
+		assertSameCounts(floats, ops.image().histogram(floats), 256);
+	}
+
+	@Test
+	public void testBounds() {
+		final Img<UnsignedByteType> img =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 100,
+				100 }, 1234567890L);
+		final Histogram1d<UnsignedByteType> expected = new Histogram1d<>(img,
+			new Real1dBinMapper<UnsignedByteType>(0, 255, 256, false));
+		assertArrayEquals(expected.toLongArray(), ops.image().histogram(img, 256,
+			0, 255).toLongArray());
+
+		// values outside of the bounds are ignored
+		final Histogram1d<UnsignedByteType> clipped = new Histogram1d<>(img,
+			new Real1dBinMapper<UnsignedByteType>(50, 150, 10, false));
+		assertArrayEquals(clipped.toLongArray(), ops.image().histogram(img, 10, 50,
+			150).toLongArray());
+	}
+
+	@Test
+	public void testBoundsIgnoredCount() {
+		// counted by value
+		final Img<UnsignedByteType> bytes =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 100,
+				100 }, 1234567890L);
+		assertSameTotals(new Histogram1d<>(bytes,
+			new Real1dBinMapper<UnsignedByteType>(50, 150, 10, false)), ops.image()
+				.histogram(bytes, 10, 50, 150));
+
+		// counted in parallel
+		final Img<FloatType> floats = generateFloatArrayTestImg(true, 1024, 512);
+		final Pair<FloatType, FloatType> minMax = ops.stats().minMax(floats);
+		final double lo = minMax.getA().getRealDouble();
+		final double hi = minMax.getB().getRealDouble();
+		final double mid = (lo + hi) / 2;
+		assertSameTotals(new Histogram1d<>(floats, new Real1dBinMapper<FloatType>(
+			lo, mid, 16, false)), ops.image().histogram(floats, 16, lo, mid));
+	}
+
+	// -- Helper methods --
+
+	private <T extends RealType<T>> void assertSameCounts(final Img<T> img,
+		final Histogram1d<T> actual, final int numBins)
+	{
+		final Pair<T, T> minMax = ops.stats().minMax(img);
+		final Histogram1d<T> expected = new Histogram1d<>(img,
+			new Real1dBinMapper<T>(minMax.getA().getRealDouble(), minMax.getB()
+				.getRealDouble(), numBins, false));
+		assertArrayEquals(expected.toLongArray(), actual.toLongArray());
+	}
+
+	private <T extends RealType<T>> void assertSameTotals(
+		final Histogram1d<T> expected, final Histogram1d<T> actual)
+	{
+		assertArrayEquals(expected.toLongArray(), actual.toLongArray());
+		assertEquals(expected.totalCount(), actual.totalCount());
+		assertEquals(expected.distributionCount(), actual.distributionCount());
+		assertEquals(expected.ignoredCount(), actual.ignoredCount());
+	}
+
+}
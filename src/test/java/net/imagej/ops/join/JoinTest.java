@@ -43,6 +43,7 @@ import net.imagej.ops.special.UnaryOutputFactory;
 import net.imagej.ops.special.computer.AbstractUnaryComputerOp;
 import net.imagej.ops.special.computer.Computers;
 import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imagej.ops.special.hybrid.AbstractUnaryHybridCF;
 import net.imagej.ops.special.inplace.AbstractUnaryInplaceOp;
 import net.imagej.ops.special.inplace.Inplaces;
 import net.imagej.ops.special.inplace.UnaryInplaceOp;
@@ -151,6 +152,93 @@ public class JoinTest extends AbstractOpTest {
 		}
 	}
 
+	@Test
+	public void testJoinNMapsFused() {
+		final List<UnaryComputerOp<Img<ByteType>, Img<ByteType>>> computers =
+			new ArrayList<>();
+
+		for (int i = 0; i < 3; i++) {
+			computers.add(computerOp);
+		}
+
+		final CountingFactory outputFactory = new CountingFactory();
+
+		ops.run(DefaultJoinNComputers.class, out, in, computers, outputFactory);
+
+		// test
+		final Cursor<ByteType> c = out.cursor();
+
+		while (c.hasNext()) {
+			assertEquals(3, c.next().get());
+		}
+		assertEquals(0, outputFactory.count);
+	}
+
+	@Test
+	public void testJoin2MapsFused() {
+		final UnaryComputerOp<Img<ByteType>, Img<ByteType>> hybridMap = Computers
+			.unary(ops, MapOp.class, out, in, new AddOneHybrid());
+		final CountingFactory outputFactory = new CountingFactory();
+
+		ops.run(DefaultJoin2Computers.class, out, in, hybridMap, computerOp,
+			outputFactory);
+
+		// test
+		final Cursor<ByteType> c = out.cursor();
+
+		while (c.hasNext()) {
+			assertEquals(2, c.next().get());
+		}
+		assertEquals(0, outputFactory.count);
+	}
+
+	@Test
+	public void testJoin2MapsNotFusable() {
+		// NB: the intermediate pixel type is unknown, so the buffer is needed
+		final CountingFactory outputFactory = new CountingFactory();
+
+		ops.run(DefaultJoin2Computers.class, out, in, computerOp, computerOp,
+			outputFactory);
+
+		// test
+		final Cursor<ByteType> c = out.cursor();
+
+		while (c.hasNext()) {
+			assertEquals(2, c.next().get());
+		}
+		assertEquals(1, outputFactory.count);
+	}
+
+	@Test
+	public void testJoinNMapsFusedCellImg() {
+		final Img<ByteType> cellIn = generateByteTestCellImg(true, new int[] { 7,
+			5 }, 30, 20);
+		final Img<ByteType> cellOut = generateByteTestCellImg(false, new int[] { 7,
+			5 }, 30, 20);
+		final UnaryComputerOp<Img<ByteType>, Img<ByteType>> map = Computers.unary(
+			ops, MapOp.class, cellOut, cellIn, new AddOneComputer());
+
+		final List<UnaryComputerOp<Img<ByteType>, Img<ByteType>>> computers =
+			new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			computers.add(map);
+		}
+
+		final CountingFactory outputFactory = new CountingFactory();
+
+		ops.run(DefaultJoinNComputers.class, cellOut, cellIn, computers,
+			outputFactory);
+
+		// test
+		final Cursor<ByteType> cIn = cellIn.cursor();
+		final Cursor<ByteType> cOut = cellOut.cursor();
+
+		while (cIn.hasNext()) {
+			assertEquals((byte) (cIn.next().get() + 4), cOut.next().get());
+		}
+		assertEquals(0, outputFactory.count);
+	}
+
 	// -- Helper classes --
 
 	private class AddOneInplace extends AbstractUnaryInplaceOp<ByteType> {
@@ -170,6 +258,33 @@ public class JoinTest extends AbstractOpTest {
 		}
 	}
 
+	private class AddOneHybrid extends AbstractUnaryHybridCF<ByteType, ByteType> {
+
+		@Override
+		public ByteType createOutput(final ByteType input) {
+			return new ByteType();
+		}
+
+		@Override
+		public void compute(final ByteType input, final ByteType output) {
+			output.set(input);
+			output.inc();
+		}
+	}
+
+	private static class CountingFactory extends
+		ImgImgSameTypeFactory<ByteType>
+	{
+
+		private int count;
+
+		@Override
+		public Img<ByteType> createOutput(final Img<ByteType> input) {
+			count++;
+			return super.createOutput(input);
+		}
+	}
+
 	private class AddOneComputerImg extends
 		AbstractUnaryComputerOp<Img<ByteType>, Img<ByteType>>
 	{
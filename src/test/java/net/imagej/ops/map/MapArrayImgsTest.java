@@ -0,0 +1,177 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.computer.BinaryComputerOp;
+import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
+import net.imglib2.Cursor;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImg;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.img.basictypeaccess.array.ByteArray;
+import net.imglib2.img.basictypeaccess.array.DoubleArray;
+import net.imglib2.img.basictypeaccess.array.FloatArray;
+import net.imglib2.img.basictypeaccess.array.ShortArray;
+import net.imglib2.img.planar.PlanarImg;
+import net.imglib2.img.planar.PlanarImgs;
+import net.imglib2.type.numeric.RealType;
+import net.imglib2.type.numeric.integer.UnsignedByteType;
+import net.imglib2.type.numeric.integer.UnsignedShortType;
+import net.imglib2.type.numeric.real.DoubleType;
+import net.imglib2.type.numeric.real.FloatType;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link MapArrayImgs}.
+ */
+public class MapArrayImgsTest extends AbstractOpTest {
+
+	@Test
+	public void testDivideConstantUnsignedByte() {
+		final ArrayImg<UnsignedByteType, ByteArray> in = ArrayImgs.unsignedBytes(
+			10, 10);
+		int i = 0;
+		for (final UnsignedByteType t : in) {
+			t.set(i++ * 7 % 256);
+		}
+		final ArrayImg<UnsignedByteType, ByteArray> out = ArrayImgs
+			.unsignedBytes(10, 10);
+		final ArrayImg<UnsignedByteType, ByteArray> expected = ArrayImgs
+			.unsignedBytes(10, 10);
+
+		final UnaryComputerOp<UnsignedByteType, UnsignedByteType> div = Computers
+			.unary(ops, Ops.Math.Divide.class, UnsignedByteType.class,
+				UnsignedByteType.class, new UnsignedByteType(3));
+		final Op map = ops.op(Ops.Map.class, out, in, div);
+		assertSame(MapArrayImgs.DivideConstantUnsignedByte.class, map.getClass());
+
+		ops.run(Ops.Map.class, out, in, div);
+		ops.run(MapUnaryComputers.IIToII.class, expected, in, div);
+		assertImgEquals(expected, out);
+	}
+
+	@Test
+	public void testSubtractFloat() {
+		final ArrayImg<FloatType, FloatArray> in1 = ArrayImgs.floats(20, 5);
+		final ArrayImg<FloatType, FloatArray> in2 = ArrayImgs.floats(20, 5);
+		int i = 0;
+		for (final FloatType t : in1) {
+			t.set(i++ / 3f);
+		}
+		for (final FloatType t : in2) {
+			t.set(i-- * 0.25f);
+		}
+		final ArrayImg<FloatType, FloatArray> out = ArrayImgs.floats(20, 5);
+		final ArrayImg<FloatType, FloatArray> expected = ArrayImgs.floats(20, 5);
+
+		final BinaryComputerOp<FloatType, FloatType, FloatType> sub = Computers
+			.binary(ops, Ops.Math.Subtract.class, FloatType.class, FloatType.class,
+				FloatType.class);
+		final Op map = ops.op(Ops.Map.class, out, in1, in2, sub);
+		assertSame(MapArrayImgs.SubtractFloat.class, map.getClass());
+
+		ops.run(Ops.Map.class, out, in1, in2, sub);
+		ops.run(MapBinaryComputers.IIAndIIToII.class, expected, in1, in2, sub);
+		assertImgEquals(expected, out);
+	}
+
+	@Test
+	public void testAddConstantPlanarUnsignedShort() {
+		final PlanarImg<UnsignedShortType, ShortArray> in = PlanarImgs
+			.unsignedShorts(7, 6, 3);
+		int i = 0;
+		for (final UnsignedShortType t : in) {
+			t.set(i++ * 811 % 65536);
+		}
+		final PlanarImg<UnsignedShortType, ShortArray> out = PlanarImgs
+			.unsignedShorts(7, 6, 3);
+		final PlanarImg<UnsignedShortType, ShortArray> expected = PlanarImgs
+			.unsignedShorts(7, 6, 3);
+
+		final UnaryComputerOp<UnsignedShortType, UnsignedShortType> add =
+			Computers.unary(ops, Ops.Math.Add.class, UnsignedShortType.class,
+				UnsignedShortType.class, new UnsignedShortType(40000));
+		final Op map = ops.op(Ops.Map.class, out, in, add);
+		assertSame(MapArrayImgs.AddConstantPlanarUnsignedShort.class, map
+			.getClass());
+
+		ops.run(Ops.Map.class, out, in, add);
+		ops.run(MapUnaryComputers.IIToII.class, expected, in, add);
+		assertImgEquals(expected, out);
+	}
+
+	@Test
+	public void testMultiplyPlanarDouble() {
+		final PlanarImg<DoubleType, DoubleArray> in1 = PlanarImgs.doubles(9, 4, 5);
+		final PlanarImg<DoubleType, DoubleArray> in2 = PlanarImgs.doubles(9, 4, 5);
+		int i = 0;
+		for (final DoubleType t : in1) {
+			t.set(i++ / 7d);
+		}
+		for (final DoubleType t : in2) {
+			t.set(i-- * 1.5);
+		}
+		final PlanarImg<DoubleType, DoubleArray> out = PlanarImgs.doubles(9, 4, 5);
+		final PlanarImg<DoubleType, DoubleArray> expected = PlanarImgs.doubles(9,
+			4, 5);
+
+		final BinaryComputerOp<DoubleType, DoubleType, DoubleType> mul = Computers
+			.binary(ops, Ops.Math.Multiply.class, DoubleType.class,
+				DoubleType.class, DoubleType.class);
+		final Op map = ops.op(Ops.Map.class, out, in1, in2, mul);
+		assertSame(MapArrayImgs.MultiplyPlanarDouble.class, map.getClass());
+
+		ops.run(Ops.Map.class, out, in1, in2, mul);
+		ops.run(MapBinaryComputers.IIAndIIToII.class, expected, in1, in2, mul);
+		assertImgEquals(expected, out);
+	}
+
+	// -- Helper methods --
+
+	private static <T extends RealType<T>> void assertImgEquals(
+		final Img<T> expected, final Img<T> actual)
+	{
+		final Cursor<T> e = expected.cursor();
+		final Cursor<T> a = actual.cursor();
+		while (e.hasNext()) {
+			assertEquals(e.next().getRealDouble(), a.next().getRealDouble(), 0);
+		}
+	}
+
+}
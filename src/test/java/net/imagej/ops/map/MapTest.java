@@ -39,6 +39,7 @@ import net.imagej.ops.special.computer.Computers;
 import net.imagej.ops.special.inplace.BinaryInplaceOp;
 import net.imagej.ops.special.inplace.Inplaces;
 import net.imglib2.Cursor;
+import net.imglib2.RandomAccess;
 import net.imglib2.img.Img;
 import net.imglib2.type.numeric.integer.ByteType;
 
@@ -214,6 +215,44 @@ public class MapTest extends AbstractOpTest {
 		assertImgSubOneEquals(arg, argCopy);
 	}
 
+	@Test
+	public void testIIToIIParallelSmallCells() {
+		final int[] cellDims = { 7, 6 };
+		final Img<ByteType> in = generateByteTestCellImg(true, cellDims, 40, 20);
+		final Img<ByteType> out = generateByteTestCellImg(false, cellDims, 40,
+			20);
+		final Img<ByteType> rai = generateByteArrayTestImg(false, 40, 20);
+
+		sub = Computers.unary(ops, Ops.Math.Subtract.class, ByteType.class,
+			ByteType.class, new ByteType((byte) 1));
+		ops.run(MapUnaryComputers.IIToIIParallel.class, out, in, sub);
+		ops.run(MapUnaryComputers.IIToRAIParallel.class, rai, in, sub);
+
+		assertImgSubOneEquals(in, out);
+		final Cursor<ByteType> inCursor = in.localizingCursor();
+		final RandomAccess<ByteType> raiAccess = rai.randomAccess();
+		while (inCursor.hasNext()) {
+			inCursor.fwd();
+			raiAccess.setPosition(inCursor);
+			assertEquals((byte) (inCursor.get().get() - 1), raiAccess.get().get());
+		}
+	}
+
+	@Test
+	public void testIIToIIParallelSingleCell() {
+		// NB: The single cell is split into pieces for the threads.
+		final int[] cellDims = { 40, 20 };
+		final Img<ByteType> in = generateByteTestCellImg(true, cellDims, 40, 20);
+		final Img<ByteType> out = generateByteTestCellImg(false, cellDims, 40,
+			20);
+
+		sub = Computers.unary(ops, Ops.Math.Subtract.class, ByteType.class,
+			ByteType.class, new ByteType((byte) 1));
+		ops.run(MapUnaryComputers.IIToIIParallel.class, out, in, sub);
+
+		assertImgSubOneEquals(in, out);
+	}
+
 	// -- helper methods --
 
 	private static void assertImgSubEquals(final Img<ByteType> in1,
@@ -0,0 +1,139 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.math.multiply;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Random;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.math.IIToIIOutputII;
+import net.imglib2.Cursor;
+import net.imglib2.img.Img;
+import net.imglib2.img.ImgFactory;
+import net.imglib2.img.array.ArrayImgFactory;
+import net.imglib2.img.cell.CellImgFactory;
+import net.imglib2.type.NativeType;
+import net.imglib2.type.numeric.ComplexType;
+import net.imglib2.type.numeric.complex.ComplexDoubleType;
+import net.imglib2.type.numeric.complex.ComplexFloatType;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ComplexMultiplyArrays} and
+ * {@link ComplexConjugateMultiplyArrays}.
+ */
+public class ComplexMultiplyArraysTest extends AbstractOpTest {
+
+	private static final double DELTA = 1e-5;
+
+	@Test
+	public void testMultiplyArrayImg() {
+		assertSameProducts(new ArrayImgFactory<ComplexFloatType>(),
+			new ComplexFloatType());
+		assertSameProducts(new ArrayImgFactory<ComplexDoubleType>(),
+			new ComplexDoubleType());
+	}
+
+	@Test
+	public void testMultiplyCellImg() {
+		assertSameProducts(new CellImgFactory<ComplexFloatType>(7),
+			new ComplexFloatType());
+		assertSameProducts(new CellImgFactory<ComplexDoubleType>(7),
+			new ComplexDoubleType());
+	}
+
+	@Test
+	public void testMatching() {
+		final ArrayImgFactory<ComplexFloatType> factory = new ArrayImgFactory<>();
+		final Img<ComplexFloatType> a = factory.create(new long[] { 4, 3 },
+			new ComplexFloatType());
+		final Img<ComplexFloatType> b = a.copy();
+		Op op = ops.op(Ops.Math.Multiply.class, a, a, b);
+		assertSame(ComplexMultiplyArrays.class, op.getClass());
+		op = ops.op(Ops.Math.ComplexConjugateMultiply.class, a, a, b);
+		assertSame(ComplexConjugateMultiplyArrays.class, op.getClass());
+	}
+
+	// -- Helper methods --
+
+	private <C extends ComplexType<C> & NativeType<C>> void assertSameProducts(
+		final ImgFactory<C> factory, final C type)
+	{
+		final long[] dims = { 23, 17 };
+		final Img<C> a = random(factory.create(dims, type), 1);
+		final Img<C> b = random(factory.create(dims, type), 2);
+
+		final Img<C> expected = factory.create(dims, type);
+		final Img<C> actual = factory.create(dims, type);
+		ops.run(IIToIIOutputII.Multiply.class, expected, a, b);
+		ops.run(ComplexMultiplyArrays.class, actual, a, b);
+		assertSameValues(expected, actual);
+
+		ops.run(ComplexConjugateMultiplyMap.class, expected, a, b);
+		ops.run(ComplexConjugateMultiplyArrays.class, actual, a, b);
+		assertSameValues(expected, actual);
+
+		// in place, as done by the FFT filters
+		final Img<C> inPlace = a.copy();
+		ops.run(ComplexConjugateMultiplyArrays.class, inPlace, inPlace, b);
+		assertSameValues(expected, inPlace);
+	}
+
+	private <C extends ComplexType<C>> Img<C> random(final Img<C> img,
+		final long seed)
+	{
+		final Random random = new Random(seed);
+		for (final C c : img) {
+			c.setComplexNumber(random.nextGaussian(), random.nextGaussian());
+		}
+		return img;
+	}
+
+	private <C extends ComplexType<C>> void
+		assertSameValues(final Img<C> expected, final Img<C> actual)
+	{
+		final Cursor<C> e = expected.cursor();
+		final Cursor<C> a = actual.cursor();
+		while (e.hasNext()) {
+			e.fwd();
+			a.fwd();
+			assertEquals(e.get().getRealDouble(), a.get().getRealDouble(), DELTA);
+			assertEquals(e.get().getImaginaryDouble(), a.get().getImaginaryDouble(),
+				DELTA);
+		}
+	}
+
+}
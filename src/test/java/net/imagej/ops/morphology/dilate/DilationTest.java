@@ -110,6 +110,36 @@ public class DilationTest extends AbstractOpTest {
 			assertEquals(c1.next().get(), c2.next().get());
 	}
 
+	@Test
+	public void testRectangleDilate() {
+		final Shape shape = new RectangleShape(2, false);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out1 = (Img<ByteType>) ops.run(RectangleDilate.class,
+			Img.class, in, shape, false);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out2 = (Img<ByteType>) ops.run(DefaultDilate.class,
+			Img.class, in, shape, false);
+		final Cursor<ByteType> c1 = out1.cursor();
+		final Cursor<ByteType> c2 = out2.cursor();
+		while (c1.hasNext())
+			assertEquals(c1.next().get(), c2.next().get());
+	}
+
+	@Test
+	public void testRectangleDilateFull() {
+		final Shape shape = new RectangleShape(2, false);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out1 = (Img<ByteType>) ops.run(RectangleDilate.class,
+			Img.class, in, shape, true);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out2 = (Img<ByteType>) ops.run(DefaultDilate.class,
+			Img.class, in, shape, true);
+		final Cursor<ByteType> c1 = out1.cursor();
+		final Cursor<ByteType> c2 = out2.cursor();
+		while (c1.hasNext())
+			assertEquals(c1.next().get(), c2.next().get());
+	}
+
 	@Test
 	public void testListDilate() {
 		final List<Shape> shapes = new ArrayList<>();
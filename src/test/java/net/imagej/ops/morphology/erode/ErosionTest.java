@@ -105,6 +105,30 @@ public class ErosionTest extends AbstractOpTest {
 		assertIterationsEqual(out1, out2);
 	}
 
+	@Test
+	public void testRectangleErode() {
+		final Shape shape = new RectangleShape(2, false);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out1 = (Img<ByteType>) ops.run(RectangleErode.class,
+			Img.class, in, shape, false);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out2 = (Img<ByteType>) ops.run(DefaultErode.class,
+			Img.class, in, shape, false);
+		assertIterationsEqual(out1, out2);
+	}
+
+	@Test
+	public void testRectangleErodeFull() {
+		final Shape shape = new RectangleShape(2, false);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out1 = (Img<ByteType>) ops.run(RectangleErode.class,
+			Img.class, in, shape, true);
+		@SuppressWarnings("unchecked")
+		final Img<ByteType> out2 = (Img<ByteType>) ops.run(DefaultErode.class,
+			Img.class, in, shape, true);
+		assertIterationsEqual(out1, out2);
+	}
+
 //	@Test
 	public void testListErode() {
 		final List<Shape> shapes = new ArrayList<>();
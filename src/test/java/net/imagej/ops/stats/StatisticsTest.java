@@ -30,7 +30,13 @@
 
 package net.imagej.ops.stats;
 
+import java.util.Arrays;
+import java.util.List;
+
 import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Ops;
+import net.imagej.ops.special.computer.Computers;
+import net.imagej.ops.special.computer.UnaryComputerOp;
 import net.imglib2.img.Img;
 import net.imglib2.img.array.ArrayImg;
 import net.imglib2.img.array.ArrayImgs;
@@ -38,6 +44,7 @@ import net.imglib2.img.basictypeaccess.array.FloatArray;
 import net.imglib2.type.numeric.integer.UnsignedByteType;
 import net.imglib2.type.numeric.real.DoubleType;
 import net.imglib2.type.numeric.real.FloatType;
+import net.imglib2.util.Pair;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -257,6 +264,243 @@ public class StatisticsTest extends AbstractOpTest {
 			0.00001d);
 	}
 
+	@Test
+	public void testQuantileSelection() {
+		// float samples are selected from a primitive copy
+		final float[] sorted = array.clone();
+		Arrays.sort(sorted);
+		for (final double q : new double[] { 0, 0.25, 0.5, 0.9, 1 }) {
+			final int k = (int) Math.min(arraySize - 1, (long) (arraySize * q));
+			Assert.assertEquals(q + "-th Quantile", sorted[k], ((DoubleType) ops
+				.run(DefaultQuantile.class, img, q)).getRealDouble(), 0d);
+		}
+	}
+
+	@Test
+	public void testHistogramQuantile() {
+		// 8-bit samples outnumber their value range, so they are counted
+		Assert.assertTrue(ops.op(Ops.Stats.Quantile.class, DoubleType.class,
+			randomlyFilledImg, 0.5) instanceof HistogramQuantile);
+
+		final int[] sorted = new int[(int) randomlyFilledImg.size()];
+		int i = 0;
+		for (final UnsignedByteType t : randomlyFilledImg) {
+			sorted[i++] = t.get();
+		}
+		Arrays.sort(sorted);
+		for (final double q : new double[] { 0, 0.25, 0.5, 0.9, 1 }) {
+			final int k = (int) Math.min(sorted.length - 1, (long) (sorted.length *
+				q));
+			Assert.assertEquals(q + "-th Quantile", sorted[k], ((DoubleType) ops
+				.run(HistogramQuantile.class, randomlyFilledImg, q)).getRealDouble(),
+				0d);
+		}
+		Assert.assertEquals("Median", ((DoubleType) ops.run(
+			HistogramQuantile.class, randomlyFilledImg, 0.5)).getRealDouble(),
+			((DoubleType) ops.run(DefaultMedian.class, randomlyFilledImg))
+				.getRealDouble(), 0d);
+		Assert.assertEquals("Percentile", ((DoubleType) ops.run(
+			HistogramQuantile.class, randomlyFilledImg, 0.3)).getRealDouble(),
+			((DoubleType) ops.run(DefaultPercentile.class, randomlyFilledImg, 30d))
+				.getRealDouble(), 0d);
+	}
+
+	/** Tests that a matched counting op can be reused for other inputs. */
+	@Test
+	public void testHistogramQuantileReused() {
+		final Iterable<UnsignedByteType> countable = randomlyFilledImg;
+		final UnaryComputerOp<Iterable<UnsignedByteType>, DoubleType> quantile =
+			Computers.unary(ops, HistogramQuantile.class, DoubleType.class,
+				countable, 0.5);
+
+		// too few pixels to be counted
+		final Img<UnsignedByteType> small = generateUnsignedByteArrayTestImg(true,
+			5, 5);
+		final DoubleType out = new DoubleType();
+		quantile.compute(small, out);
+		Assert.assertEquals(((DoubleType) ops.run(DefaultQuantile.class, small,
+			0.5)).getRealDouble(), out.getRealDouble(), 0d);
+
+		// not an interval
+		quantile.compute(Arrays.asList(new UnsignedByteType(3),
+			new UnsignedByteType(1), new UnsignedByteType(2)), out);
+		Assert.assertEquals(2, out.getRealDouble(), 0d);
+	}
+
+	@Test
+	public void testHistogramQuantileParallel() {
+		final Img<UnsignedByteType> big =
+			generateRandomlyFilledUnsignedByteTestImgWithSeed(new long[] { 1024,
+				512 }, 42L);
+		Assert.assertEquals(((DoubleType) ops.run(DefaultQuantile.class, big,
+			0.3)).getRealDouble(), ((DoubleType) ops.run(HistogramQuantile.class,
+				big, 0.3)).getRealDouble(), 0d);
+	}
+
+	@Test
+	public void testSummary() {
+		final SummaryStatistics summary = ops.stats().summary(randomlyFilledImg);
+
+		Assert.assertEquals(10000, summary.getN());
+		Assert.assertEquals(((DoubleType) ops.run(IterableMean.class,
+			randomlyFilledImg)).getRealDouble(), summary.getMean(), 0.00001d);
+		Assert.assertEquals("Variance", 5438.4780362436, summary.getVariance(),
+			0.00001d);
+		Assert.assertEquals("StdDev", 73.7460374274008, summary.getStdDev(),
+			0.00001d);
+		Assert.assertEquals("Moment 4 About Mean", 53069780.9168701, summary
+			.getMoment4AboutMean(), 0.00001d);
+		Assert.assertEquals("Skewness", -0.0012661517853476312, summary
+			.getSkewness(), 0.00001d);
+		Assert.assertEquals("Kurtosis", 1.794289587623922, summary.getKurtosis(),
+			0.00001d);
+	}
+
+	@Test
+	public void testSummaryMerge() {
+		final SummaryStatistics all = new SummaryStatistics();
+		final SummaryStatistics first = new SummaryStatistics();
+		final SummaryStatistics second = new SummaryStatistics();
+		for (int i = 0; i < arraySize; i++) {
+			all.add(array[i]);
+			(i < arraySize / 3 ? first : second).add(array[i]);
+		}
+		first.merge(second);
+
+		Assert.assertEquals(all.getN(), first.getN());
+		Assert.assertEquals(all.getMin(), first.getMin(), 0d);
+		Assert.assertEquals(all.getMax(), first.getMax(), 0d);
+		Assert.assertEquals(all.getMean(), first.getMean(), 1e-9);
+		Assert.assertEquals(all.getVariance(), first.getVariance(), 1e-6);
+		Assert.assertEquals(all.getMoment3AboutMean(), first
+			.getMoment3AboutMean(), 1e-3);
+		Assert.assertEquals(all.getMoment4AboutMean(), first
+			.getMoment4AboutMean(), 1e-1);
+	}
+
+	/** Tests that a matched parallel op can be reused for other inputs. */
+	@Test
+	public void testParallelReductionsReused() {
+		final Iterable<FloatType> big = generateFloatArrayTestImg(true, 1024, 512);
+		final UnaryComputerOp<Iterable<FloatType>, DoubleType> sum = Computers
+			.unary(ops, ParallelStats.Sum.class, DoubleType.class, big);
+
+		final Img<FloatType> small = generateFloatArrayTestImg(true, 10, 10);
+		final DoubleType out = new DoubleType();
+		sum.compute(small, out);
+		Assert.assertEquals(((DoubleType) ops.run(DefaultSum.class, small))
+			.getRealDouble(), out.getRealDouble(), 1e-3);
+
+		final List<FloatType> list = Arrays.asList(new FloatType(1),
+			new FloatType(2), new FloatType(4));
+		sum.compute(list, out);
+		Assert.assertEquals(7, out.getRealDouble(), 0);
+	}
+
+	@Test
+	public void testParallelReductions() {
+		final Img<FloatType> big = generateFloatArrayTestImg(true, 1024, 512);
+		Assert.assertTrue(big.size() >= ParallelStats.MIN_SIZE);
+		Assert.assertTrue(ops.op(Ops.Stats.Sum.class, DoubleType.class,
+			big) instanceof ParallelStats.Sum);
+
+		Assert.assertEquals(((DoubleType) ops.run(DefaultSum.class, big))
+			.getRealDouble(), ((DoubleType) ops.run(ParallelStats.Sum.class, big))
+				.getRealDouble(), 1e-3);
+		Assert.assertEquals(((DoubleType) ops.run(IterableMean.class, big))
+			.getRealDouble(), ((DoubleType) ops.run(ParallelStats.Mean.class, big))
+				.getRealDouble(), 1e-9);
+		Assert.assertEquals(((DoubleType) ops.run(IterableVariance.class, big))
+			.getRealDouble(), ((DoubleType) ops.run(ParallelStats.Variance.class,
+				big)).getRealDouble(), 1e-9);
+		Assert.assertEquals(((DoubleType) ops.run(IterableStandardDeviation.class,
+			big)).getRealDouble(), ((DoubleType) ops.run(ParallelStats.StdDev.class,
+				big)).getRealDouble(), 1e-9);
+
+		final FloatType min = new FloatType();
+		final FloatType max = new FloatType();
+		ops.run(IterableMin.class, min, big);
+		ops.run(IterableMax.class, max, big);
+		Assert.assertEquals(min.get(), ((FloatType) ops.run(
+			ParallelStats.Min.class, new FloatType(), big)).get(), 0f);
+		Assert.assertEquals(max.get(), ((FloatType) ops.run(
+			ParallelStats.Max.class, new FloatType(), big)).get(), 0f);
+
+		@SuppressWarnings("unchecked")
+		final Pair<FloatType, FloatType> minMax = (Pair<FloatType, FloatType>) ops
+			.run(ParallelStats.MinMax.class, big);
+		Assert.assertEquals(min.get(), minMax.getA().get(), 0f);
+		Assert.assertEquals(max.get(), minMax.getB().get(), 0f);
+
+		final SummaryStatistics summary = (SummaryStatistics) ops.run(
+			ParallelStats.Summary.class, big);
+		Assert.assertEquals(big.size(), summary.getN());
+		Assert.assertEquals(((DoubleType) ops.run(IterableVariance.class, big))
+			.getRealDouble(), summary.getVariance(), 1e-9);
+	}
+
+	@Test
+	public void testApproximateQuantile() {
+		final float[] sorted = array.clone();
+		Arrays.sort(sorted);
+		for (final double q : new double[] { 0.1, 0.5, 0.9 }) {
+			final double value = ((DoubleType) ops.run(
+				DefaultApproximateQuantile.class, img, q)).getRealDouble();
+			assertRankError(sorted, value, q, 0.03);
+		}
+		Assert.assertEquals(sorted[0], ((DoubleType) ops.run(
+			DefaultApproximateQuantile.class, img, 0d)).getRealDouble(), 0d);
+		Assert.assertEquals(sorted[sorted.length - 1], ((DoubleType) ops.run(
+			DefaultApproximateQuantile.class, img, 1d)).getRealDouble(), 0d);
+	}
+
+	@Test
+	public void testQuantileSketchMerge() {
+		final KllSketch first = new KllSketch(100);
+		final KllSketch second = new KllSketch(100);
+		for (int i = 0; i < arraySize; i++) {
+			(i % 2 == 0 ? first : second).add(array[i]);
+		}
+		first.merge(second);
+		Assert.assertEquals(arraySize, first.getN());
+
+		final float[] sorted = array.clone();
+		Arrays.sort(sorted);
+		assertRankError(sorted, first.quantile(0.25), 0.25, 0.05);
+		assertRankError(sorted, first.quantile(0.75), 0.75, 0.05);
+	}
+
+	@Test
+	public void testQuantileSketchSelfMerge() {
+		final KllSketch sketch = new KllSketch(100);
+		for (int i = 0; i < arraySize; i++) {
+			sketch.add(array[i]);
+		}
+		sketch.merge(sketch);
+		Assert.assertEquals(2 * arraySize, sketch.getN());
+
+		final float[] sorted = array.clone();
+		Arrays.sort(sorted);
+		assertRankError(sorted, sketch.quantile(0.5), 0.5, 0.05);
+	}
+
+	@Test
+	public void testQuantileSketchBoundedMemory() {
+		final Img<FloatType> big = generateFloatArrayTestImg(true, 1024, 512);
+		final KllSketch sketch = (KllSketch) ops.run(
+			ParallelStats.QuantileSketch.class, big, 50);
+		Assert.assertEquals(big.size(), sketch.getN());
+		Assert.assertTrue(sketch.retained() < 1000);
+
+		final float[] sorted = new float[(int) big.size()];
+		int i = 0;
+		for (final FloatType t : big) {
+			sorted[i++] = t.get();
+		}
+		Arrays.sort(sorted);
+		assertRankError(sorted, sketch.quantile(0.5), 0.5, 0.1);
+	}
+
 	@Test
 	public void testSkewness() {
 		Assert.assertEquals("Skewness", -0.0012661517853476312, ((DoubleType) ops
@@ -283,4 +527,20 @@ public class StatisticsTest extends AbstractOpTest {
 		Assert.assertEquals("Sum Of Squares", 217588654, ((DoubleType) ops.run(
 			DefaultSumOfSquares.class, randomlyFilledImg)).getRealDouble(), 0.00001d);
 	}
+
+	// -- Helper methods --
+
+	/**
+	 * Asserts that the rank of the given value in the sorted values is within
+	 * the given fraction of the values of the rank of the given quantile.
+	 */
+	private static void assertRankError(final float[] sorted,
+		final double value, final double q, final double maxError)
+	{
+		final int rank = Arrays.binarySearch(sorted, (float) value);
+		Assert.assertTrue(rank >= 0);
+		final double error = Math.abs(rank - q * sorted.length) / sorted.length;
+		Assert.assertTrue("rank error " + error, error <= maxError);
+	}
+
 }
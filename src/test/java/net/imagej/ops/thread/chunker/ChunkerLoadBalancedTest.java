@@ -0,0 +1,149 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.thread.chunker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import net.imagej.ops.AbstractOpTest;
+import net.imagej.ops.Op;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ChunkerLoadBalanced}.
+ */
+public class ChunkerLoadBalancedTest extends AbstractOpTest {
+
+	@Test
+	public void testMatching() {
+		final Op op = ops.op(ChunkerOp.class, new CountingChunk(
+			new AtomicIntegerArray(1)), 1L);
+		assertSame(ChunkerLoadBalanced.class, op.getClass());
+	}
+
+	@Test
+	public void testEachElementOnce() {
+		for (final int size : new int[] { 1, 7, 1000, 100003 }) {
+			final AtomicIntegerArray counts = new AtomicIntegerArray(size);
+			ops.run(ChunkerLoadBalanced.class, new CountingChunk(counts), size);
+			assertVisitedOnce(counts);
+		}
+	}
+
+	@Test
+	public void testGrainSize() {
+		final AtomicIntegerArray counts = new AtomicIntegerArray(1000);
+		final AtomicBoolean tooSmall = new AtomicBoolean();
+		ops.run(ChunkerLoadBalanced.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				if (numSteps < 100) tooSmall.set(true);
+				for (int i = 0; i < numSteps; i++) {
+					counts.incrementAndGet(startIndex + i * stepSize);
+				}
+			}
+		}, 1000, 100);
+		assertVisitedOnce(counts);
+		assertFalse(tooSmall.get());
+	}
+
+	@Test
+	public void testNested() {
+		final int outer = 16, inner = 1000;
+		final AtomicIntegerArray counts = new AtomicIntegerArray(outer * inner);
+		ops.run(ChunkerLoadBalanced.class, new Chunk() {
+
+			@Override
+			public void execute(final int startIndex, final int stepSize,
+				final int numSteps)
+			{
+				for (int o = 0; o < numSteps; o++) {
+					final int offset = (startIndex + o * stepSize) * inner;
+					ops.run(ChunkerOp.class, new Chunk() {
+
+						@Override
+						public void execute(final int start, final int step,
+							final int steps)
+						{
+							for (int i = 0; i < steps; i++) {
+								counts.incrementAndGet(offset + start + i * step);
+							}
+						}
+					}, inner);
+				}
+			}
+		}, outer, 1);
+		assertVisitedOnce(counts);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyElements() {
+		ops.run(ChunkerLoadBalanced.class, new CountingChunk(new AtomicIntegerArray(
+			1)), Integer.MAX_VALUE + 1L);
+	}
+
+	// -- Helper methods --
+
+	private void assertVisitedOnce(final AtomicIntegerArray counts) {
+		for (int i = 0; i < counts.length(); i++) {
+			assertEquals("element " + i, 1, counts.get(i));
+		}
+	}
+
+	// -- Helper classes --
+
+	private static class CountingChunk implements Chunk {
+
+		private final AtomicIntegerArray counts;
+
+		private CountingChunk(final AtomicIntegerArray counts) {
+			this.counts = counts;
+		}
+
+		@Override
+		public void execute(final int startIndex, final int stepSize,
+			final int numSteps)
+		{
+			for (int i = 0; i < numSteps; i++) {
+				counts.incrementAndGet(startIndex + i * stepSize);
+			}
+		}
+	}
+
+}
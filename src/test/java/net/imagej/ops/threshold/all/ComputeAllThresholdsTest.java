@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * ImageJ software for multidimensional image processing and analysis.
+ * %%
+ * Copyright (C) 2014 - 2017 Board of Regents of the University of
+ * Wisconsin-Madison, University of Konstanz and Brian Northan.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package net.imagej.ops.threshold.all;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import net.imagej.ops.Op;
+import net.imagej.ops.Ops;
+import net.imagej.ops.threshold.AbstractThresholdTest;
+import net.imglib2.IterableInterval;
+import net.imglib2.histogram.Histogram1d;
+import net.imglib2.img.Img;
+import net.imglib2.img.array.ArrayImgs;
+import net.imglib2.type.logic.BitType;
+import net.imglib2.type.numeric.integer.UnsignedShortType;
+import net.imglib2.view.Views;
+
+import org.junit.Test;
+import org.scijava.util.ListUtils;
+
+/**
+ * Tests {@link ComputeAllThresholds} and {@link ComputeAllThresholdsIterable},
+ * as well as applying global thresholds against a pre-computed histogram.
+ */
+public class ComputeAllThresholdsTest extends AbstractThresholdTest {
+
+	@Test
+	public void testAllFromHistogram() {
+		final Histogram1d<UnsignedShortType> histogram = histogram();
+		final Map<Class<? extends Op>, UnsignedShortType> thresholds = ops
+			.threshold().all(histogram);
+
+		assertEquals(ComputeAllThresholds.METHODS, new ArrayList<>(thresholds
+			.keySet()));
+		for (final Class<? extends Op> method : ComputeAllThresholds.METHODS) {
+			final Object expected = ops.run(method, histogram);
+			assertThreshold(threshold(expected), thresholds.get(method));
+		}
+	}
+
+	@Test
+	public void testSelectedFromIterable() {
+		final Map<Class<? extends Op>, UnsignedShortType> thresholds = ops
+			.threshold().all(in, Ops.Threshold.Otsu.class,
+				Ops.Threshold.Huang.class);
+
+		final List<Class<? extends Op>> methods = new ArrayList<>(thresholds
+			.keySet());
+		assertEquals(2, methods.size());
+		assertEquals(Ops.Threshold.Otsu.class, methods.get(0));
+		assertEquals(Ops.Threshold.Huang.class, methods.get(1));
+		assertThreshold(34103, thresholds.get(Ops.Threshold.Otsu.class));
+		assertThreshold(36874, thresholds.get(Ops.Threshold.Huang.class));
+	}
+
+	@Test
+	public void testApplyWithHistogram() {
+		final IterableInterval<UnsignedShortType> plane = Views.iterable(Views
+			.interval(in, new long[] { 0, 0 }, new long[] { 9, 4 }));
+		final Img<BitType> out = ArrayImgs.bits(10, 5);
+		ops.threshold().otsu(out, plane, histogram());
+
+		// the plane is binarized against the global Otsu threshold
+		int expected = 0;
+		for (final UnsignedShortType t : plane) {
+			if (t.get() > 34103) expected++;
+		}
+		assertCount(out, expected);
+	}
+
+	// -- Helper methods --
+
+	private int threshold(final Object result) {
+		final Object value = result instanceof List ? ListUtils.first(
+			(List<?>) result) : result;
+		return ((UnsignedShortType) value).get();
+	}
+
+}